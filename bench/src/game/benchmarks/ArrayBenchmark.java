@@ -0,0 +1,94 @@
+package game.benchmarks;
+
+import game.data_structures.Array;
+import game.data_structures.ArrayClass;
+import game.data_structures.SegmentedArray;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Insertion, removal and search in an {@link ArrayClass} or a {@link SegmentedArray}
+ * of the specified size<br>
+ * Every insertion is undone by a removal in the same invocation, so the size stays the same
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ArrayBenchmark {
+    /**
+     * Amount of elements in the array
+     */
+    @Param({ "10", "1000", "100000" })
+    public int elements;
+    /**
+     * Implementation of the array
+     */
+    @Param({ "ArrayClass", "SegmentedArray" })
+    public String implementation;
+
+    /**
+     * The array, holding the numbers from {@code 0} to {@code elements - 1}
+     */
+    private Array<Integer> array;
+    /**
+     * Element which is not in the array, inserted and searched for
+     */
+    private Integer missing;
+    /**
+     * Element in the middle of the array
+     */
+    private Integer middle;
+    /**
+     * Negative elements, a tenth of the array, inserted at the start and removed by a filter
+     */
+    private Array<Integer> batch;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        array = implementation.equals("ArrayClass") ? new ArrayClass<>() : new SegmentedArray<>();
+        for (int i = 0; i < elements; i++) array.insertLast(i);
+        missing = elements;
+        middle = elements / 2;
+        batch = new ArrayClass<>();
+        for (int i = 1; i <= Math.max(1, elements / 10); i++) batch.insertLast(-i);
+    }
+
+    @Benchmark
+    public int insertRemoveLast() {
+        array.insertLast(missing);
+        array.removeLast();
+        return array.size();
+    }
+
+    @Benchmark
+    public int insertRemoveFirst() {
+        array.insertAt(missing, 0);
+        array.removeAt(0);
+        return array.size();
+    }
+
+    @Benchmark
+    public int insertAllRemoveIfFirst() {
+        array.insertAll(batch, 0);
+        return array.removeIf(e -> e < 0);
+    }
+
+    @Benchmark
+    public boolean searchForwardMissing() {
+        return array.searchForward(missing);
+    }
+
+    @Benchmark
+    public boolean searchBackwardMissing() {
+        return array.searchBackward(missing);
+    }
+
+    @Benchmark
+    public int searchIndexOfMiddle() {
+        return array.searchIndexOf(middle);
+    }
+}
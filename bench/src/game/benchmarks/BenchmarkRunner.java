@@ -0,0 +1,31 @@
+package game.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks of the game engine with the GC profiler enabled,
+ * reporting the allocation rate and the garbage collections of every benchmark<br>
+ * Accepts the usual JMH command line options, for example
+ * {@code MoveBenchmark -p size=100 -rf json} runs a single benchmark on fields of 100x100 cells
+ * and saves the results, so they can be compared with the results after a change
+ */
+public class BenchmarkRunner {
+    /**
+     * Runs the benchmarks
+     * @param args JMH command line options, every benchmark of this package runs if none is selected
+     */
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        OptionsBuilder builder = new OptionsBuilder();
+        builder.parent(commandLine).addProfiler(GCProfiler.class);
+        if (commandLine.getIncludes().isEmpty()) builder.include(BenchmarkRunner.class.getPackageName());
+        Options options = builder.build();
+        new Runner(options).run();
+    }
+}
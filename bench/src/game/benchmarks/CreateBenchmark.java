@@ -0,0 +1,49 @@
+package game.benchmarks;
+
+import game.Building.CreateStatus;
+import game.Game;
+import game.GameState;
+import game.players.Player.PlayerColor;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Creation of a player in the bunker of the current team<br>
+ * A created player occupies the bunker, so every creation is measured once
+ * on a freshly restored game
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 10)
+@Measurement(iterations = 50)
+public class CreateBenchmark extends EngineBenchmark {
+    /**
+     * The starting position of every creation
+     */
+    private GameState state;
+    /**
+     * The game restored from the starting position
+     */
+    private Game game;
+    /**
+     * Name of the bunker of the team creating the player
+     */
+    private String bunker;
+
+    @Setup(Level.Trial)
+    public void setUpPosition() {
+        state = position(-1);
+        bunker = bunkerName(state.currentTeam());
+    }
+
+    @Setup(Level.Iteration)
+    public void setUpGame() {
+        game = state.toGame();
+    }
+
+    @Benchmark
+    public Game.GameResponse<CreateStatus> createPlayer() {
+        return game.createPlayer(PlayerColor.BLUE, bunker);
+    }
+}
@@ -0,0 +1,126 @@
+package game.benchmarks;
+
+import game.Game;
+import game.GameState;
+import game.PaintballGame;
+import game.Team;
+import game.data_structures.Iterator;
+import game.players.Player;
+import game.players.Player.PlayerColor;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Common parameters and positions of the benchmarks of the game engine<br>
+ * Every benchmark runs on a square field of {@link #size} cells per side, where {@link #teams}
+ * teams own one bunker each and a {@link #density} fraction of the cells holds a player<br>
+ * Fields of 10000 cells per side need about 12 GB of heap,
+ * pass {@code -p size=10,100,1000} to skip them on smaller machines
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = { "-Xms12g", "-Xmx12g" })
+public abstract class EngineBenchmark {
+    /**
+     * Seed of the random placement of the players, fixed so every run uses the same positions
+     */
+    private static final long SEED = 42;
+    /**
+     * Money in every bunker, enough to never run out during a benchmark
+     */
+    protected static final int TREASURY = 1_000_000;
+    /**
+     * Player colors indexed by their ordinal
+     */
+    private static final PlayerColor[] COLORS = PlayerColor.values();
+
+    /**
+     * Width and height of the field
+     */
+    @Param({ "10", "100", "1000", "10000" })
+    public int size;
+    /**
+     * Fraction of the cells of the field holding a player
+     */
+    @Param({ "0.01", "0.1" })
+    public double density;
+    /**
+     * Amount of teams in the game
+     */
+    @Param({ "2", "8" })
+    public int teams;
+
+    /**
+     * Name of the bunker of a team
+     * @param team Index of the team
+     * @return Name of the bunker
+     */
+    protected static String bunkerName(int team) {
+        return "bunker" + team;
+    }
+
+    /**
+     * Builds the benchmark position: every team owns a bunker in a different row and column,
+     * and players of random colors and teams are spread over the field<br>
+     * The top left cell and the cells of the bunkers are always left without a player
+     * @param owner Index of the team every player belongs to, {@code -1} to pick random teams
+     * @return The benchmark position
+     */
+    protected GameState position(int owner) {
+        Game game = new PaintballGame();
+        game.setField(size, size);
+        for (int t = 0; t < teams; t++) {
+            int x = 1 + t * size / teams, y = 1 + (t * 7 + 3) % teams * size / teams;
+            game.addBuilding(x, y, TREASURY, bunkerName(t));
+            game.addTeam("team" + t, bunkerName(t));
+        }
+        game.start();
+        GameState state = new GameState(game);
+        SplittableRandom random = new SplittableRandom(SEED);
+        for (int y = 1; y <= size; y++) {
+            for (int x = 1; x <= size; x++) {
+                if (x == 1 && y == 1 || random.nextDouble() >= density || state.bunkerAt(x, y) >= 0)
+                    continue;
+                int team = owner >= 0 ? owner : random.nextInt(teams);
+                state.placePlayer(color(state, team, random), x, y, team);
+            }
+        }
+        return state;
+    }
+
+    /**
+     * Picks the color of a player of the benchmark position, random by default
+     * @param state The position being built
+     * @param team Index of the player's team
+     * @param random Source of randomness of the position
+     * @return Color of the player
+     */
+    protected PlayerColor color(GameState state, int team, SplittableRandom random) {
+        return COLORS[random.nextInt(COLORS.length)];
+    }
+
+    /**
+     * Finds the player located in a cell
+     * @param game The game
+     * @param x X coordinate of the cell
+     * @param y Y coordinate of the cell
+     * @return The player in the cell, {@code null} if the cell is empty
+     */
+    protected static Player playerAt(Game game, int x, int y) {
+        Iterator<Team> teams = game.teams();
+        while (teams.hasNext()) {
+            Iterator<Player> players = teams.next().players();
+            while (players.hasNext()) {
+                Player player = players.next();
+                if (player.fieldLocation().getX() == x && player.fieldLocation().getY() == y)
+                    return player;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,53 @@
+package game.benchmarks;
+
+import game.Field;
+import game.Game;
+import game.GameState;
+import game.players.Player.PlayerColor;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Attack of every player of the current team in a game with players of every team<br>
+ * An attack eliminates players, so every attack is measured once on a freshly restored game<br>
+ * The attacking team has only red players and the other teams only red and blue ones,
+ * so attackers win every fight: an attacker eliminated during the attack of its team
+ * stops the iteration over the team
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 20)
+public class GameAttackBenchmark extends EngineBenchmark {
+    /**
+     * The starting position of every attack
+     */
+    private GameState state;
+    /**
+     * The game restored from the starting position
+     */
+    private Game game;
+
+    @Override
+    protected PlayerColor color(GameState state, int team, SplittableRandom random) {
+        if (team == state.currentTeam() || random.nextBoolean()) return PlayerColor.RED;
+        return PlayerColor.BLUE;
+    }
+
+    @Setup(Level.Trial)
+    public void setUpPosition() {
+        state = position(-1);
+    }
+
+    @Setup(Level.Iteration)
+    public void setUpGame() {
+        game = state.toGame();
+    }
+
+    @Benchmark
+    public Game.GameResponse<Field.Map> playersAttack() {
+        return game.playersAttack();
+    }
+}
@@ -0,0 +1,65 @@
+package game.benchmarks;
+
+import game.Field;
+import game.Game;
+import game.Team;
+import game.data_structures.Iterator;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Iteration over the cells of a {@link Field.Map} and printing of the map by {@code Main}<br>
+ * {@code Main} is in the default package, so its private {@code printMap} method is called
+ * through reflection, with the standard output discarded while the benchmark runs
+ */
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class MapBenchmark extends EngineBenchmark {
+    /**
+     * The game
+     */
+    private Game game;
+    /**
+     * Team from whose point of view the maps are formed
+     */
+    private Team team;
+    /**
+     * The {@code Main.printMap} method
+     */
+    private Method printMap;
+    /**
+     * Standard output of the benchmark process, restored after the trial
+     */
+    private PrintStream out;
+
+    @Setup(Level.Trial)
+    public void setUp() throws ReflectiveOperationException {
+        game = position(-1).toGame();
+        team = game.currentTeam();
+        printMap = Class.forName("Main").getDeclaredMethod("printMap", Field.Map.class);
+        printMap.setAccessible(true);
+        out = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        System.setOut(out);
+    }
+
+    @Benchmark
+    public void iterateMap(Blackhole blackhole) {
+        Iterator<Field.MapCell> cells = game.map(team).getMapCells();
+        while (cells.hasNext()) blackhole.consume(cells.next());
+    }
+
+    @Benchmark
+    public void printMap() throws IllegalAccessException, InvocationTargetException {
+        printMap.invoke(null, game.map(team));
+    }
+}
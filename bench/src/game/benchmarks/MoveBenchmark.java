@@ -0,0 +1,86 @@
+package game.benchmarks;
+
+import game.Game;
+import game.GameState;
+import game.data_structures.Array;
+import game.data_structures.ArrayClass;
+import game.data_structures.Iterator;
+import game.players.Player.Action;
+import game.players.Player.Direction;
+import game.players.Player.PlayerColor;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Move of a player of the current team to an empty cell<br>
+ * Every team has a green player next to an empty cell, which moves east and back west
+ * on alternate turns of its team, so the game doesn't change between two rounds
+ */
+public class MoveBenchmark extends EngineBenchmark {
+    /**
+     * The game
+     */
+    private Game game;
+    /**
+     * Starting cell of the moving player of every team
+     */
+    private int[] moverX, moverY;
+    /**
+     * Indication that the moving player of a team has moved east
+     */
+    private boolean[] moved;
+    /**
+     * Index of the team making the next move
+     */
+    private int team;
+    /**
+     * Directions of the two moves
+     */
+    private Array<Direction> east, west;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        GameState state = position(-1);
+        moverX = new int[teams];
+        moverY = new int[teams];
+        moved = new boolean[teams];
+        int x = 1, y = 2;
+        for (int t = 0; t < teams; t++) {
+            while (!isFree(state, x, y) || !isFree(state, x + 1, y)) {
+                if (++x >= size) {
+                    x = 1;
+                    y++;
+                }
+            }
+            state.placePlayer(PlayerColor.GREEN, x, y, t);
+            moverX[t] = x;
+            moverY[t] = y;
+            x += 2;
+        }
+        team = state.currentTeam();
+        game = state.toGame();
+        east = new ArrayClass<>(1);
+        east.insertLast(Direction.EAST);
+        west = new ArrayClass<>(1);
+        west.insertLast(Direction.WEST);
+    }
+
+    /**
+     * Check whether a cell is on the field and holds neither a player nor a bunker
+     * @param state The position
+     * @param x X coordinate of the cell
+     * @param y Y coordinate of the cell
+     * @return {@code true} if the cell is free
+     */
+    private boolean isFree(GameState state, int x, int y) {
+        return x <= size && y <= size && state.playerAt(x, y) < 0 && state.bunkerAt(x, y) < 0;
+    }
+
+    @Benchmark
+    public Game.GameResponse<Iterator<Action>> movePlayerAt() {
+        int t = team;
+        team = (t + 1) % teams;
+        moved[t] = !moved[t];
+        if (moved[t]) return game.movePlayerAt(moverX[t], moverY[t], east);
+        return game.movePlayerAt(moverX[t] + 1, moverY[t], west);
+    }
+}
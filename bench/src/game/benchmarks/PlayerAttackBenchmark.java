@@ -0,0 +1,43 @@
+package game.benchmarks;
+
+import game.AttackTargets;
+import game.Game;
+import game.GameState;
+import game.players.Player;
+import game.players.Player.ActionStatus;
+import game.players.Player.PlayerColor;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Attack of a single player of every color from the top left cell<br>
+ * Every other player belongs to the attacker's team, so the attack scans its whole pattern
+ * without eliminating anyone and every invocation does the same work<br>
+ * Nobody moves, so after the first invocation the attack only visits the cells with entities
+ * kept by {@link AttackTargets}; the whole pattern is scanned on every invocation when
+ * the {@value AttackTargets#CAPACITY_PROPERTY} system property is {@code 0}
+ */
+public class PlayerAttackBenchmark extends EngineBenchmark {
+    /**
+     * Color of the attacking player
+     */
+    @Param({ "RED", "GREEN", "BLUE" })
+    public PlayerColor color;
+
+    /**
+     * The attacking player
+     */
+    private Player attacker;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        GameState state = position(0);
+        state.placePlayer(color, 1, 1, 0);
+        Game game = state.toGame();
+        attacker = playerAt(game, 1, 1);
+    }
+
+    @Benchmark
+    public ActionStatus attack() {
+        return attacker.attack();
+    }
+}
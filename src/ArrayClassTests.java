@@ -0,0 +1,145 @@
+/**
+ * @author POO 67258 67398 team 2023/24
+ */
+
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import game.data_structures.Array;
+import game.data_structures.ArrayClass;
+import game.data_structures.SizedIterator;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+/**
+ * The ArrayClassTests class tests the bulk operations of {@link ArrayClass}:
+ * {@link Array#insertAll(Array, int)}, {@link Array#removeAll(int[], int)}
+ * and {@link Array#removeIf(java.util.function.Predicate, java.util.function.IntConsumer)}.
+ */
+public class ArrayClassTests {
+
+	/**
+	 * Tests insertions at the start, in the middle and at the end,
+	 * growing the array beyond its initial capacity.
+	 */
+	@Test public void testInsertAll() {
+		Array<String> array = array(2, "a", "b");
+		array.insertAll(array(1, "x", "y", "z"), 1);
+		assertElements(array, "a", "x", "y", "z", "b");
+		array.insertAll(array(1, "0"), 0);
+		array.insertAll(array(1, "9", "10"), array.size());
+		assertElements(array, "0", "a", "x", "y", "z", "b", "9", "10");
+		array.insertAll(new ArrayClass<>(), 3);
+		assertEquals(8, array.size());
+	}
+
+	/**
+	 * Tests removals of the first, the last and consecutive positions,
+	 * and that only the first positions given are used.
+	 */
+	@Test public void testRemoveAll() {
+		Array<String> array = array(1, "a", "b", "c", "d", "e", "f", "g");
+		array.removeAll(new int[] { 0, 2, 3, 6, 1 }, 4);
+		assertElements(array, "b", "e", "f");
+		array.removeAll(new int[0], 0);
+		assertElements(array, "b", "e", "f");
+		array.removeAll(new int[] { 0, 1, 2 }, 3);
+		assertElements(array);
+		array.insertLast("h");
+		assertElements(array, "h");
+	}
+
+	/**
+	 * Tests that the callback receives the original positions of the removed elements,
+	 * in increasing order.
+	 */
+	@Test public void testRemoveIf() {
+		Array<String> array = array(1, "a", "-b", "c", "-d", "-e", "f");
+		List<Integer> removed = new ArrayList<>();
+		assertEquals(3, array.removeIf(s -> s.startsWith("-"), removed::add));
+		assertEquals(List.of(1, 3, 4), removed);
+		assertElements(array, "a", "c", "f");
+		assertEquals(0, array.removeIf(s -> s.startsWith("-")));
+		assertEquals(3, array.removeIf(s -> true));
+		assertElements(array);
+	}
+
+	/**
+	 * Tests the remapping of the index of the current team done when removing the empty teams:
+	 * the index moves back once for every removed team up to the current one, so it stays on the
+	 * current team, or on the team before it if the current team was removed, so that the next
+	 * turn goes to the team after it.
+	 */
+	@Test public void testCurrentIndexRemapping() {
+		String[] teams = { "-t0", "t1", "-t2", "t3", "t4" };
+		assertEquals("t3", remap(teams, 3));
+		assertEquals("t1", remap(teams, 2));
+		assertEquals("t4", remap(teams, 4));
+		assertEquals(-1, remapIndex(teams, 0));
+		assertEquals(0, remapIndex(teams, 1));
+	}
+
+	/**
+	 * Removes the teams whose names start with "-" and returns the team at the remapped current index
+	 * @param teams Names of the teams
+	 * @param current Index of the current team
+	 * @return Name of the team at the remapped index
+	 */
+	private static String remap(String[] teams, int current) {
+		Array<String> array = array(1, teams);
+		int index = remapIndex(array, current);
+		return array.get(index);
+	}
+
+	/**
+	 * Removes the teams whose names start with "-" and returns the remapped current index
+	 * @param teams Names of the teams
+	 * @param current Index of the current team
+	 * @return The remapped index
+	 */
+	private static int remapIndex(String[] teams, int current) {
+		return remapIndex(array(1, teams), current);
+	}
+
+	/**
+	 * Removes the elements starting with "-" from an array, remapping an index like the game does
+	 * @param array The array
+	 * @param current The index
+	 * @return The remapped index
+	 */
+	private static int remapIndex(Array<String> array, int current) {
+		int[] index = { current };
+		array.removeIf(s -> s.startsWith("-"), i -> {
+			if (i <= current) index[0]--;
+		});
+		return index[0];
+	}
+
+	/**
+	 * Creates an array with some elements
+	 * @param capacity Initial capacity of the array
+	 * @param elements The elements
+	 * @return The array
+	 */
+	private static Array<String> array(int capacity, String... elements) {
+		Array<String> array = new ArrayClass<>(capacity);
+		for (String element : elements) array.insertLast(element);
+		return array;
+	}
+
+	/**
+	 * Asserts that an array has some elements, in the same order
+	 * @param array The array
+	 * @param expected The elements
+	 */
+	private static void assertElements(Array<String> array, String... expected) {
+		assertEquals(expected.length, array.size());
+		SizedIterator<String> it = array.iterator();
+		for (String element : expected) assertEquals(element, it.next());
+		assertFalse(it.hasNext());
+	}
+}
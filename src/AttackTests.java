@@ -0,0 +1,140 @@
+/**
+ * @author POO 67258 67398 team 2023/24
+ */
+
+
+import static org.junit.Assert.assertEquals;
+
+import game.AttackTargets;
+import game.Game;
+import game.PaintballGame;
+import game.PlayerTable;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Scanner;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * The AttackTests class checks that planning the attacks in parallel and keeping their targets
+ * don't change the games played. A script of {@link ScenarioGenerator} is replayed by
+ * {@link Replay} in a new virtual machine for every configuration, since the configuration
+ * is read from system properties when the classes are loaded, and the output and the
+ * {@link Game#hash()} after every command must be the same as the ones of sequential
+ * attacks without kept targets.
+ */
+public class AttackTests {
+	/**
+	 * Options of the script, a small field with many attacks.
+	 */
+	private static final Map<String, String> OPTIONS = Map.of("width", "30", "height", "30",
+		"teams", "4", "bunkers", "16", "treasury", "30", "mix", "3,6,4,0,1", "seed", "47");
+
+	/**
+	 * Amount of commands of the script.
+	 */
+	private static final long COMMANDS = 3000;
+
+	/**
+	 * Prefix of the line with the hash of the game written by {@link Replay} after every command.
+	 */
+	private static final String HASH = "#hash ";
+
+	private static File script;
+
+	/**
+	 * Output of sequential attacks without kept targets, which every configuration is compared to.
+	 */
+	private static List<String> expected;
+
+	@BeforeClass
+	public static void setUp() throws Exception {
+		script = File.createTempFile("attacks", ".txt");
+		script.deleteOnExit();
+		try (Writer out = new BufferedWriter(new FileWriter(script))) {
+			new ScenarioGenerator(OPTIONS, out).generate(COMMANDS);
+		}
+		expected = replay(0, 0);
+	}
+
+	/**
+	 * Tests attacks planned in parallel without kept targets.
+	 */
+	@Test public void testParallel() throws Exception { compare(1, 0); }
+
+	/**
+	 * Tests attacks planned one after the other with kept targets.
+	 */
+	@Test public void testKeptTargets() throws Exception { compare(0, 1 << 22); }
+
+	/**
+	 * Tests attacks planned in parallel with kept targets.
+	 */
+	@Test public void testParallelKeptTargets() throws Exception { compare(1, 1 << 22); }
+
+	/**
+	 * Replays the script with a configuration and compares it command by command
+	 * with sequential attacks without kept targets.
+	 * @param parallelPlayers Value of {@link PlayerTable#PARALLEL_PROPERTY}
+	 * @param targetInts Value of {@link AttackTargets#CAPACITY_PROPERTY}
+	 */
+	private void compare(int parallelPlayers, long targetInts) throws Exception {
+		List<String> result = replay(parallelPlayers, targetInts);
+		for (int i = 0; i < Math.min(expected.size(), result.size()); i++)
+			assertEquals("Command " + (i + 1), expected.get(i), result.get(i));
+		assertEquals(expected.size(), result.size());
+	}
+
+	/**
+	 * Replays the script in a new virtual machine.
+	 * @param parallelPlayers Value of {@link PlayerTable#PARALLEL_PROPERTY}
+	 * @param targetInts Value of {@link AttackTargets#CAPACITY_PROPERTY}
+	 * @return Output of every command, each followed by the hash of the game
+	 */
+	private static List<String> replay(int parallelPlayers, long targetInts) throws Exception {
+		Process process = new ProcessBuilder(
+			new File(System.getProperty("java.home"), "bin/java").getPath(),
+			"-cp", System.getProperty("java.class.path"),
+			"-D" + PlayerTable.PARALLEL_PROPERTY + "=" + parallelPlayers,
+			"-D" + AttackTargets.CAPACITY_PROPERTY + "=" + targetInts,
+			Replay.class.getName(), script.getPath())
+			.redirectErrorStream(true).start();
+		String output = new String(process.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+		assertEquals(output, 0, process.waitFor());
+		List<String> commands = new ArrayList<>();
+		for (int from = 0, end = output.indexOf(HASH); end >= 0; end = output.indexOf(HASH, from)) {
+			int next = output.indexOf('\n', end) + 1;
+			commands.add(output.substring(from, next));
+			from = next;
+		}
+		return commands;
+	}
+
+	/**
+	 * Plays a script like {@link Main}, writing the hash of the game after every command.
+	 */
+	public static class Replay {
+		public static void main(String[] args) throws IOException {
+			Game game = new PaintballGame();
+			try (Scanner in = new Scanner(new FileInputStream(args[0]))) {
+				String command;
+				do {
+					command = in.next().toLowerCase();
+					Main.handleCommand(game, in, command);
+					System.out.println(HASH + game.hash());
+				}
+				while (!command.equals(Main.Commands.QUIT));
+			}
+		}
+	}
+}
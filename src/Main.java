@@ -7,18 +7,60 @@ import game.players.*;
 import game.Game.*;
 import game.Building.*;
 import game.players.Player.*;
+import game.bot.Bot;
+import game.bot.TranspositionTable;
+import game.metrics.Histogram;
+import game.metrics.MapEvent;
+import game.metrics.Metrics;
+import game.metrics.Stats;
+import game.metrics.Tracer;
+import game.simulation.SimulationResult;
+import game.simulation.Simulator;
 
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
 import java.util.Scanner;
 /**
  * Main program for the PaintBall Game
  * @author Ilia Taitsel 67258, Taisiia Hlukha 67398 23/24
  */
 public class Main {
+    /**
+     * Maximum amount of turns of a game played by the {@link Commands#SIMULATE} command
+     */
+    private static final int SIMULATION_TURNS = 1000;
+    /**
+     * Logarithm of the amount of entries of the transposition table of the {@link Commands#BOT}
+     */
+    private static final int BOT_TABLE_BITS = 20;
+    /**
+     * Computer player used by the {@link Commands#BOT} command, created on first use
+     */
+    private static Bot bot;
+    /**
+     * Latency of the commands which are not recognized
+     */
+    private static final Histogram INVALID_COMMAND_LATENCY = Stats.histogram("invalid command");
+
     /**
      * Main method. Invokes the command interpreter
      * @param args command-line arguments (not used in this program)
      */
     public static void main(String[] args) {
+        HttpServer metricsServer = null;
+        if (Metrics.ENABLED) {
+            try {
+                metricsServer = Metrics.serve(Integer.getInteger(Metrics.PORT_PROPERTY, 0));
+            } catch (IOException e) {
+                System.err.printf(Feedback.METRICS_UNAVAILABLE, e.getMessage());
+            }
+        }
         Game game = new PaintballGame();
         Scanner in = new Scanner(System.in);
         String command;
@@ -30,6 +72,7 @@ public class Main {
         }
         while (!command.equals(Commands.QUIT));
         in.close();
+        if (metricsServer != null) metricsServer.stop(0);
     }
 
     /**
@@ -38,6 +81,7 @@ public class Main {
      * @param command Input {@link String} of a user
      */
     public static void handleCommand(Game game, Scanner in, String command) {
+        long start = Stats.start();
         switch (command) {
             case Commands.HELP -> help(game);
             case Commands.START_GAME -> newGame(game, in);
@@ -48,9 +92,28 @@ public class Main {
             case Commands.CREATE -> create(game, in);
             case Commands.MOVE -> move(game, in);
             case Commands.ATTACK -> attack(game);
+            case Commands.SIMULATE -> simulate(game, in);
+            case Commands.BOT -> bot(game, in);
+            case Commands.STATS -> stats();
+            case Commands.TRACE -> trace(in);
+            case Commands.SAVE -> save(game, in);
+            case Commands.LOAD -> load(game, in);
+            case Commands.SCENARIO -> scenario(game, in);
+            case Commands.ENEMIES -> enemies(game, in);
+            case Commands.NEAREST -> nearest(game, in);
+            case Commands.AREA -> area(game, in);
+            case Commands.PATH -> path(game, in);
+            case Commands.THREAT -> threat(game);
             case Commands.QUIT -> quit(game);
-            default -> System.out.println(Feedback.INVALID_COMMAND);
+            default -> {
+                System.out.println(Feedback.INVALID_COMMAND);
+                Stats.stop(INVALID_COMMAND_LATENCY, start);
+                Metrics.command(INVALID_COMMAND_LATENCY.name());
+                return;
+            }
         }
+        Stats.stop(Stats.histogram(command), start);
+        Metrics.command(command);
     }
 
     /**
@@ -90,6 +153,43 @@ public class Main {
         }
         addBunkers(game, in, bunkersNumber);
         addTeams(game, in, teamsNumber);
+        startGame(game);
+    }
+
+    /**
+     * Attempts to start a new game set up by a {@link Scenario} file,
+     * with the same outcomes as the {@link Commands#START_GAME} command
+     * @param in Scanner object to read user input
+     */
+    private static void scenario(Game game, Scanner in) {
+        String file = in.nextLine().trim();
+        Scenario scenario;
+        try {
+            scenario = Scenario.read(Path.of(file));
+        } catch (IOException | InvalidPathException e) {
+            System.out.printf(Feedback.SCENARIO_NOT_READ, e.getMessage());
+            return;
+        }
+        game.stop();
+        if (game.setField(scenario.width(), scenario.height()) != GameStatus.OK) {
+            game.stop();
+            System.out.println(Feedback.SIZE_NOT_OK);
+            return;
+        }
+        System.out.printf(Feedback.BUNKERS_LIST, scenario.bunkerNames().length);
+        printRejected(game.addBuildings(scenario.bunkerX(), scenario.bunkerY(), scenario.bunkerTreasury(),
+            scenario.bunkerNames()), GameStatus.BUNKER_NOT_CREATED, Feedback.BUNKER_NOT_CREATED);
+        System.out.printf(Feedback.TEAMS_LIST, scenario.teamNames().length);
+        printRejected(game.addTeams(scenario.teamNames(), scenario.teamBunkers()),
+            GameStatus.TEAM_NOT_CREATED, Feedback.TEAM_NOT_CREATED);
+        startGame(game);
+    }
+
+    /**
+     * Starts the game which has just been set up<br>
+     * If the amount of teams is less than 2, the game will not start
+     */
+    private static void startGame(Game game) {
         if (game.start() != GameStatus.OK) {
             game.stop();
             System.out.println(Feedback.NOT_ENOUGH_TEAMS);
@@ -97,34 +197,54 @@ public class Main {
     }
 
     /**
-     * Initialize bunkers that will be in the new game
+     * Initialize bunkers that will be in the new game<br>
+     * The bunkers are read first and added to the game in a single batch
      * @param in Scanner object to read user input
      * @param bunkersNumber Amount of bunkers to expect from the user
      */
     private static void addBunkers(Game game, Scanner in, int bunkersNumber) {
         System.out.printf(Feedback.BUNKERS_LIST, bunkersNumber);
-        for (int i = 0; i < bunkersNumber; i++) { 
-            int x = in.nextInt(), y = in.nextInt(), treasury = in.nextInt();
-            String name = in.nextLine().trim();
-            GameStatus status = game.addBuilding(x, y, treasury, name);
-            if (status == GameStatus.BUNKER_NOT_CREATED)
-                System.out.println(Feedback.BUNKER_NOT_CREATED);
+        int[] x = new int[bunkersNumber], y = new int[bunkersNumber], treasury = new int[bunkersNumber];
+        String[] names = new String[bunkersNumber];
+        for (int i = 0; i < bunkersNumber; i++) {
+            x[i] = in.nextInt();
+            y[i] = in.nextInt();
+            treasury[i] = in.nextInt();
+            names[i] = in.nextLine().trim();
         }
+        printRejected(game.addBuildings(x, y, treasury, names),
+            GameStatus.BUNKER_NOT_CREATED, Feedback.BUNKER_NOT_CREATED);
     }
 
     /**
-     * Initialize teams that will be in the new game
+     * Initialize teams that will be in the new game<br>
+     * The teams are read first and added to the game in a single batch
      * @param in Scanner object to read user input
      * @param teamsNumber Amount of teams to expect from the user
      */
     private static void addTeams(Game game, Scanner in, int teamsNumber) {
         System.out.printf(Feedback.TEAMS_LIST, teamsNumber);
+        String[] teamNames = new String[teamsNumber], bunkerNames = new String[teamsNumber];
         for (int i = 0; i < teamsNumber; i++) {
-            String teamName = in.next(), bunkerName = in.nextLine().trim();
-            GameStatus status = game.addTeam(teamName, bunkerName);
-            if (status == GameStatus.TEAM_NOT_CREATED)
-                System.out.println(Feedback.TEAM_NOT_CREATED);
+            teamNames[i] = in.next();
+            bunkerNames[i] = in.nextLine().trim();
         }
+        printRejected(game.addTeams(teamNames, bunkerNames),
+            GameStatus.TEAM_NOT_CREATED, Feedback.TEAM_NOT_CREATED);
+    }
+
+    /**
+     * Prints a message for every entity of a batch which was rejected
+     * @param statuses Outcome of each entity of the batch
+     * @param rejected Status of the rejected entities
+     * @param message Message printed for each rejected entity
+     */
+    private static void printRejected(GameStatus[] statuses, GameStatus rejected, String message) {
+        StringBuilder out = new StringBuilder();
+        for (GameStatus status : statuses) {
+            if (status == rejected) out.append(message).append(System.lineSeparator());
+        }
+        System.out.print(out);
     }
 
     /**
@@ -169,6 +289,8 @@ public class Main {
      * @param map The instance of {@link Field.Map} to print out
      */
     private static void printMap(Field.Map map) {
+        MapEvent event = new MapEvent();
+        event.begin();
         int width = map.getWidth(), height = map.getHeight();
         System.out.printf("%d %d\n**", width, height);
         for (int i = 1; i < width; i++) System.out.printf("%d ", i);
@@ -182,6 +304,11 @@ public class Main {
             if (i % width == width - 1)  System.out.println();
             i++;
         }
+        if (event.shouldCommit()) {
+            event.team = map.getTeam() == null ? null : map.getTeam().name();
+            event.cells = (long) width * height;
+            event.commit();
+        }
     }
     
     /**
@@ -241,6 +368,170 @@ public class Main {
         }
     }
 
+    /**
+     * Lists the players of the other teams within a distance in steps of a position
+     * @param in Scanner object to read user input
+     */
+    private static void enemies(Game game, Scanner in) {
+        if (!game.inProgress()) {
+            System.out.println(Feedback.INVALID_COMMAND);
+            in.nextLine();
+            return;
+        }
+        int x = in.nextInt(), y = in.nextInt(), radius = in.nextInt();
+        GameResponse<SizedIterator<Player>> response = game.enemiesWithin(game.currentTeam(), x, y, radius);
+        switch (response.getStatus()) {
+            case INVALID_POSITION -> System.out.println(Feedback.INVALID_POSITION);
+            case INVALID_RANGE -> System.out.println(Feedback.INVALID_RANGE);
+            case OK -> {
+                SizedIterator<Player> enemies = response.getResult();
+                if (enemies.size() == 0) {
+                    System.out.println(Feedback.WITHOUT_PLAYERS);
+                    return;
+                }
+                System.out.printf(Feedback.PLAYERS_LIST, enemies.size());
+                while (enemies.hasNext()) {
+                    Player enemy = enemies.next();
+                    System.out.printf(Feedback.ENEMY_INFO, enemy.color().name().toLowerCase(),
+                        enemy.team().name(), enemy.fieldLocation().getX(), enemy.fieldLocation().getY());
+                }
+            }
+            default -> System.out.println(Feedback.UNEXPECTED_ERROR);
+        }
+    }
+
+    /**
+     * Shows the bunker of another team nearest to a position
+     * @param in Scanner object to read user input
+     */
+    private static void nearest(Game game, Scanner in) {
+        if (!game.inProgress()) {
+            System.out.println(Feedback.INVALID_COMMAND);
+            in.nextLine();
+            return;
+        }
+        int x = in.nextInt(), y = in.nextInt();
+        GameResponse<Building> response = game.nearestEnemyBunker(game.currentTeam(), x, y);
+        switch (response.getStatus()) {
+            case INVALID_POSITION -> System.out.println(Feedback.INVALID_POSITION);
+            case OK -> {
+                Building bunker = response.getResult();
+                if (bunker == null) {
+                    System.out.println(Feedback.WITHOUT_BUNKERS);
+                    return;
+                }
+                int bunkerX = bunker.fieldLocation().getX(), bunkerY = bunker.fieldLocation().getY();
+                System.out.printf(Feedback.NEAREST_BUNKER, bunker.name(), bunker.team().name(), bunkerX, bunkerY,
+                    Math.abs(bunkerX - x) + Math.abs(bunkerY - y));
+            }
+            default -> System.out.println(Feedback.UNEXPECTED_ERROR);
+        }
+    }
+
+    /**
+     * Lists the bunkers inside a rectangle given by two opposite corners
+     * @param in Scanner object to read user input
+     */
+    private static void area(Game game, Scanner in) {
+        if (!game.inProgress()) {
+            System.out.println(Feedback.INVALID_COMMAND);
+            in.nextLine();
+            return;
+        }
+        int x1 = in.nextInt(), y1 = in.nextInt(), x2 = in.nextInt(), y2 = in.nextInt();
+        GameResponse<SizedIterator<Building>> response = game.bunkersIn(x1, y1, x2, y2);
+        switch (response.getStatus()) {
+            case INVALID_POSITION -> System.out.println(Feedback.INVALID_POSITION);
+            case OK -> {
+                SizedIterator<Building> bunkers = response.getResult();
+                if (bunkers.size() == 0) {
+                    System.out.println(Feedback.WITHOUT_BUNKERS);
+                    return;
+                }
+                System.out.printf(Feedback.BUNKERS_LIST, bunkers.size());
+                while (bunkers.hasNext()) {
+                    Building bunker = bunkers.next();
+                    String teamName = bunker.team() == null ? Feedback.WITHOUT_OWNER : bunker.team().name();
+                    System.out.printf(Feedback.AREA_BUNKER, bunker.name(), teamName,
+                        bunker.fieldLocation().getX(), bunker.fieldLocation().getY());
+                }
+            }
+            default -> System.out.println(Feedback.UNEXPECTED_ERROR);
+        }
+    }
+
+    /**
+     * Shows a shortest sequence of directions taking a player of the current team to a bunker
+     * @param in Scanner object to read user input
+     */
+    private static void path(Game game, Scanner in) {
+        if (!game.inProgress()) {
+            System.out.println(Feedback.INVALID_COMMAND);
+            in.nextLine();
+            return;
+        }
+        int x = in.nextInt(), y = in.nextInt();
+        String bunkerName = in.nextLine().trim();
+        GameResponse<SizedIterator<Direction>> response = game.pathTo(x, y, bunkerName);
+        switch (response.getStatus()) {
+            case INVALID_POSITION -> System.out.println(Feedback.INVALID_POSITION);
+            case NO_PLAYER -> System.out.println(Feedback.NO_PLAYER);
+            case PLAYER_NOT_FROM_TEAM -> System.out.println(Feedback.PLAYER_NOT_FROM_TEAM);
+            case INVALID_BUNKER_NAME -> System.out.println(Feedback.INVALID_BUNKER_NAME);
+            case INVALID_SIZE -> System.out.println(Feedback.FIELD_TOO_BIG);
+            case NO_PATH -> System.out.println(Feedback.NO_PATH);
+            case OK -> {
+                SizedIterator<Direction> path = response.getResult();
+                StringBuilder dirs = new StringBuilder();
+                while (path.hasNext()) dirs.append(' ').append(path.next().name().toLowerCase());
+                System.out.printf(Feedback.PATH_FOUND, path.size(), bunkerName, dirs);
+            }
+            default -> System.out.println(Feedback.UNEXPECTED_ERROR);
+        }
+    }
+
+    /**
+     * Prints out the cells which the players of the other teams could hit on their next attack,
+     * with the colors of those players, in the layout of the {@link Commands#MAP} command
+     */
+    private static void threat(Game game) {
+        if (!game.inProgress()) {
+            System.out.println(Feedback.INVALID_COMMAND);
+            return;
+        }
+        GameResponse<InfluenceMap> response = game.influence();
+        if (response.getStatus() != GameStatus.OK) {
+            System.out.println(Feedback.FIELD_TOO_BIG);
+            return;
+        }
+        InfluenceMap influence = response.getResult();
+        Team team = game.currentTeam();
+        int width = influence.getWidth(), height = influence.getHeight();
+        StringBuilder out = new StringBuilder();
+        out.append(width).append(' ').append(height).append("\n**");
+        for (int x = 1; x < width; x++) out.append(x).append(' ');
+        out.append(width).append('\n');
+        for (int y = 1; y <= height; y++) {
+            out.append(y);
+            for (int x = 1; x <= width; x++) out.append(' ').append(threatToChar(influence.threat(team, x, y)));
+            out.append('\n');
+        }
+        System.out.print(out);
+    }
+
+    /**
+     * Converts the colors of the players which could hit a cell to their {@code char} equivalent
+     * @param colors Bits of the colors, see {@link InfluenceMap#bit(PlayerColor)}
+     * @return Threat char equivalent
+     */
+    private static char threatToChar(int colors) {
+        if (colors == 0) return ThreatChar.NONE;
+        if (colors == InfluenceMap.bit(PlayerColor.RED)) return ThreatChar.RED;
+        if (colors == InfluenceMap.bit(PlayerColor.GREEN)) return ThreatChar.GREEN;
+        if (colors == InfluenceMap.bit(PlayerColor.BLUE)) return ThreatChar.BLUE;
+        return ThreatChar.SEVERAL;
+    }
+
     /**
      * Create a player in a bunker
      * @param in Scanner object to read user input
@@ -252,6 +543,15 @@ public class Main {
             return;
         }
         String playerTpe = in.next(), bunkerName = in.nextLine().trim();
+        create(game, playerTpe, bunkerName);
+    }
+
+    /**
+     * Create a player in a bunker
+     * @param playerTpe Color of the player, as typed by the user
+     * @param bunkerName Name of the bunker
+     */
+    private static void create(Game game, String playerTpe, String bunkerName) {
         PlayerColor color = PlayerColor.fromName(playerTpe);
         GameResponse<CreateStatus> response = game.createPlayer(color, bunkerName);
         switch (response.getStatus()) {
@@ -283,6 +583,16 @@ public class Main {
         String[] userDirs = in.nextLine().trim().split(" ");
         Array<Direction> dirs = new ArrayClass<>();
         for (int i = 0; i < userDirs.length; i++) dirs.insertLast(Direction.fromName(userDirs[i]));
+        move(game, x, y, dirs);
+    }
+
+    /**
+     * Moves a player
+     * @param x X coordinate of the player
+     * @param y Y coordinate of the player
+     * @param dirs Directions in which the player will move
+     */
+    private static void move(Game game, int x, int y, Array<Direction> dirs) {
         GameResponse<Iterator<Action>> response = game.movePlayerAt(x, y, dirs);
         switch (response.getStatus()) {
             case INVALID_POSITION -> System.out.println(Feedback.INVALID_POSITION);
@@ -352,6 +662,156 @@ public class Main {
         }
     }
 
+    /**
+     * Plays random games from the current state of the game on every available core
+     * and prints the win rates by team, starting bunker and color mix
+     * @param in Scanner object to read user input
+     */
+    private static void simulate(Game game, Scanner in) {
+        if (!game.inProgress()) {
+            System.out.println(Feedback.INVALID_COMMAND);
+            in.nextLine();
+            return;
+        }
+        long games = in.nextLong(), seed = in.nextLong();
+        if (!GameState.fits(game.width(), game.height())) {
+            System.out.println(Feedback.FIELD_TOO_BIG);
+            return;
+        }
+        Simulator simulator = new Simulator(new GameState(game), SIMULATION_TURNS);
+        SimulationResult result = simulator.run(games, seed);
+        System.out.printf(Feedback.SIMULATION_GAMES, result.games(), result.draws());
+        for (int t = 0; t < result.teamCount(); t++) {
+            String bunker = result.startingBunker(t);
+            if (bunker == null) bunker = Feedback.WITHOUT_BUNKERS;
+            System.out.printf(Feedback.SIMULATION_TEAM, result.teamName(t), bunker,
+                100 * result.winRate(t));
+        }
+        for (int mix = 0; mix < SimulationResult.COLOR_MIXES; mix++) {
+            if (result.mixGames(mix) == 0) continue;
+            System.out.printf(Feedback.SIMULATION_MIX, SimulationResult.mixName(mix),
+                100 * result.mixWinRate(mix), result.mixGames(mix));
+        }
+    }
+
+    /**
+     * Lets the computer choose and execute the next command of the current team
+     * @param in Scanner object to read user input
+     */
+    private static void bot(Game game, Scanner in) {
+        if (!game.inProgress()) {
+            System.out.println(Feedback.INVALID_COMMAND);
+            in.nextLine();
+            return;
+        }
+        long millis = in.nextLong();
+        if (!GameState.fits(game.width(), game.height())) {
+            System.out.println(Feedback.FIELD_TOO_BIG);
+            return;
+        }
+        if (bot == null) {
+            int threads = Runtime.getRuntime().availableProcessors();
+            bot = new Bot(threads, new TranspositionTable(BOT_TABLE_BITS));
+        }
+        Order order = bot.choose(game, millis);
+        switch (order.getKind()) {
+            case CREATE -> {
+                String color = order.getColor().name().toLowerCase();
+                System.out.printf(Feedback.BOT_ORDER, String.join(" ", Commands.CREATE, color,
+                    order.getBunkerName()));
+                create(game, color, order.getBunkerName());
+            }
+            case MOVE -> {
+                String dir = order.getDirections().get(0).name().toLowerCase();
+                System.out.printf(Feedback.BOT_ORDER, String.join(" ", Commands.MOVE,
+                    String.valueOf(order.getX()), String.valueOf(order.getY()), dir));
+                move(game, order.getX(), order.getY(), order.getDirections());
+            }
+            case ATTACK -> {
+                System.out.printf(Feedback.BOT_ORDER, Commands.ATTACK);
+                attack(game);
+            }
+        }
+    }
+
+    /**
+     * Prints out the count and the latency percentiles, in microseconds,
+     * of every command and game operation recorded so far, followed by the attack counters
+     */
+    private static void stats() {
+        if (!Stats.ENABLED) {
+            System.out.println(Feedback.STATS_DISABLED);
+            return;
+        }
+        System.out.printf(Feedback.STATS_HEADER, "operation", "count",
+            "p50 us", "p90 us", "p99 us", "max us");
+        Iterator<Histogram> histograms = Stats.histograms();
+        while (histograms.hasNext()) {
+            Histogram histogram = histograms.next();
+            if (histogram.count() == 0) continue;
+            System.out.printf(Feedback.STATS_LATENCY, histogram.name(), histogram.count(),
+                histogram.percentile(50) / 1e3, histogram.percentile(90) / 1e3,
+                histogram.percentile(99) / 1e3, histogram.max() / 1e3);
+        }
+        System.out.printf(Feedback.STATS_COUNTERS, Stats.cellsAttacked(), Stats.playersEliminated());
+    }
+
+    /**
+     * Writes the spans recorded by the {@link Tracer} to a file in the Chrome trace event format
+     * @param in Scanner object to read user input
+     */
+    private static void trace(Scanner in) {
+        String file = in.nextLine().trim();
+        if (!Tracer.ENABLED) {
+            System.out.println(Feedback.TRACE_DISABLED);
+            return;
+        }
+        try (Writer out = new BufferedWriter(new FileWriter(file))) {
+            Tracer.write(out);
+            System.out.printf(Feedback.TRACE_WRITTEN, Tracer.size(), file);
+        } catch (IOException e) {
+            System.out.printf(Feedback.TRACE_NOT_WRITTEN, e.getMessage());
+        }
+    }
+
+    /**
+     * Saves the state of the game in progress to a file, see {@link GameState#save(Path)}
+     * @param in Scanner object to read user input
+     */
+    private static void save(Game game, Scanner in) {
+        String file = in.nextLine().trim();
+        if (!game.inProgress()) {
+            System.out.println(Feedback.INVALID_COMMAND);
+            return;
+        }
+        if (!GameState.fits(game.width(), game.height())) {
+            System.out.println(Feedback.FIELD_TOO_BIG);
+            return;
+        }
+        try {
+            long bytes = new GameState(game).save(Path.of(file));
+            Metrics.journalBytes(bytes);
+            System.out.printf(Feedback.GAME_SAVED, file, bytes);
+        } catch (IOException | InvalidPathException e) {
+            System.out.printf(Feedback.GAME_NOT_SAVED, e.getMessage());
+        }
+    }
+
+    /**
+     * Replaces the game with the state saved in a file, see {@link GameState#load(Path)}<br>
+     * The current game is kept if the file can't be loaded
+     * @param in Scanner object to read user input
+     */
+    private static void load(Game game, Scanner in) {
+        String file = in.nextLine().trim();
+        try {
+            game.restore(GameState.load(Path.of(file)));
+            System.out.printf(Feedback.GAME_LOADED, file);
+        } catch (IOException | InvalidPathException e) {
+            System.out.printf(Feedback.GAME_NOT_LOADED, e.getMessage());
+        }
+    }
+
     /**
      * Commands which allow users to interact with this program and the game
      */
@@ -359,7 +819,10 @@ public class Main {
         public static final String
         START_GAME = "game", MOVE = "move", CREATE = "create",
         ATTACK = "attack", STATUS = "status", MAP = "map", BUNKERS = "bunkers",
-        PLAYERS = "players", HELP = "help", QUIT = "quit";
+        PLAYERS = "players", HELP = "help", QUIT = "quit", SIMULATE = "simulate",
+        BOT = "bot", STATS = "stats", TRACE = "trace", SAVE = "save", LOAD = "load",
+        SCENARIO = "scenario", ENEMIES = "enemies", NEAREST = "nearest", AREA = "area",
+        PATH = "path", THREAT = "threat";
     }
 
     /**
@@ -420,7 +883,31 @@ public class Main {
         WON_AND_SEIZED = "Won the fight and bunker seized.",
         PLAYER_NOT_FROM_TEAM = "Unable to move player from the enemy team.",
         WINNER_IS = "Winner is %s.%n",
-        PLAYERS_ELIMINATED = "All players eliminated.";
+        PLAYERS_ELIMINATED = "All players eliminated.",
+        SIMULATION_GAMES = "%d games, %d without winner:%n",
+        SIMULATION_TEAM = "%s (%s): %.2f%% wins%n",
+        SIMULATION_MIX = "%s: %.2f%% wins in %d teams%n",
+        BOT_ORDER = "Bot plays: %s%n",
+        STATS_DISABLED = "Statistics are disabled.",
+        STATS_HEADER = "%-20s %10s %10s %10s %10s %10s%n",
+        STATS_LATENCY = "%-20s %10d %10.1f %10.1f %10.1f %10.1f%n",
+        STATS_COUNTERS = "%d cells attacked, %d players eliminated%n",
+        METRICS_UNAVAILABLE = "Metrics endpoint not started: %s%n",
+        TRACE_DISABLED = "Tracing is disabled.",
+        TRACE_WRITTEN = "%d spans written to %s%n",
+        TRACE_NOT_WRITTEN = "Trace not written: %s%n",
+        GAME_SAVED = "Game saved to %s (%d bytes)%n",
+        GAME_NOT_SAVED = "Game not saved: %s%n",
+        GAME_LOADED = "Game loaded from %s%n",
+        GAME_NOT_LOADED = "Game not loaded: %s%n",
+        SCENARIO_NOT_READ = "Scenario not read: %s%n",
+        INVALID_RANGE = "Invalid range.",
+        ENEMY_INFO = "%s player of %s in position (%d, %d)%n",
+        NEAREST_BUNKER = "%s of %s in position (%d, %d), %d steps away%n",
+        AREA_BUNKER = "%s (%s) in position (%d, %d)%n",
+        PATH_FOUND = "%d steps to %s:%s%n",
+        NO_PATH = "No path to the bunker.",
+        FIELD_TOO_BIG = "Field too big for this command.";
     }
 
     /**
@@ -430,4 +917,13 @@ public class Main {
         public static final char
         NOTHING = '.', PLAYER = 'P', BUNKER = 'B', OCCUPIED_BUNKER = 'O';
     }
-}
\ No newline at end of file
+
+    /**
+     * {@code char} equivalent to the colors of the players which could hit a cell,
+     * used by the {@link Commands#THREAT} command
+     */
+    public static class ThreatChar {
+        public static final char
+        NONE = '.', RED = 'r', GREEN = 'g', BLUE = 'b', SEVERAL = '*';
+    }
+}
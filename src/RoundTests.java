@@ -0,0 +1,232 @@
+/**
+ * @author POO 67258 67398 team 2023/24
+ */
+
+
+import static org.junit.Assert.assertEquals;
+
+import static org.junit.Assert.assertFalse;
+
+import game.Building;
+import game.Game;
+import game.Game.GameResponse;
+import game.Game.GameStatus;
+import game.Order;
+import game.PaintballGame;
+import game.Team;
+import game.data_structures.Array;
+import game.data_structures.ArrayClass;
+import game.data_structures.Iterator;
+import game.players.Player;
+import game.players.Player.Direction;
+import game.players.Player.PlayerColor;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * The RoundTests class tests the simultaneous rounds of a {@link Game}, where every team
+ * submits an {@link Order} with {@link Game#submitOrder(Order)} and the orders are resolved
+ * together by {@link Game#resolveRound()}.
+ */
+public class RoundTests {
+	private Game game;
+	private Team team0, team1, team2;
+
+	/**
+	 * Starts a game of three teams, each with a bunker with 10 coins:
+	 * Team0 in (1, 1), Team1 in (5, 1) and Team2 in (10, 10).
+	 */
+	@Before
+	public void setUp() {
+		game = new PaintballGame();
+		game.setField(10, 10);
+		game.addBuilding(1, 1, 10, "A");
+		game.addBuilding(5, 1, 10, "B");
+		game.addBuilding(10, 10, 10, "C");
+		game.addTeam("Team0", "A");
+		game.addTeam("Team1", "B");
+		game.addTeam("Team2", "C");
+		assertEquals(GameStatus.OK, game.start());
+		team0 = game.currentTeam();
+		team1 = team(1);
+		team2 = team(2);
+	}
+
+	/**
+	 * Tests that the current team passes to the next team when it's eliminated in a round:
+	 * a blue player of Team1 seizes the only bunker of Team0, the current team.
+	 */
+	@Test public void testCurrentTeamEliminated() {
+		assertEquals(GameStatus.OK, game.submitOrder(new Order(team1, PlayerColor.BLUE, "B")));
+		assertEquals(GameStatus.OK, game.resolveRound().getStatus());
+		assertEquals(GameStatus.OK, game.submitOrder(new Order(team1)));
+		assertEquals(GameStatus.OK, game.resolveRound().getStatus());
+		assertEquals(2, game.teams().size());
+		assertEquals(team1, game.currentTeam());
+		assertEquals(team2, team(1));
+	}
+
+	/**
+	 * Tests that a team can submit a single order per round, and only while it's in the game.
+	 */
+	@Test public void testSubmitOnce() {
+		assertEquals(GameStatus.OK, game.submitOrder(new Order(team0)));
+		assertEquals(GameStatus.INVALID_ORDER, game.submitOrder(new Order(team0)));
+		assertEquals(GameStatus.INVALID_ORDER, game.submitOrder(new Order(team0, PlayerColor.RED, "A")));
+		assertEquals(GameStatus.OK, game.submitOrder(new Order(team2)));
+		game.resolveRound();
+		assertEquals(GameStatus.OK, game.submitOrder(new Order(team0)));
+		game.stop();
+		assertEquals(GameStatus.INVALID_ORDER, game.submitOrder(new Order(team1)));
+		assertEquals(GameStatus.INVALID_ORDER, game.resolveRound().getStatus());
+	}
+
+	/**
+	 * Tests that only one of the orders submitted concurrently for a team is accepted.
+	 */
+	@Test public void testConcurrentSubmits() throws InterruptedException {
+		Team[] teams = { team0, team1, team2 };
+		int threadsPerTeam = 8;
+		AtomicIntegerArray accepted = new AtomicIntegerArray(teams.length);
+		CountDownLatch start = new CountDownLatch(1);
+		Thread[] threads = new Thread[teams.length * threadsPerTeam];
+		for (int i = 0; i < threads.length; i++) {
+			int t = i % teams.length;
+			threads[i] = new Thread(() -> {
+				try {
+					start.await();
+				} catch (InterruptedException e) {
+					return;
+				}
+				if (game.submitOrder(new Order(teams[t])) == GameStatus.OK) accepted.incrementAndGet(t);
+			});
+			threads[i].start();
+		}
+		start.countDown();
+		for (Thread thread : threads) thread.join();
+		for (int t = 0; t < teams.length; t++) assertEquals(1, accepted.get(t));
+		assertEquals(3, count(game.resolveRound().getResult()));
+	}
+
+	/**
+	 * Tests that the orders are resolved in the order the teams were added, whatever the order
+	 * they were submitted in: two red players move into the same cell, and the player of Team1
+	 * moves last, so it attacks the player of Team0 and wins, as attackers win against their own color.
+	 */
+	@Test public void testConflictOrder() {
+		game.submitOrder(new Order(team1, PlayerColor.RED, "B"));
+		game.submitOrder(new Order(team0, PlayerColor.RED, "A"));
+		game.resolveRound();
+		game.submitOrder(new Order(team1, 5, 1, directions(Direction.WEST, Direction.WEST)));
+		game.submitOrder(new Order(team0, 1, 1, directions(Direction.EAST, Direction.EAST)));
+		Iterator<GameResponse<?>> responses = game.resolveRound().getResult();
+		assertEquals(GameStatus.OK, responses.next().getStatus());
+		assertEquals(GameStatus.OK, responses.next().getStatus());
+		assertEquals(0, team0.players().size());
+		Player player = team1.players().next();
+		assertEquals(3, player.fieldLocation().getX());
+		assertEquals(1, player.fieldLocation().getY());
+	}
+
+	/**
+	 * Tests that the order of a team eliminated earlier in the round is skipped,
+	 * and that the bunkers receive one coin per resolved order after the round.
+	 */
+	@Test public void testEliminatedTeamSkipped() {
+		game.submitOrder(new Order(team0, PlayerColor.BLUE, "A"));
+		game.resolveRound();
+		assertEquals(9, bunker("A").treasury());
+		assertEquals(11, bunker("B").treasury());
+		game.submitOrder(new Order(team1, PlayerColor.RED, "B"));
+		game.submitOrder(new Order(team0));
+		game.submitOrder(new Order(team2));
+		GameResponse<Iterator<GameResponse<?>>> round = game.resolveRound();
+		assertEquals(GameStatus.OK, round.getStatus());
+		Iterator<GameResponse<?>> responses = round.getResult();
+		assertEquals(GameStatus.OK, responses.next().getStatus());
+		assertEquals(GameStatus.TEAM_ELIMINATED, responses.next().getStatus());
+		assertEquals(GameStatus.OK, responses.next().getStatus());
+		assertFalse(responses.hasNext());
+		assertEquals(team0, bunker("B").team());
+		assertEquals(13, bunker("B").treasury());
+		assertEquals(13, bunker("C").treasury());
+		assertEquals(2, game.teams().size());
+		assertEquals(team0, game.currentTeam());
+	}
+
+	/**
+	 * Tests that a round which ends the game stops it without resolving the remaining orders.
+	 */
+	@Test public void testGameOver() {
+		game = new PaintballGame();
+		game.setField(10, 10);
+		game.addBuilding(1, 1, 10, "A");
+		game.addBuilding(5, 1, 10, "B");
+		game.addTeam("Team0", "A");
+		game.addTeam("Team1", "B");
+		game.start();
+		team0 = team(0);
+		team1 = team(1);
+		game.submitOrder(new Order(team0, PlayerColor.BLUE, "A"));
+		game.resolveRound();
+		game.submitOrder(new Order(team1, PlayerColor.RED, "B"));
+		game.submitOrder(new Order(team0));
+		GameResponse<Iterator<GameResponse<?>>> round = game.resolveRound();
+		assertEquals(GameStatus.GAME_OVER, round.getStatus());
+		assertEquals(team0, round.getWinner());
+		assertEquals(1, count(round.getResult()));
+		assertFalse(game.inProgress());
+		assertEquals(GameStatus.INVALID_ORDER, game.submitOrder(new Order(team0)));
+	}
+
+	/**
+	 * Returns a team of the game
+	 * @param index Index of the team, in the order they were added
+	 * @return The team
+	 */
+	private Team team(int index) {
+		var teams = game.teams();
+		for (int i = 0; i < index; i++) teams.next();
+		return teams.next();
+	}
+
+	/**
+	 * Returns a building of the game
+	 * @param name Name of the building
+	 * @return The building
+	 */
+	private Building bunker(String name) {
+		var buildings = game.buildings();
+		while (buildings.hasNext()) {
+			Building building = buildings.next();
+			if (building.name().equals(name)) return building;
+		}
+		return null;
+	}
+
+	/**
+	 * Returns directions of a move
+	 * @param steps The directions
+	 * @return The directions in an {@link Array}
+	 */
+	private static Array<Direction> directions(Direction... steps) {
+		Array<Direction> directions = new ArrayClass<>();
+		for (Direction step : steps) directions.insertLast(step);
+		return directions;
+	}
+
+	/**
+	 * Counts the responses of a round
+	 * @param responses The responses
+	 * @return Amount of responses
+	 */
+	private static int count(Iterator<GameResponse<?>> responses) {
+		int count = 0;
+		for (; responses.hasNext(); responses.next()) count++;
+		return count;
+	}
+}
@@ -0,0 +1,107 @@
+/**
+ * @author POO 67258 67398 team 2023/24
+ */
+
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import game.Game;
+import game.GameState;
+import game.PaintballGame;
+import game.data_structures.Array;
+import game.data_structures.ArrayClass;
+import game.players.Player.Direction;
+import game.players.Player.PlayerColor;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Scanner;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * The SaveTests class tests saving a game with {@link GameState#save(Path)}
+ * and loading it with {@link GameState#load(Path)}.
+ */
+public class SaveTests {
+	/**
+	 * Offset of the byte telling whether the first team is still in the game, after the header
+	 * and the identifier of the team.
+	 */
+	private static final int FIRST_TEAM_ALIVE = 45;
+
+	private Game game;
+	private Path file;
+
+	/**
+	 * Plays a few turns of a game of three teams, where the blue player of Team0
+	 * seizes the bunker of Team2 and Team1 has a red player out of its bunker.
+	 */
+	@Before
+	public void setUp() throws IOException {
+		game = new PaintballGame();
+		game.setField(12, 10);
+		game.addBuilding(1, 1, 10, "A");
+		game.addBuilding(8, 5, 10, "B");
+		game.addBuilding(12, 1, 10, "C");
+		game.addBuilding(4, 9, 7, "D");
+		game.addTeam("Team0", "A");
+		game.addTeam("Team1", "B");
+		game.addTeam("Team2", "C");
+		game.start();
+		game.createPlayer(PlayerColor.BLUE, "A");
+		game.createPlayer(PlayerColor.RED, "B");
+		game.createPlayer(PlayerColor.GREEN, "C");
+		game.playersAttack();
+		Array<Direction> directions = new ArrayClass<>();
+		directions.insertLast(Direction.SOUTH);
+		directions.insertLast(Direction.SOUTH);
+		game.movePlayerAt(8, 5, directions);
+		File temp = File.createTempFile("saved", ".pbgs");
+		temp.deleteOnExit();
+		file = temp.toPath();
+	}
+
+	/**
+	 * Tests that a loaded game has the state of the saved game, and is saved again the same way.
+	 */
+	@Test public void testRoundTrip() throws IOException {
+		new GameState(game).save(file);
+		byte[] saved = Files.readAllBytes(file);
+		Game loaded = new PaintballGame();
+		loaded.restore(GameState.load(file));
+		assertEquals(game.hash(), loaded.hash());
+		assertEquals(game.currentTeam().name(), loaded.currentTeam().name());
+		assertEquals(game.teams().size(), loaded.teams().size());
+		assertEquals(game.buildings().size(), loaded.buildings().size());
+		new GameState(loaded).save(file);
+		assertArrayEquals(saved, Files.readAllBytes(file));
+	}
+
+	/**
+	 * Tests that a saved game where a team with a bunker is no longer in the game can't be loaded,
+	 * and that the {@code load} command keeps the current game.
+	 */
+	@Test public void testTeamNotInGame() throws IOException {
+		new GameState(game).save(file);
+		byte[] saved = Files.readAllBytes(file);
+		saved[FIRST_TEAM_ALIVE] = 0;
+		Files.write(file, saved);
+		try {
+			GameState.load(file);
+			fail("Loaded a corrupted saved game");
+		} catch (IOException e) {
+			assertTrue(e.getMessage().startsWith("Corrupted"));
+		}
+		long hash = game.hash();
+		Main.handleCommand(game, new Scanner(" " + file), Main.Commands.LOAD);
+		assertTrue(game.inProgress());
+		assertEquals(hash, game.hash());
+	}
+}
@@ -0,0 +1,334 @@
+import game.Building.CreateStatus;
+import game.Game;
+import game.GameState;
+import game.PaintballGame;
+import game.Scenario;
+import game.players.Player.*;
+
+import java.io.*;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Generator of large command scripts for {@link Main}, with the output the current engine
+ * produces for them as the reference for regression checks<br>
+ * Commands are written to disk as they are generated, so scripts of any length can be produced
+ * with constant memory. A {@link GameState} mirrors the game played by the script,
+ * so every command is legal: players are created in free bunkers of the current team
+ * with enough money, and moved by players of the current team inside the field<br>
+ * When a game ends, the script starts a new one with the same parameters<br>
+ * Options are given as {@code name=value} arguments:
+ * <ul>
+ *     <li>{@code script} - file of the script (required)</li>
+ *     <li>{@code expected} - file of the reference output, not produced if missing</li>
+ *     <li>{@code scenario} - file of the setup of the first game as a {@link Scenario}, to be started
+ *     by the {@code scenario} command, not produced if missing</li>
+ *     <li>{@code commands} - amount of commands, not counting the final {@code quit}</li>
+ *     <li>{@code width}, {@code height} - size of the field</li>
+ *     <li>{@code teams}, {@code bunkers} - amount of teams and bunkers of every game</li>
+ *     <li>{@code treasury} - maximum money in a bunker</li>
+ *     <li>{@code mix} - relative frequencies of the create, move, attack, map and status commands,
+ *     separated by commas</li>
+ *     <li>{@code seed} - seed of the script, the same options always produce the same script</li>
+ * </ul>
+ */
+public class ScenarioGenerator {
+    /**
+     * Default values of the options
+     */
+    private static final String DEFAULTS =
+        "commands=10000 width=50 height=50 teams=4 bunkers=16 treasury=30 mix=4,8,2,1,1 seed=1";
+    /**
+     * Kinds of commands in the order of the {@code mix} option
+     */
+    private static final int CREATE = 0, MOVE = 1, ATTACK = 2, MAP = 3, STATUS = 4;
+    /**
+     * Attempts to pick a random bunker or player of the current team
+     * before scanning all of them
+     */
+    private static final int RANDOM_PICKS = 8;
+    /**
+     * Player colors indexed by their ordinal
+     */
+    private static final PlayerColor[] COLORS = PlayerColor.values();
+    /**
+     * Directions a player can move in
+     */
+    private static final Direction[] DIRECTIONS = {
+        Direction.NORTH, Direction.SOUTH, Direction.EAST, Direction.WEST
+    };
+
+    /**
+     * Size of the field
+     */
+    private final int width, height;
+    /**
+     * Amount of teams and bunkers of every game, and maximum money in a bunker
+     */
+    private final int teams, bunkers, treasury;
+    /**
+     * Cumulative frequencies of the kinds of commands
+     */
+    private final int[] mix;
+    /**
+     * Source of randomness of the script
+     */
+    private final SplittableRandom random;
+    /**
+     * Writer of the script
+     */
+    private final Writer out;
+    /**
+     * File of the setup of the first game, {@code null} once it's written or if it's not requested
+     */
+    private Path scenario;
+    /**
+     * State of the game played by the script, {@code null} before the first game
+     */
+    private GameState state;
+    /**
+     * Buffer for the directions of a move
+     */
+    private final Direction[] steps = new Direction[3];
+
+    /**
+     * Creates a generator with the specified options
+     * @param options Values of the options, see {@link ScenarioGenerator}
+     * @param out Writer of the script
+     * @pre width >= 10 && height >= 10 && 2 <= teams && teams <= bunkers && bunkers <= width * height
+     */
+    public ScenarioGenerator(Map<String, String> options, Writer out) {
+        width = Integer.parseInt(options.get("width"));
+        height = Integer.parseInt(options.get("height"));
+        teams = Integer.parseInt(options.get("teams"));
+        bunkers = Integer.parseInt(options.get("bunkers"));
+        treasury = Integer.parseInt(options.get("treasury"));
+        String[] weights = options.get("mix").split(",");
+        mix = new int[weights.length];
+        for (int i = 0; i < weights.length; i++)
+            mix[i] = Integer.parseInt(weights[i].trim()) + (i > 0 ? mix[i - 1] : 0);
+        random = new SplittableRandom(Long.parseLong(options.get("seed")));
+        if (options.containsKey("scenario")) scenario = Path.of(options.get("scenario"));
+        this.out = out;
+    }
+
+    /**
+     * Generates a script and its reference output
+     * @param args Options of the script, see {@link ScenarioGenerator}
+     * @throws IOException if a file can't be written
+     */
+    public static void main(String[] args) throws IOException {
+        Map<String, String> options = new HashMap<>();
+        for (String option : (DEFAULTS + " " + String.join(" ", args)).trim().split("\\s+")) {
+            int separator = option.indexOf('=');
+            options.put(option.substring(0, separator), option.substring(separator + 1));
+        }
+        File script = new File(options.get("script"));
+        try (Writer out = new BufferedWriter(new FileWriter(script), 1 << 16)) {
+            new ScenarioGenerator(options, out).generate(Long.parseLong(options.get("commands")));
+        }
+        if (options.containsKey("expected")) record(script, new File(options.get("expected")));
+    }
+
+    /**
+     * Runs a script through {@link Main} and writes down its output
+     * @param script File of the script
+     * @param expected File of the output
+     * @throws IOException if a file can't be read or written
+     */
+    public static void record(File script, File expected) throws IOException {
+        InputStream in = System.in;
+        PrintStream out = System.out;
+        try (InputStream scriptIn = new BufferedInputStream(new FileInputStream(script), 1 << 16);
+             PrintStream expectedOut = new PrintStream(
+                 new BufferedOutputStream(new FileOutputStream(expected), 1 << 16), false)) {
+            System.setIn(scriptIn);
+            System.setOut(expectedOut);
+            Main.main(new String[0]);
+        } finally {
+            System.setIn(in);
+            System.setOut(out);
+        }
+    }
+
+    /**
+     * Writes the specified amount of commands, followed by {@code quit}
+     * @param commands Amount of commands
+     * @throws IOException if the script can't be written
+     */
+    public void generate(long commands) throws IOException {
+        for (long i = 0; i < commands; i++) {
+            if (state == null || !state.inProgress()) {
+                newGame();
+                continue;
+            }
+            int pick = random.nextInt(mix[mix.length - 1]), kind = 0;
+            while (mix[kind] <= pick) kind++;
+            switch (kind) {
+                case CREATE -> { if (!create() && !move()) attack(); }
+                case MOVE -> { if (!move() && !create()) attack(); }
+                case ATTACK -> attack();
+                case MAP -> out.write(Main.Commands.MAP + "\n");
+                default -> out.write(Main.Commands.STATUS + "\n");
+            }
+        }
+        out.write(Main.Commands.QUIT + "\n");
+    }
+
+    /**
+     * Writes the setup of a new game: the bunkers are spread over the field
+     * by visiting its cells with a stride coprime with their amount,
+     * and every team starts in its own bunker<br>
+     * The setup of the first game is also written to the scenario file, if it was requested
+     * @throws IOException if the script or the scenario can't be written
+     */
+    private void newGame() throws IOException {
+        long cells = (long) width * height;
+        long stride = 1 + random.nextLong(cells);
+        while (gcd(stride, cells) != 1) stride++;
+        long start = random.nextLong(cells);
+        Game game = new PaintballGame();
+        game.setField(width, height);
+        int[] xs = new int[bunkers], ys = new int[bunkers], treasuries = new int[bunkers];
+        String[] bunkerNames = new String[bunkers], teamNames = new String[teams], teamBunkers = new String[teams];
+        out.write(String.format("%s %d %d %d %d\n", Main.Commands.START_GAME, width, height,
+            teams, bunkers));
+        for (int b = 0; b < bunkers; b++) {
+            long cell = (start + b * stride) % cells;
+            xs[b] = (int) (cell % width) + 1;
+            ys[b] = (int) (cell / width) + 1;
+            treasuries[b] = 1 + random.nextInt(treasury);
+            bunkerNames[b] = bunkerName(b);
+            game.addBuilding(xs[b], ys[b], treasuries[b], bunkerNames[b]);
+            out.write(String.format("%d %d %d %s\n", xs[b], ys[b], treasuries[b], bunkerNames[b]));
+        }
+        for (int t = 0; t < teams; t++) {
+            teamNames[t] = "Team" + t;
+            teamBunkers[t] = bunkerName(t);
+            game.addTeam(teamNames[t], teamBunkers[t]);
+            out.write(String.format("%s %s\n", teamNames[t], teamBunkers[t]));
+        }
+        if (scenario != null) {
+            new Scenario(width, height, xs, ys, treasuries, bunkerNames, teamNames, teamBunkers).write(scenario);
+            scenario = null;
+        }
+        if (game.start() == Game.GameStatus.OK) state = new GameState(game);
+    }
+
+    /**
+     * Name of a bunker
+     * @param bunker Index of the bunker
+     * @return Name of the bunker
+     */
+    private static String bunkerName(int bunker) {
+        return "Bunker " + bunker;
+    }
+
+    /**
+     * Greatest common divisor of two numbers
+     */
+    private static long gcd(long a, long b) {
+        return b == 0 ? a : gcd(b, a % b);
+    }
+
+    /**
+     * Writes a command creating a player in a free bunker of the current team,
+     * if it has one with enough money
+     * @return {@code true} if the command was written
+     * @throws IOException if the script can't be written
+     */
+    private boolean create() throws IOException {
+        int team = state.currentTeam(), bunker = -1;
+        if (state.teamBunkers(team) == 0) return false;
+        for (int i = 0; i < RANDOM_PICKS && bunker < 0; i++) {
+            int b = random.nextInt(state.bunkerCount());
+            if (canCreate(b, team)) bunker = b;
+        }
+        for (int b = 0; b < state.bunkerCount() && bunker < 0; b++)
+            if (canCreate(b, team)) bunker = b;
+        if (bunker < 0) return false;
+        PlayerColor color = COLORS[random.nextInt(COLORS.length)];
+        if (color.cost() > state.bunkerTreasury(bunker)) color = PlayerColor.GREEN;
+        out.write(String.format("%s %s %s\n", Main.Commands.CREATE, color.name().toLowerCase(),
+            state.bunkerName(bunker)));
+        CreateStatus status = state.createPlayer(color, bunker);
+        assert status == CreateStatus.OK;
+        return true;
+    }
+
+    /**
+     * Check whether a team can create a player in a bunker
+     * @param bunker Index of the bunker
+     * @param team Index of the team
+     * @return {@code true} if the bunker belongs to the team, is free and has enough money
+     */
+    private boolean canCreate(int bunker, int team) {
+        return state.bunkerOwner(bunker) == team &&
+            state.bunkerTreasury(bunker) >= PlayerColor.GREEN.cost() &&
+            state.playerAt(state.bunkerX(bunker), state.bunkerY(bunker)) < 0;
+    }
+
+    /**
+     * Writes a command moving a random player of the current team in directions
+     * which keep it on the field and don't lead into a cell occupied by its own team
+     * @return {@code true} if the command was written, {@code false} if the team has no players
+     * @throws IOException if the script can't be written
+     */
+    private boolean move() throws IOException {
+        int team = state.currentTeam(), player = -1;
+        if (state.teamPlayers(team) == 0) return false;
+        for (int i = 0; i < RANDOM_PICKS && player < 0; i++) {
+            int p = random.nextInt(state.playerSlots());
+            if (state.playerColor(p) != null && state.playerTeam(p) == team) player = p;
+        }
+        for (int p = 0; p < state.playerSlots() && player < 0; p++)
+            if (state.playerColor(p) != null && state.playerTeam(p) == team) player = p;
+        int count = state.playerColor(player) == PlayerColor.RED ? 1 + random.nextInt(3) : 1;
+        int x = state.playerX(player), y = state.playerY(player);
+        StringBuilder command = new StringBuilder(Main.Commands.MOVE);
+        command.append(' ').append(x).append(' ').append(y);
+        for (int i = 0; i < count; i++) {
+            Direction dir;
+            int nextX, nextY, attempts = 0;
+            do {
+                dir = DIRECTIONS[random.nextInt(DIRECTIONS.length)];
+                nextX = x + (dir == Direction.EAST ? 1 : dir == Direction.WEST ? -1 : 0);
+                nextY = y + (dir == Direction.SOUTH ? 1 : dir == Direction.NORTH ? -1 : 0);
+            } while (++attempts < DIRECTIONS.length && !isFree(nextX, nextY, player));
+            steps[i] = dir;
+            command.append(' ').append(dir.name().toLowerCase());
+            x = nextX;
+            y = nextY;
+        }
+        out.write(command.append('\n').toString());
+        Direction[] dirs = new Direction[count];
+        System.arraycopy(steps, 0, dirs, 0, count);
+        state.movePlayerAt(state.playerX(player), state.playerY(player), dirs);
+        return true;
+    }
+
+    /**
+     * Check whether a player can move to the specified cell
+     * @param x X coordinate of the cell
+     * @param y Y coordinate of the cell
+     * @param player Slot of the player
+     * @return {@code true} if the cell is on the field and not occupied by a teammate
+     */
+    private boolean isFree(int x, int y, int player) {
+        if (x <= 0 || x > width || y <= 0 || y > height) return false;
+        int occupant = state.playerAt(x, y);
+        return occupant < 0 || occupant == player ||
+            state.playerTeam(occupant) != state.playerTeam(player);
+    }
+
+    /**
+     * Writes an attack of the current team
+     * @throws IOException if the script can't be written
+     */
+    private void attack() throws IOException {
+        state.playersAttack();
+        out.write(Main.Commands.ATTACK + "\n");
+    }
+}
@@ -0,0 +1,172 @@
+/**
+ * @author POO 67258 67398 team 2023/24
+ */
+
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import game.data_structures.Array;
+import game.data_structures.ArrayClass;
+import game.data_structures.SegmentedArray;
+import game.data_structures.SizedIterator;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * The SegmentedArrayTests class compares a {@link SegmentedArray} with a {@link List}
+ * under the same operations, with sizes crossing the boundaries of its chunks of 1024 elements.
+ */
+public class SegmentedArrayTests {
+	/**
+	 * Amount of elements of a chunk of the array.
+	 */
+	private static final int CHUNK = 1024;
+
+	/**
+	 * Tests insertions and removals at positions around the boundaries of the chunks,
+	 * which carry elements from one chunk to the next.
+	 */
+	@Test public void testChunkBoundaries() {
+		Array<Integer> array = new SegmentedArray<>();
+		List<Integer> list = new ArrayList<>();
+		for (int i = 0; i < 3 * CHUNK; i++) {
+			array.insertLast(i);
+			list.add(i);
+		}
+		int[] positions = { 0, CHUNK - 1, CHUNK, CHUNK + 1, 2 * CHUNK - 1, 2 * CHUNK, 3 * CHUNK - 1 };
+		for (int pos : positions) {
+			array.insertAt(-pos, pos);
+			list.add(pos, -pos);
+			assertSame(list, array);
+		}
+		array.insertAt(-1, array.size());
+		list.add(-1);
+		assertSame(list, array);
+		for (int pos : positions) {
+			array.removeAt(pos);
+			list.remove(pos);
+			assertSame(list, array);
+		}
+		while (array.size() > 0) {
+			array.removeAt(array.size() / 2);
+			list.remove(list.size() / 2);
+		}
+		assertSame(list, array);
+	}
+
+	/**
+	 * Tests that the array grows again after releasing its chunks.
+	 */
+	@Test public void testRelease() {
+		Array<Integer> array = new SegmentedArray<>();
+		List<Integer> list = new ArrayList<>();
+		for (int round = 0; round < 3; round++) {
+			for (int i = 0; i < 5 * CHUNK + round; i++) {
+				array.insertLast(i);
+				list.add(i);
+			}
+			assertSame(list, array);
+			while (array.size() > round) {
+				array.removeLast();
+				list.remove(list.size() - 1);
+			}
+			assertSame(list, array);
+		}
+	}
+
+	/**
+	 * Tests that an iterator keeps the elements and the size the array had when it was created
+	 * while elements are appended, even when the directory of the chunks grows.
+	 */
+	@Test public void testIteratorSnapshot() {
+		Array<Integer> array = new SegmentedArray<>();
+		for (int i = 0; i < CHUNK + 10; i++) array.insertLast(i);
+		SizedIterator<Integer> it = array.iterator();
+		for (int i = CHUNK + 10; i < 20 * CHUNK; i++) array.insertLast(i);
+		assertEquals(CHUNK + 10, it.size());
+		for (int i = 0; i < CHUNK + 10; i++) assertEquals(Integer.valueOf(i), it.next());
+		assertFalse(it.hasNext());
+	}
+
+	/**
+	 * Tests random operations, including the bulk ones, against a {@link List}.
+	 */
+	@Test public void testRandomOperations() {
+		Random random = new Random(42);
+		Array<Integer> array = new SegmentedArray<>();
+		List<Integer> list = new ArrayList<>();
+		for (int step = 0; step < 20000; step++) {
+			int size = list.size(), op = random.nextInt(size < 4 * CHUNK ? 7 : 9);
+			switch (op) {
+				case 0, 1 -> {
+					array.insertLast(step);
+					list.add(step);
+				}
+				case 2 -> {
+					int pos = random.nextInt(size + 1);
+					array.insertAt(step, pos);
+					list.add(pos, step);
+				}
+				case 3 -> {
+					Array<Integer> es = new ArrayClass<>();
+					int pos = random.nextInt(size + 1), n = random.nextInt(2 * CHUNK);
+					for (int i = 0; i < n; i++) es.insertLast(-i);
+					array.insertAll(es, pos);
+					for (int i = 0; i < n; i++) list.add(pos + i, -i);
+				}
+				case 4, 5 -> {
+					if (size == 0) continue;
+					int pos = random.nextInt(size);
+					array.removeAt(pos);
+					list.remove(pos);
+				}
+				case 6 -> {
+					if (size == 0) continue;
+					array.removeLast();
+					list.remove(size - 1);
+				}
+				case 7 -> {
+					int[] positions = new int[size];
+					int count = 0;
+					for (int i = 0; i < size; i++) if (random.nextInt(3) == 0) positions[count++] = i;
+					array.removeAll(positions, count);
+					for (int k = count - 1; k >= 0; k--) list.remove(positions[k]);
+				}
+				default -> {
+					int mod = 2 + random.nextInt(5);
+					List<Integer> removed = new ArrayList<>(), expected = new ArrayList<>();
+					for (int i = 0; i < size; i++) if (Math.floorMod(list.get(i), mod) == 0) expected.add(i);
+					assertEquals(expected.size(), array.removeIf(e -> Math.floorMod(e, mod) == 0, removed::add));
+					assertEquals(expected, removed);
+					list.removeIf(e -> Math.floorMod(e, mod) == 0);
+				}
+			}
+			if (step % 97 == 0) assertSame(list, array);
+		}
+		assertSame(list, array);
+	}
+
+	/**
+	 * Asserts that an array has the elements of a list, in the same order
+	 * @param expected The list
+	 * @param array The array
+	 */
+	private static void assertSame(List<Integer> expected, Array<Integer> array) {
+		assertEquals(expected.size(), array.size());
+		SizedIterator<Integer> it = array.iterator();
+		for (int i = 0; i < expected.size(); i++) {
+			assertEquals(expected.get(i), array.get(i));
+			assertEquals(expected.get(i), it.next());
+		}
+		assertFalse(it.hasNext());
+		if (!expected.isEmpty()) {
+			Integer last = expected.get(expected.size() - 1);
+			assertEquals(expected.indexOf(last), array.searchIndexOf(last));
+		}
+	}
+}
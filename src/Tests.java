@@ -115,6 +115,16 @@ public class Tests {
 	 */
 	@Test public void test16() { test("input16.txt","output16.txt"); }
 	
+	/**
+	 * Tests commands enemies, nearest, area, path, threat, move, create, game, quit.
+	 */
+	@Test public void test17() { test("input17.txt","output17.txt"); }
+	
+	/**
+	 * Tests commands save, load, scenario, status, players, bunkers, map, attack, create, game, quit.
+	 */
+	@Test public void test18() { test("input18.txt","output18.txt"); }
+	
 	private static final File BASE = new File("tests");
 
 	private PrintStream consoleStream;
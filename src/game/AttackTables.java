@@ -0,0 +1,138 @@
+package game;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Attack orders of the players of a field geometry, computed once and walked as plain arrays<br>
+ * The cells attacked by blue and green players only depend on the attacker's position
+ * and the size of the field, so the order of every position is computed on its first attack
+ * and kept as an int array: the targeted columns of a row for blue players, indexed by the
+ * column of the attacker, and the offsets of the diagonal cells for green players,
+ * indexed by the position of the attacker. Red players attack a rectangle row by row,
+ * which needs no table<br>
+ * The tables are bounded by {@value #CAPACITY_PROPERTY} ints in total, evicting the least recently
+ * used ones, so attacks from every cell of a huge field don't keep a table per cell.
+ * Orders larger than the bound are computed on every attack without being kept<br>
+ * The tables are not thread-safe, every field has its own
+ */
+public final class AttackTables {
+    /**
+     * System property with the maximum amount of ints kept in the tables
+     */
+    public static final String CAPACITY_PROPERTY = "paintball.attack.tableInts";
+    /**
+     * Maximum amount of ints kept in the tables
+     */
+    private static final long CAPACITY = Long.getLong(CAPACITY_PROPERTY, 1L << 22);
+    /**
+     * Kinds of tables, stored in the top bits of their keys
+     */
+    private static final long ROW = 0, DIAGONALS = 1L << 62;
+
+    /**
+     * Size of the field
+     */
+    private final int width, height;
+    /**
+     * Tables by key, from the least to the most recently used
+     */
+    private final Map<Long, int[]> tables = new LinkedHashMap<>(16, 0.75f, true);
+    /**
+     * Amount of ints kept in the tables
+     */
+    private long kept;
+
+    /**
+     * Constructs empty tables for a field
+     * @param width Width of the field
+     * @param height Height of the field
+     */
+    public AttackTables(int width, int height) {
+        this.width = width;
+        this.height = height;
+    }
+
+    /**
+     * Check whether the tables are computed for a field of the specified size
+     * @param width Width of the field
+     * @param height Height of the field
+     * @return {@code true} if the field has the size of the tables, otherwise {@code false}
+     */
+    public boolean fits(int width, int height) {
+        return this.width == width && this.height == height;
+    }
+
+    /**
+     * Returns the columns attacked by a blue player, alternating between the left and right cells
+     * of its row, starting from the nearest ones
+     * @param x Column of the attacker
+     * @return Columns of the attacked cells, in the order of the attack
+     */
+    public int[] row(int x) {
+        Long key = ROW | x;
+        int[] table = tables.get(key);
+        if (table != null) return table;
+        table = new int[width - 1];
+        for (int i = 1; i < width; i++) {
+            int offset = (i - 1) / 2 + 1;
+            if (x + offset > width) table[i - 1] = width - i;
+            else if (x - offset <= 0) table[i - 1] = i + 1;
+            else table[i - 1] = i % 2 != 0 ? x - offset : x + offset;
+        }
+        return keep(key, table);
+    }
+
+    /**
+     * Returns the offsets of the cells attacked by a green player, on the diagonals
+     * it's located in, altering between them clockwise from the top left one
+     * @param x Column of the attacker
+     * @param y Row of the attacker
+     * @return Offsets x and y of the attacked cells, one after the other, in the order of the attack
+     */
+    public int[] diagonals(int x, int y) {
+        Long key = DIAGONALS | (long) y << 31 | x;
+        int[] table = tables.get(key);
+        if (table != null) return table;
+        int[] diagLengths = new int[]{
+            Math.min(x - 1, y - 1), Math.min(width - x, y - 1),
+            Math.min(x - 1, height - y), Math.min(width - x, height - y)
+        };
+        int[] diagVisitedCells = new int[]{ 0, 0, 0, 0 };
+        int cells = diagLengths[0] + diagLengths[1] + diagLengths[2] + diagLengths[3];
+        table = new int[2 * cells];
+        for (int i = 0, cell = 0; cell < cells; i++) {
+            for (int j = 0; j < 4; j++) {
+                int dir = (i + j) % 4;
+                if (diagVisitedCells[dir] >= diagLengths[dir]) continue;
+                diagVisitedCells[dir]++;
+                int offsetX = diagVisitedCells[dir], offsetY = offsetX;
+                if (dir % 2 == 0) offsetX = -offsetX;
+                if (dir / 2 == 0) offsetY = -offsetY;
+                table[2 * cell] = offsetX;
+                table[2 * cell + 1] = offsetY;
+                cell++;
+            }
+        }
+        return keep(key, table);
+    }
+
+    /**
+     * Keeps a table, evicting the least recently used ones until the tables fit in the bound
+     * @param key Key of the table
+     * @param table The table
+     * @return The table
+     */
+    private int[] keep(Long key, int[] table) {
+        if (table.length > CAPACITY) return table;
+        tables.put(key, table);
+        kept += table.length;
+        Iterator<int[]> eldest = tables.values().iterator();
+        while (kept > CAPACITY) {
+            kept -= eldest.next().length;
+            eldest.remove();
+        }
+        return table;
+    }
+}
@@ -0,0 +1,305 @@
+package game;
+
+import java.util.Arrays;
+
+/**
+ * Cells with entities in the attack pattern of every player of a {@link PlayerTable},
+ * remembered from its last attack so the next one only visits them<br>
+ * A list is valid while no player enters or leaves a cell of the pattern: the field is divided
+ * into square regions with sides of {@value #REGION} cells and every region keeps the players whose pattern
+ * crosses it, so when a player enters or leaves a cell the lists of the players depending on its
+ * region are dropped. A player depends on a region until it changes, then it's registered again
+ * by its next complete attack. Buildings never move, so their cells are always in the lists<br>
+ * The cells of a list may become empty during an attack, visiting them does nothing,
+ * but every cell left out of a list is known to be empty<br>
+ * The lists and the registrations are bounded by {@value #CAPACITY_PROPERTY} ints in total,
+ * players attacking beyond the bound visit their whole pattern as if nothing was kept<br>
+ * Attacks are recorded by {@link Recorder}s, which share nothing and may be used
+ * by different threads at the same time; everything else must be used by a single thread
+ */
+public final class AttackTargets {
+    /**
+     * System property with the maximum amount of ints kept in the lists and the registrations
+     */
+    public static final String CAPACITY_PROPERTY = "paintball.attack.targetInts";
+    /**
+     * Maximum amount of ints kept in the lists and the registrations
+     */
+    private static final long CAPACITY = Long.getLong(CAPACITY_PROPERTY, 1L << 22);
+    /**
+     * Side of the regions is {@code 2^REGION_BITS} cells
+     */
+    private static final int REGION_BITS = 4;
+    /**
+     * Side of the regions
+     */
+    private static final int REGION = 1 << REGION_BITS;
+    /**
+     * Initial capacity of the lists of recorded cells and of the registrations of a region
+     */
+    private static final int MIN_LENGTH = 16;
+    /**
+     * Amount of latest regions a recorder remembers to skip repeated regions,
+     * one per diagonal of the green pattern
+     */
+    private static final int RECENT_REGIONS = 4;
+
+    /**
+     * Amount of regions in a row of the field
+     */
+    private final int regionsPerRow;
+    /**
+     * Kept list of each slot, with the position of the attacker followed by the coordinates
+     * of the cells with entities, in the order of the attack, {@code null} if there's none
+     */
+    private int[][] targets;
+    /**
+     * Amount of ints taken by the registrations of the kept list of each slot
+     */
+    private int[] registered;
+    /**
+     * Number of the last list kept for each slot, which tells current registrations from old ones
+     */
+    private int[] builds;
+    /**
+     * Registrations of each region as the slot in the high half and the number of the list
+     * in the low half, {@code null} for regions without registrations
+     */
+    private final long[][] dependents;
+    /**
+     * Amount of registrations of each region
+     */
+    private final int[] dependentCount;
+    /**
+     * Mark of each region when it was last registered, so a list is registered once per region
+     */
+    private final int[] regionMarks;
+    /**
+     * Mark of the list being registered
+     */
+    private int mark;
+    /**
+     * Amount of ints kept in the lists and the registrations
+     */
+    private long kept;
+
+    /**
+     * Constructs empty lists for a field
+     * @param width Width of the field
+     * @param height Height of the field
+     * @param slots Amount of slots of the table
+     */
+    public AttackTargets(int width, int height, int slots) {
+        regionsPerRow = (width + REGION - 1) >> REGION_BITS;
+        int regions = regionsPerRow * ((height + REGION - 1) >> REGION_BITS);
+        dependents = new long[regions][];
+        dependentCount = new int[regions];
+        regionMarks = new int[regions];
+        targets = new int[slots][];
+        registered = new int[slots];
+        builds = new int[slots];
+    }
+
+    /**
+     * Returns the kept list of a player
+     * @param slot Slot of the player
+     * @param x Coordinate x of the player
+     * @param y Coordinate y of the player
+     * @return Position of the attacker followed by the coordinates of the cells with entities,
+     * {@code null} if the list isn't kept or the player has moved since it was recorded
+     */
+    public int[] get(int slot, int x, int y) {
+        if (slot >= targets.length) return null;
+        int[] list = targets[slot];
+        return list != null && list[0] == x && list[1] == y ? list : null;
+    }
+
+    /**
+     * Creates a recorder of attacks on the field
+     * @return A new recorder
+     */
+    public Recorder recorder() {
+        return new Recorder();
+    }
+
+    /**
+     * Keeps the list recorded by a recorder, if it fits in the bound,
+     * and registers the player in the regions its attack crossed
+     * @param slot Slot of the attacker
+     * @param recorder Recorder of the attack of the player
+     * @return The recorded list, see {@link #get(int, int, int)}, even if it isn't kept
+     */
+    public int[] keep(int slot, Recorder recorder) {
+        drop(slot);
+        int[] list = Arrays.copyOf(recorder.cells, recorder.length);
+        int regions = 0;
+        mark++;
+        for (int i = 0; i < recorder.regionCount; i++) {
+            int region = recorder.regions[i];
+            if (regionMarks[region] == mark) continue;
+            regionMarks[region] = mark;
+            recorder.regions[regions++] = region;
+        }
+        if (kept + list.length + 2L * regions > CAPACITY) return list;
+        if (slot >= targets.length) ensure(Math.max(slot + 1, 2 * targets.length));
+        targets[slot] = list;
+        registered[slot] = 2 * regions;
+        kept += list.length + registered[slot];
+        long dependent = (long) slot << 32 | ++builds[slot] & 0xFFFFFFFFL;
+        for (int i = 0; i < regions; i++) register(recorder.regions[i], dependent);
+        return list;
+    }
+
+    /**
+     * Drops the lists of the players depending on the region of a cell
+     * which a player has entered or left
+     * @param x Coordinate x of the cell
+     * @param y Coordinate y of the cell
+     */
+    public void changed(int x, int y) {
+        int region = region(x, y);
+        long[] registrations = dependents[region];
+        for (int i = 0; i < dependentCount[region]; i++) {
+            int slot = (int) (registrations[i] >>> 32);
+            if (isCurrent(registrations[i])) drop(slot);
+        }
+        dependentCount[region] = 0;
+    }
+
+    /**
+     * Drops every list, used when the slots of the players change
+     */
+    public void clear() {
+        Arrays.fill(targets, null);
+        Arrays.fill(dependentCount, 0);
+        kept = 0;
+    }
+
+    /**
+     * Drops the list of a player, its registrations become old
+     * @param slot Slot of the player
+     */
+    private void drop(int slot) {
+        if (slot >= targets.length || targets[slot] == null) return;
+        kept -= targets[slot].length + registered[slot];
+        targets[slot] = null;
+    }
+
+    /**
+     * Check whether a registration belongs to the list kept for its slot
+     * @param dependent The registration
+     * @return {@code true} if the list of the registration is kept, otherwise {@code false}
+     */
+    private boolean isCurrent(long dependent) {
+        int slot = (int) (dependent >>> 32);
+        return targets[slot] != null && builds[slot] == (int) dependent;
+    }
+
+    /**
+     * Registers a player in a region, removing the old registrations of the region
+     * before growing its array
+     * @param region The region
+     * @param dependent Slot of the player and number of its list
+     */
+    private void register(int region, long dependent) {
+        long[] registrations = dependents[region];
+        int count = dependentCount[region];
+        if (registrations == null) {
+            registrations = dependents[region] = new long[MIN_LENGTH];
+        } else if (count == registrations.length) {
+            int current = 0;
+            for (int i = 0; i < count; i++)
+                if (isCurrent(registrations[i])) registrations[current++] = registrations[i];
+            count = current;
+            if (count * 2 > registrations.length)
+                registrations = dependents[region] = Arrays.copyOf(registrations, 2 * registrations.length);
+        }
+        registrations[count] = dependent;
+        dependentCount[region] = count + 1;
+    }
+
+    /**
+     * Returns the region of a cell
+     * @param x Coordinate x of the cell
+     * @param y Coordinate y of the cell
+     * @return Index of the region
+     */
+    private int region(int x, int y) {
+        return ((y - 1) >> REGION_BITS) * regionsPerRow + ((x - 1) >> REGION_BITS);
+    }
+
+    /**
+     * Grows the arrays indexed by slot
+     * @param slots Required amount of slots
+     */
+    private void ensure(int slots) {
+        targets = Arrays.copyOf(targets, slots);
+        registered = Arrays.copyOf(registered, slots);
+        builds = Arrays.copyOf(builds, slots);
+    }
+
+    /**
+     * Recorder of the cells with entities and of the regions visited by the attack of a player<br>
+     * Regions are recorded once per visit unless they are among the latest ones,
+     * {@link #keep(int, Recorder)} removes the repeated ones
+     */
+    public final class Recorder {
+        /**
+         * Position of the attacker and the cells with entities of the recorded attack
+         */
+        private int[] cells = new int[MIN_LENGTH];
+        /**
+         * Regions crossed by the recorded attack
+         */
+        private int[] regions = new int[MIN_LENGTH];
+        /**
+         * Latest recorded regions
+         */
+        private final int[] recent = new int[RECENT_REGIONS];
+        /**
+         * Amount of ints and regions of the recorded attack
+         */
+        private int length, regionCount;
+
+        private Recorder() {}
+
+        /**
+         * Starts recording the attack of a player, forgetting the previous one
+         * @param x Coordinate x of the player
+         * @param y Coordinate y of the player
+         */
+        public void begin(int x, int y) {
+            length = 0;
+            regionCount = 0;
+            Arrays.fill(recent, -1);
+            add(x, y);
+        }
+
+        /**
+         * Records a cell visited by the attack
+         * @param x Coordinate x of the cell
+         * @param y Coordinate y of the cell
+         * @param occupied Whether the cell has a player or a building
+         */
+        public void record(int x, int y, boolean occupied) {
+            if (occupied) add(x, y);
+            int region = region(x, y);
+            for (int latest : recent)
+                if (latest == region) return;
+            recent[regionCount % RECENT_REGIONS] = region;
+            if (regionCount == regions.length) regions = Arrays.copyOf(regions, 2 * regionCount);
+            regions[regionCount++] = region;
+        }
+
+        /**
+         * Adds coordinates to the recorded list
+         * @param x Coordinate x
+         * @param y Coordinate y
+         */
+        private void add(int x, int y) {
+            if (length + 2 > cells.length) cells = Arrays.copyOf(cells, 2 * cells.length);
+            cells[length++] = x;
+            cells[length++] = y;
+        }
+    }
+}
@@ -11,6 +11,13 @@ public interface Building extends Entity {
      */
     void endTurn();
 
+    /**
+     * Executes the instructions that happen in the game at the end of several turns at once,
+     * equivalent to calling {@link #endTurn()} the specified amount of times
+     * @param turns Amount of turns that have ended
+     */
+    void endTurn(int turns);
+
     /**
      * Creates an instance of a {@link Player} in the building
      * and adds it to the building's {@link Team} and {@link Field}
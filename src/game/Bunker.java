@@ -1,6 +1,6 @@
 package game;
 
-import game.players.*;
+import game.players.Player;
 import game.players.Player.PlayerColor;
 
 /**
@@ -55,22 +55,23 @@ public class Bunker implements Building {
     
     @Override
     public void endTurn(){
-        treasury++;
+        endTurn(1);
+    }
+
+    @Override
+    public void endTurn(int turns) {
+        int oldTreasury = treasury;
+        treasury += turns;
+        field.rehashBuilding(this, team, oldTreasury);
     }
 
     @Override
     public CreateStatus createPlayer(PlayerColor color) {
         if (this.fieldLocation().hasPlayer()) return CreateStatus.OCCUPIED;
-        Player player = null;
-        switch (color) {
-            case RED -> player = new RedPlayer();
-            case BLUE -> player = new BluePlayer();
-            case GREEN -> player = new GreenPlayer();
-        }
-        if (player.cost() > treasury) return CreateStatus.NOT_ENOUGH_MONEY;
-        treasury -= player.cost();
-        player.setFieldLocation(field, fieldLocation().getX(), fieldLocation().getY());
-        this.team().addPlayer(player);
+        if (color.cost() > treasury) return CreateStatus.NOT_ENOUGH_MONEY;
+        treasury -= color.cost();
+        field.rehashBuilding(this, team, treasury + color.cost());
+        field.players().add(color, this.team(), fieldLocation().getX(), fieldLocation().getY());
         return CreateStatus.OK;
     }
 
@@ -86,7 +87,9 @@ public class Bunker implements Building {
 
     @Override
     public void setTeam(Team team) {
+        Team oldTeam = this.team;
         this.team = team;
+        field.rehashBuilding(this, oldTeam, treasury);
     }
 
     @Override
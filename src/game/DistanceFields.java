@@ -0,0 +1,391 @@
+package game;
+
+import game.data_structures.Array;
+import game.data_structures.ArrayClass;
+import game.players.Player.Direction;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Distances in steps from every cell of a {@link Field} to a building, for the players of a team,
+ * used to find the shortest paths to the buildings<br>
+ * Players move in the four directions, the edges of the field and the players of their own team
+ * block them, while players of other teams don't, since moving into them means fighting them.
+ * The distances of a team and a building form a distance field, computed by a breadth-first search
+ * from the building on the first path of the team to it<br>
+ * Players of the team entering or leaving cells are remembered by the distance fields of the team
+ * and repaired on the next path: distances through cells which became blocked are invalidated,
+ * from the nearest ones on, and the invalidated cells and the cells which became free are searched
+ * again from their neighbors. Distance fields with too many changed cells are computed again<br>
+ * The distance fields are bounded by {@value #CAPACITY_PROPERTY} ints in total, evicting the least
+ * recently used ones, and the breadth-first searches share a single queue. Fields with more cells
+ * than the bound have no distance fields, see {@link #fits(int, int)}<br>
+ * The distance fields are not thread-safe, every table of players has its own
+ */
+public final class DistanceFields {
+    /**
+     * System property with the maximum amount of ints kept in the distance fields
+     */
+    public static final String CAPACITY_PROPERTY = "paintball.path.distanceInts";
+    /**
+     * Maximum amount of ints kept in the distance fields
+     */
+    private static final long CAPACITY = Long.getLong(CAPACITY_PROPERTY, 1L << 24);
+    /**
+     * Maximum amount of cells of a field with distance fields
+     */
+    private static final long MAX_CELLS = Integer.MAX_VALUE - 8;
+    /**
+     * Distance of the cells without a path to the building
+     */
+    private static final int UNREACHABLE = Integer.MAX_VALUE;
+    /**
+     * Inverse of the fraction of changed cells from which a distance field is computed again
+     */
+    private static final int REPAIR_FRACTION = 8;
+    /**
+     * Initial capacity of the changed cells and of the invalidated cells
+     */
+    private static final int MIN_LENGTH = 16;
+    /**
+     * Directions of the steps, in the order in which equally short steps are preferred
+     */
+    private static final Direction[] DIRECTIONS = { Direction.NORTH, Direction.SOUTH, Direction.EAST, Direction.WEST };
+    /**
+     * Offsets x and y of the steps of each direction
+     */
+    private static final int[] STEP_X = { 0, 0, 1, -1 }, STEP_Y = { -1, 1, 0, 0 };
+
+    /**
+     * Field of the players
+     */
+    private final Field field;
+    /**
+     * Size of the field
+     */
+    private final int width, height;
+    /**
+     * Distance fields by team and building, from the least to the most recently used
+     */
+    private final Map<Long, Distances> distances = new LinkedHashMap<>(16, 0.75f, true);
+    /**
+     * Amount of ints kept in the distance fields
+     */
+    private long kept;
+    /**
+     * Queue of the breadth-first searches, created on the first search
+     */
+    private int[] queue;
+
+    /**
+     * Constructs empty distance fields for a field
+     * @param field The field
+     * @pre fits(field.width(), field.height())
+     */
+    public DistanceFields(Field field) {
+        this.field = field;
+        this.width = field.width();
+        this.height = field.height();
+    }
+
+    /**
+     * Check whether a field is small enough to have distance fields
+     * @param width Width of the field
+     * @param height Height of the field
+     * @return {@code true} if a distance field of the field fits in an array and in the bound
+     * of {@value #CAPACITY_PROPERTY} ints, otherwise {@code false}
+     */
+    public static boolean fits(int width, int height) {
+        return (long) width * height <= Math.min(MAX_CELLS, CAPACITY);
+    }
+
+    /**
+     * Finds a shortest path of a player of a team to a building, preferring the directions
+     * in the order north, south, east, west when several steps are equally short
+     * @param team Identifier of the team of the player
+     * @param x Coordinate x of the player
+     * @param y Coordinate y of the player
+     * @param building The building
+     * @return Directions of the steps of the path, {@code null} if the building can't be reached
+     */
+    public Array<Direction> path(int team, int x, int y, Building building) {
+        int target = index(building.fieldLocation().getX(), building.fieldLocation().getY());
+        int[] dist = distances(team, target).dist;
+        int cell = index(x, y);
+        Array<Direction> path = new ArrayClass<>();
+        while (cell != target) {
+            int best = -1, bestDistance = UNREACHABLE;
+            for (int dir = 0; dir < DIRECTIONS.length; dir++) {
+                int next = neighbor(cell, dir);
+                if (next >= 0 && dist[next] < bestDistance) {
+                    best = dir;
+                    bestDistance = dist[next];
+                }
+            }
+            if (best < 0) return null;
+            path.insertLast(DIRECTIONS[best]);
+            cell = neighbor(cell, best);
+        }
+        return path;
+    }
+
+    /**
+     * Remembers that a player of a team has entered or left a cell,
+     * so the distance fields of the team are repaired on their next path
+     * @param team Identifier of the team of the player
+     * @param x Coordinate x of the cell
+     * @param y Coordinate y of the cell
+     */
+    public void changed(int team, int x, int y) {
+        if (distances.isEmpty()) return;
+        int cell = index(x, y);
+        for (Distances kept : distances.values())
+            if (kept.team == team) kept.changed(cell);
+    }
+
+    /**
+     * Returns the distance field of a team and a building, repaired or computed if needed,
+     * evicting the least recently used ones until the distance fields fit in the bound
+     * @param team Identifier of the team
+     * @param target Index of the cell of the building
+     * @return The distance field
+     */
+    private Distances distances(int team, int target) {
+        Long key = (long) team << 32 | target;
+        Distances found = distances.get(key);
+        if (found != null) {
+            found.repair();
+            return found;
+        }
+        found = new Distances(team, target);
+        distances.put(key, found);
+        kept += found.dist.length;
+        Iterator<Distances> eldest = distances.values().iterator();
+        while (kept > CAPACITY) {
+            kept -= eldest.next().dist.length;
+            eldest.remove();
+        }
+        return found;
+    }
+
+    /**
+     * Returns index of a cell, row by row
+     * @param x Coordinate x of the cell
+     * @param y Coordinate y of the cell
+     * @return Index of the cell
+     */
+    private int index(int x, int y) {
+        return (y - 1) * width + (x - 1);
+    }
+
+    /**
+     * Returns the neighbor of a cell in a direction
+     * @param cell Index of the cell
+     * @param dir Index of the direction in {@link #DIRECTIONS}
+     * @return Index of the neighbor, {@code -1} if it's off the field
+     */
+    private int neighbor(int cell, int dir) {
+        int x = cell % width + STEP_X[dir], y = cell / width + STEP_Y[dir];
+        if (x < 0 || x >= width || y < 0 || y >= height) return -1;
+        return y * width + x;
+    }
+
+    /**
+     * Distances of every cell to a building for the players of a team
+     */
+    private final class Distances {
+        /**
+         * Identifier of the team
+         */
+        private final int team;
+        /**
+         * Index of the cell of the building
+         */
+        private final int target;
+        /**
+         * Distance of each cell, {@link #UNREACHABLE} for blocked cells and cells without a path
+         */
+        private final int[] dist = new int[width * height];
+        /**
+         * Cells entered or left by players of the team since the distances were repaired
+         */
+        private int[] changed = new int[MIN_LENGTH];
+        /**
+         * Amount of changed cells
+         */
+        private int changedCount;
+        /**
+         * Whether so many cells changed that the distances must be computed again
+         */
+        private boolean stale;
+
+        /**
+         * Computes the distances of a team to a building
+         * @param team Identifier of the team
+         * @param target Index of the cell of the building
+         */
+        private Distances(int team, int target) {
+            this.team = team;
+            this.target = target;
+            compute();
+        }
+
+        /**
+         * Remembers a cell entered or left by a player of the team
+         * @param cell Index of the cell
+         */
+        private void changed(int cell) {
+            if (stale) return;
+            if (changedCount >= MIN_LENGTH && changedCount >= dist.length / REPAIR_FRACTION) {
+                stale = true;
+                changedCount = 0;
+                return;
+            }
+            if (changedCount == changed.length) changed = Arrays.copyOf(changed, 2 * changedCount);
+            changed[changedCount++] = cell;
+        }
+
+        /**
+         * Computes the distances by a breadth-first search from the building
+         */
+        private void compute() {
+            Arrays.fill(dist, UNREACHABLE);
+            stale = false;
+            changedCount = 0;
+            if (isBlocked(target)) return;
+            if (queue == null) queue = new int[dist.length];
+            int head = 0, tail = 0;
+            dist[target] = 0;
+            queue[tail++] = target;
+            while (head < tail) {
+                int cell = queue[head++];
+                for (int dir = 0; dir < DIRECTIONS.length; dir++) {
+                    int next = neighbor(cell, dir);
+                    if (next < 0 || dist[next] != UNREACHABLE || isBlocked(next)) continue;
+                    dist[next] = dist[cell] + 1;
+                    queue[tail++] = next;
+                }
+            }
+        }
+
+        /**
+         * Repairs the distances after cells were entered or left by players of the team<br>
+         * First the distances of the cells which became blocked are invalidated, followed
+         * by the cells whose every shortest path went through invalidated cells, in increasing
+         * order of distance. Then the invalidated cells and the cells which became free
+         * take the distances of their neighbors and spread them to the cells they make nearer
+         */
+        private void repair() {
+            if (stale) {
+                compute();
+                return;
+            }
+            if (changedCount == 0) return;
+            PriorityQueue<Long> queue = new PriorityQueue<>();
+            for (int i = 0; i < changedCount; i++) {
+                int cell = changed[i];
+                if (dist[cell] == UNREACHABLE || !isBlocked(cell)) continue;
+                int distance = dist[cell];
+                dist[cell] = UNREACHABLE;
+                queueFarther(cell, distance, queue);
+            }
+            int[] invalidated = new int[MIN_LENGTH];
+            int invalidatedCount = 0;
+            while (!queue.isEmpty()) {
+                long entry = queue.poll();
+                int cell = (int) entry, distance = (int) (entry >>> 32);
+                if (dist[cell] != distance || isSupported(cell)) continue;
+                dist[cell] = UNREACHABLE;
+                if (invalidatedCount == invalidated.length)
+                    invalidated = Arrays.copyOf(invalidated, 2 * invalidatedCount);
+                invalidated[invalidatedCount++] = cell;
+                queueFarther(cell, distance, queue);
+            }
+            for (int i = 0; i < invalidatedCount; i++) reach(invalidated[i], queue);
+            for (int i = 0; i < changedCount; i++) reach(changed[i], queue);
+            changedCount = 0;
+            while (!queue.isEmpty()) {
+                long entry = queue.poll();
+                int cell = (int) entry, distance = (int) (entry >>> 32);
+                if (dist[cell] != distance) continue;
+                for (int dir = 0; dir < DIRECTIONS.length; dir++) {
+                    int next = neighbor(cell, dir);
+                    if (next < 0 || dist[next] <= distance + 1 || isBlocked(next)) continue;
+                    dist[next] = distance + 1;
+                    queue.add(entry(next, distance + 1));
+                }
+            }
+        }
+
+        /**
+         * Queues the neighbors of a cell one step farther from the building,
+         * whose distances may go through it
+         * @param cell Index of the cell
+         * @param distance Distance the cell had
+         * @param queue Queue of cells by distance
+         */
+        private void queueFarther(int cell, int distance, PriorityQueue<Long> queue) {
+            for (int dir = 0; dir < DIRECTIONS.length; dir++) {
+                int next = neighbor(cell, dir);
+                if (next >= 0 && dist[next] == distance + 1) queue.add(entry(next, distance + 1));
+            }
+        }
+
+        /**
+         * Check whether a cell still has a neighbor one step nearer to the building
+         * @param cell Index of the cell
+         * @return {@code true} if the cell is the building or has a nearer neighbor,
+         * otherwise {@code false}
+         */
+        private boolean isSupported(int cell) {
+            if (cell == target) return true;
+            for (int dir = 0; dir < DIRECTIONS.length; dir++) {
+                int next = neighbor(cell, dir);
+                if (next >= 0 && dist[next] == dist[cell] - 1) return true;
+            }
+            return false;
+        }
+
+        /**
+         * Gives a free cell the distance through its nearest neighbor, if it's shorter,
+         * and queues it to spread it
+         * @param cell Index of the cell
+         * @param queue Queue of cells by distance
+         */
+        private void reach(int cell, PriorityQueue<Long> queue) {
+            if (isBlocked(cell)) return;
+            int distance = cell == target ? 0 : UNREACHABLE;
+            for (int dir = 0; dir < DIRECTIONS.length && distance != 0; dir++) {
+                int next = neighbor(cell, dir);
+                if (next >= 0 && dist[next] != UNREACHABLE) distance = Math.min(distance, dist[next] + 1);
+            }
+            if (distance >= dist[cell]) return;
+            dist[cell] = distance;
+            queue.add(entry(cell, distance));
+        }
+
+        /**
+         * Check whether a cell has a player of the team
+         * @param cell Index of the cell
+         * @return {@code true} if the players of the team can't enter the cell, otherwise {@code false}
+         */
+        private boolean isBlocked(int cell) {
+            int player = field.playerAt(cell % width + 1, cell / width + 1);
+            return player != 0 && field.players().team(player - 1).id() == team;
+        }
+    }
+
+    /**
+     * Returns an entry of a queue of cells by distance
+     * @param cell Index of the cell
+     * @param distance Distance of the cell
+     * @return The entry, ordered by distance
+     */
+    private static long entry(int cell, int distance) {
+        return (long) distance << 32 | cell;
+    }
+}
@@ -20,6 +20,19 @@ public interface Field {
      */
     int height();
 
+    /**
+     * Returns the table of the players located on this field
+     * @return The table of the players located on this field
+     */
+    PlayerTable players();
+
+    /**
+     * Returns the index of the locations of the players and the buildings of this field,
+     * updated when they're set or removed
+     * @return The index of the entities of this field
+     */
+    SpatialIndex index();
+
     /**
      * Sets the location of the specified player on this field<br>
      * @param player {@link Player} which will be placed on this field
@@ -54,6 +67,21 @@ public interface Field {
      */
     boolean removeBuildingAt(int x, int y);
 
+    /**
+     * Updates the hash of this field after the owner or the treasury of a building has changed
+     * @param building {@link Building} located on this field, with its new owner and treasury
+     * @param oldTeam Previous owner of the building
+     * @param oldTreasury Previous amount of money in the building
+     */
+    void rehashBuilding(Building building, Team oldTeam, int oldTreasury);
+
+    /**
+     * Returns the Zobrist hash of the entities on this field, see {@link Zobrist}<br>
+     * The hash is maintained incrementally, so this method takes constant time
+     * @return The hash of the entities on this field
+     */
+    long hash();
+
     /**
      * Gets a reference to a {@link Cell} at the specified location
      * @param x Coordinate x of the location
@@ -62,6 +90,39 @@ public interface Field {
      */
     Cell cellAt(int x, int y);
 
+    /**
+     * Returns the slot of the {@link Player} at the specified location, without creating a {@link Cell}
+     * @param x Coordinate x of the location
+     * @param y Coordinate y of the location
+     * @return Slot of the player in {@link #players()} plus one, {@code 0} if there's no player
+     */
+    int playerAt(int x, int y);
+
+    /**
+     * Returns the {@link Building} at the specified location, without creating a {@link Cell}
+     * @param x Coordinate x of the location
+     * @param y Coordinate y of the location
+     * @return {@link Building} at the specified location, {@code null} if there's no building
+     */
+    Building buildingAt(int x, int y);
+
+    /**
+     * Writes the owner codes (see {@link Visibility#owner(Team)}) of the players and the buildings
+     * of a row of this field, {@link Visibility#EMPTY} for cells without them<br>
+     * The default implementation reads the cells one by one
+     * @param y Coordinate y of the row
+     * @param players Owner codes of the players, indexed by {@code x - 1}
+     * @param buildings Owner codes of the buildings, indexed by {@code x - 1}
+     */
+    default void owners(int y, int[] players, int[] buildings) {
+        for (int x = 1; x <= width(); x++) {
+            Cell cell = cellAt(x, y);
+            players[x - 1] =
+                cell.player == 0 ? Visibility.EMPTY : Visibility.owner(cell.players.team(cell.player - 1));
+            buildings[x - 1] = cell.building == null ? Visibility.EMPTY : Visibility.owner(cell.building.team());
+        }
+    }
+
     /**
      * Returns a snapshot of the field in the form of {@link Map}
      * @return A snapshot of the field in the form of {@link Map}
@@ -80,9 +141,13 @@ public interface Field {
      */
     class Cell {
         /**
-         * {@link Player} located in this cell
+         * Slot of the {@link Player} located in this cell plus one, {@code 0} if there's no player
+         */
+        protected int player;
+        /**
+         * Table of the {@link Player} located in this cell
          */
-        protected Player player;
+        protected PlayerTable players;
         /**
          * {@link Building} located in this cell
          */
@@ -107,16 +172,15 @@ public interface Field {
          * @return Reference to a {@link Player} located in this cell
          */
         public Player getPlayer() {
-            return player;
+            return player == 0 ? null : new Player(players, player - 1);
         }
 
         /**
          * Check whether this cell contains a {@link Player}
-         * @return {@code true} if the reference to a player is not {@code null},
-         * otherwise {@code false}
+         * @return {@code true} if there's a player in this cell, otherwise {@code false}
          */
         public boolean hasPlayer() {
-            return player != null;
+            return player != 0;
         }
 
         /**
@@ -155,9 +219,16 @@ public interface Field {
 
     /**
      * A snapshot of the {@link Field} at the moment of initiating the instance of this class<br>
-     * Used to simplify the process of displaying information about the {@link Field}
+     * Used to simplify the process of displaying information about the {@link Field}<br>
+     * The cells of a row are read from the field when the iterator reaches the row,
+     * and computed together by {@link Visibility#row(int[], int[], int, int[], int)}
      */
     class Map {
+        /**
+         * Map cells indexed by their ordinal
+         */
+        private static final MapCell[] MAP_CELLS = MapCell.values();
+
         /**
          * Width and height of the field
          */
@@ -194,17 +265,21 @@ public interface Field {
             this.width = field.width();
             this.height = field.height();
             this.mapCells = new Iterator<>() {
-                int i = -1;
+                final int viewer = Visibility.owner(team);
+                final int[] players = new int[width], buildings = new int[width], codes = new int[width];
+                long i = -1;
                 public boolean hasNext() {
-                    return i < width * height - 1;
+                    return i < (long) width * height - 1;
                 }
 
                 public MapCell next() {
                     i++;
-                    Cell cell = field.cellAt(i % width + 1, i / width + 1);
-                    if (cell.player != null && team != cell.player.team()) return MapCell.NONE;
-                    if (cell.building != null && team != cell.building.team()) return MapCell.NONE;
-                    return MapCell.fromCell(cell);
+                    int x = (int) (i % width);
+                    if (x == 0) {
+                        field.owners((int) (i / width) + 1, players, buildings);
+                        Visibility.row(players, buildings, viewer, codes, width);
+                    }
+                    return MAP_CELLS[codes[x]];
                 }
             };
         }
@@ -3,6 +3,7 @@ package game;
 import game.data_structures.Array;
 import game.data_structures.Iterator;
 import game.data_structures.SizedIterator;
+import game.players.Player;
 import game.players.Player.*;
 import game.Building.CreateStatus;
 
@@ -55,6 +56,30 @@ public interface Game {
      */
     GameStatus addTeam(String teamName, String buildingName);
 
+    /**
+     * Adds a batch of buildings, with the same outcome as calling
+     * {@link #addBuilding(int, int, int, String)} for each of them in order,
+     * but validating the whole batch in a single pass over the existing buildings
+     * @param x Coordinates X of the buildings
+     * @param y Coordinates Y of the buildings
+     * @param treasury Initial amounts of money in the buildings
+     * @param buildingNames Names of the new buildings
+     * @return Outcome of each building, {@link GameStatus#OK} or {@link GameStatus#BUNKER_NOT_CREATED}
+     * @pre x, y, treasury and buildingNames have the same length
+     */
+    GameStatus[] addBuildings(int[] x, int[] y, int[] treasury, String[] buildingNames);
+
+    /**
+     * Adds a batch of teams, with the same outcome as calling
+     * {@link #addTeam(String, String)} for each of them in order,
+     * but validating the whole batch in a single pass over the existing teams and buildings
+     * @param teamNames Names of the new teams
+     * @param buildingNames Names of the buildings of the new teams
+     * @return Outcome of each team, {@link GameStatus#OK} or {@link GameStatus#TEAM_NOT_CREATED}
+     * @pre teamNames and buildingNames have the same length
+     */
+    GameStatus[] addTeams(String[] teamNames, String[] buildingNames);
+
     /**
      * Gets all the buildings currently in this game
      * @return {@link SizedIterator} over {@link Building}
@@ -118,6 +143,39 @@ public interface Game {
      */
     GameResponse<Field.Map> playersAttack();
 
+    /**
+     * Submits an {@link Order} for the current simultaneous round<br>
+     * Every team may submit at most one order per round, orders of different teams
+     * may be submitted concurrently from different threads<br>
+     * Must not be called concurrently with {@link #resolveRound()}
+     * @param order The order to submit
+     * @return {@link GameStatus#INVALID_ORDER} if the game is not in progress,
+     * the team of the order is not in the game
+     * or the team has already submitted an order this round<br>
+     * {@link GameStatus#OK} if the order was accepted
+     */
+    GameStatus submitOrder(Order order);
+
+    /**
+     * Resolves all orders submitted for the current round in one pass<br>
+     * Orders are resolved in the order in which their teams were added to the game,
+     * so conflicts (e.g. two players moving into the same cell)
+     * are always won by the team that was added first<br>
+     * Orders of teams eliminated earlier in the same round are skipped<br>
+     * Bunkers receive the income of every resolved order once, after the whole round;
+     * skipped orders of eliminated teams produce no income, as eliminated teams get no turn<br>
+     * The current team stays the same, or becomes the team after it if it was eliminated in the round
+     * @return {@link GameResponse} with a status:<br>
+     * {@link GameStatus#GAME_OVER} if the game has ended during the round,
+     * in which case the remaining orders are not resolved<br>
+     * Otherwise, returns {@link GameStatus#OK}<br>
+     * The result of the {@link GameResponse} is an {@link Iterator} over the responses
+     * of the resolved orders, with the same statuses and results as the methods
+     * {@link #createPlayer(PlayerColor, String)}, {@link #movePlayerAt(int, int, Array)}
+     * and {@link #playersAttack()} (or {@link GameStatus#TEAM_ELIMINATED} for skipped orders)
+     */
+    GameResponse<Iterator<GameResponse<?>>> resolveRound();
+
     /**
      * Returns a snapshot of the field in the form of {@link Field.Map}
      * @return A snapshot of the field in the form of {@link Field.Map}
@@ -131,12 +189,93 @@ public interface Game {
      */
     Field.Map map(Team team);
 
+    /**
+     * Finds the players of the other teams at most a number of steps away from a location,
+     * see {@link SpatialIndex#enemiesWithin(Team, int, int, int)}
+     * @param team {@link Team} whose enemies are searched
+     * @param x X coordinate of the location
+     * @param y Y coordinate of the location
+     * @param radius Maximum distance in steps, as the sum of the horizontal and vertical distances
+     * @return {@link GameResponse} with a status:<br>
+     * {@link GameStatus#INVALID_POSITION} if the specified coordinates are out of bounds<br>
+     * {@link GameStatus#INVALID_RANGE} if the radius is negative<br>
+     * Otherwise, returns {@link GameStatus#OK} with a {@link SizedIterator} over the players found,
+     * sorted by row and column
+     */
+    GameResponse<SizedIterator<Player>> enemiesWithin(Team team, int x, int y, int radius);
+
+    /**
+     * Finds the {@link Building} owned by another team nearest to a location,
+     * see {@link SpatialIndex#nearestEnemyBuilding(Team, int, int)}
+     * @param team {@link Team} whose enemies are searched
+     * @param x X coordinate of the location
+     * @param y Y coordinate of the location
+     * @return {@link GameResponse} with a status:<br>
+     * {@link GameStatus#INVALID_POSITION} if the specified coordinates are out of bounds<br>
+     * Otherwise, returns {@link GameStatus#OK} with the nearest building,
+     * {@code null} if no other team owns a building
+     */
+    GameResponse<Building> nearestEnemyBunker(Team team, int x, int y);
+
+    /**
+     * Finds the buildings inside a rectangle of the field, given by two opposite corners
+     * @param x1 X coordinate of a corner
+     * @param y1 Y coordinate of a corner
+     * @param x2 X coordinate of the opposite corner
+     * @param y2 Y coordinate of the opposite corner
+     * @return {@link GameResponse} with a status:<br>
+     * {@link GameStatus#INVALID_POSITION} if the coordinates of a corner are out of bounds<br>
+     * Otherwise, returns {@link GameStatus#OK} with a {@link SizedIterator} over the buildings found,
+     * sorted by row and column
+     */
+    GameResponse<SizedIterator<Building>> bunkersIn(int x1, int y1, int x2, int y2);
+
+    /**
+     * Finds a shortest sequence of directions which takes the player at the specified location
+     * to a {@link Building}, moving one direction at a time, see {@link DistanceFields}<br>
+     * Players of the same team and the edges of the field block the way,
+     * players of other teams don't, since the player fights them on the way
+     * @param x X coordinate of the player
+     * @param y Y coordinate of the player
+     * @param bunkerName Name of the building
+     * @return {@link GameResponse} with a status:<br>
+     * {@link GameStatus#INVALID_POSITION} if the specified coordinates are out of bounds<br>
+     * {@link GameStatus#NO_PLAYER} if there is no player at the specified location<br>
+     * {@link GameStatus#PLAYER_NOT_FROM_TEAM} if the player is not from the current team<br>
+     * {@link GameStatus#INVALID_BUNKER_NAME} if the building with the specified name doesn't exist<br>
+     * {@link GameStatus#INVALID_SIZE} if the field is too big to search paths<br>
+     * {@link GameStatus#NO_PATH} if the players of the team block every way to the building<br>
+     * Otherwise, returns {@link GameStatus#OK} with a {@link SizedIterator}
+     * over the directions of the path, empty if the player is in the building
+     */
+    GameResponse<SizedIterator<Direction>> pathTo(int x, int y, String bunkerName);
+
+    /**
+     * Computes the cells which the players of every team could hit on their next attack,
+     * by color, see {@link InfluenceMaps}
+     * @return {@link GameResponse} with a status:<br>
+     * {@link GameStatus#INVALID_SIZE} if the field is too big for the maps<br>
+     * Otherwise, returns {@link GameStatus#OK} with an {@link InfluenceMap}
+     * of the teams, in the order of {@link #teams()}
+     */
+    GameResponse<InfluenceMap> influence();
+
     /**
      * Gets a reference to the {@link Team} that is currently making a move
      * @return {@link Team} that currently moves
      */
     Team currentTeam();
 
+    /**
+     * Returns the Zobrist hash of the state of the game: the entities on the field,
+     * their owners, the treasuries and the team that is currently making a move<br>
+     * Equal states have equal hashes, so comparing the hashes of two games
+     * is a cheap way to detect that their states differ<br>
+     * Takes constant time, the hash is maintained incrementally
+     * @return The hash of the state of the game, {@code 0} if the game is not in progress
+     */
+    long hash();
+
     /**
      * Check whether the game is currently in progress or not
      * @return {@code true} if the game is in progress, otherwise {@code false}
@@ -156,6 +295,13 @@ public interface Game {
      */
     void stop();
 
+    /**
+     * Replaces the state of this game with the state described by a {@link GameState},
+     * stopping the current game; the game is left stopped if the state is not in progress
+     * @param state The state to restore
+     */
+    void restore(GameState state);
+
     /**
      * Represents a general response of the game, containing some status of the logic execution and
      * some result, if the execution was successful
@@ -252,6 +398,7 @@ public interface Game {
     enum GameStatus {
         OK, TEAM_ELIMINATED, TEAM_ELIM_AND_GAME_OVER, GAME_OVER, INVALID_POSITION, NO_PLAYER,
         PLAYER_NOT_FROM_TEAM, INVALID_SIZE, INVALID_PLAYER_COLOR, INVALID_BUNKER_NAME,
-        WRONG_TEAM_BUNKER, BUNKER_NOT_CREATED, TEAM_NOT_CREATED, NOT_ENOUGH_TEAMS
+        WRONG_TEAM_BUNKER, BUNKER_NOT_CREATED, TEAM_NOT_CREATED, NOT_ENOUGH_TEAMS, INVALID_ORDER,
+        INVALID_RANGE, NO_PATH
     }
 }
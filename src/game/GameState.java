@@ -0,0 +1,1080 @@
+package game;
+
+import game.Building.CreateStatus;
+import game.Game.GameStatus;
+import game.data_structures.SizedIterator;
+import game.players.Player;
+import game.players.Player.*;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+
+/**
+ * Compact representation of the state of a {@link Game}, stored in primitive arrays<br>
+ * Unlike {@link PaintballGame}, a state has no back-references between its entities,
+ * so it can be copied in time proportional to its size with {@link #copy(GameState)},
+ * which makes it suitable for searches and simulations<br>
+ * The state implements the same rules as {@link PaintballGame}: creating, moving and attacking
+ * end the turn of the current team, and the game ends when only one team is left<br>
+ * Players are kept in the order of their creation, teams in the order they were added
+ * and the bunkers of a team in the order they were seized<br>
+ * Cells are indexed as {@code (y - 1) * width + (x - 1)}
+ */
+public class GameState {
+    /**
+     * Value of {@link #playerColor} for slots of eliminated players
+     */
+    private static final byte DEAD = -1;
+    /**
+     * Value of {@link #bunkerOwner} for bunkers without owner
+     */
+    private static final int NO_OWNER = -1;
+    /**
+     * Initial capacity of the player arrays
+     */
+    private static final int MIN_PLAYERS = 16;
+    /**
+     * Inverse of the minimum fraction of dead slots removed at the end of a turn
+     */
+    private static final int DEAD_FRACTION = 4;
+    /**
+     * Player colors indexed by their ordinal
+     */
+    private static final PlayerColor[] COLORS = PlayerColor.values();
+    /**
+     * First bytes of a saved state ("PBGS") and version of the format written by {@link #save(Path)}
+     */
+    private static final int IMAGE_MAGIC = 0x50424753, IMAGE_VERSION = 1;
+    /**
+     * Size in bytes of the header of a saved state, of a team, a bunker and a player,
+     * without the names
+     */
+    private static final int HEADER_BYTES = 41, TEAM_BYTES = 9, BUNKER_BYTES = 28, PLAYER_BYTES = 13;
+    /**
+     * Maximum amount of cells of the field of a state
+     */
+    private static final long MAX_CELLS = Integer.MAX_VALUE - 8;
+
+    /**
+     * Width and height of the field
+     */
+    private int width, height;
+    /**
+     * Attack orders of the field, not copied and created again when the size of the field changes
+     */
+    private AttackTables attackTables;
+    /**
+     * Slot of the player located in each cell plus one, {@code 0} if the cell is empty
+     */
+    private int[] cellPlayer = new int[0];
+    /**
+     * Index of the bunker located in each cell plus one, {@code 0} if there's no bunker
+     */
+    private int[] cellBunker = new int[0];
+
+    /**
+     * Amount of used player slots, including the slots of eliminated players
+     */
+    private int playerSlots;
+    /**
+     * Amount of eliminated players which still occupy a slot
+     */
+    private int deadPlayers;
+    /**
+     * Ordinal of the {@link PlayerColor} of each player, {@link #DEAD} for eliminated players
+     */
+    private byte[] playerColor = new byte[0];
+    /**
+     * Coordinates and team index of each player
+     */
+    private int[] playerX = new int[0], playerY = new int[0], playerTeam = new int[0];
+
+    /**
+     * Amount of bunkers in the game
+     */
+    private int bunkerCount;
+    /**
+     * Names of the bunkers, shared between copies since they never change
+     */
+    private String[] bunkerNames = new String[0];
+    /**
+     * Coordinates, treasury and owner team index of each bunker
+     */
+    private int[] bunkerX = new int[0], bunkerY = new int[0],
+        bunkerTreasury = new int[0], bunkerOwner = new int[0];
+    /**
+     * Sequence number of the moment each bunker was seized, used to order the bunkers of a team
+     */
+    private long[] bunkerSeized = new long[0];
+    /**
+     * Last used seizure sequence number
+     */
+    private long seizures;
+
+    /**
+     * Amount of teams which were in the game when the state was captured
+     */
+    private int teamCount;
+    /**
+     * Names of the teams, shared between copies since they never change
+     */
+    private String[] teamNames = new String[0];
+    /**
+     * Identifiers of the teams (see {@link Team#id()}), shared between copies since they never change
+     */
+    private int[] teamIds = new int[0];
+    /**
+     * Amount of players and bunkers owned by each team
+     */
+    private int[] teamPlayers = new int[0], teamBunkers = new int[0];
+    /**
+     * Whether each team is still in the game
+     */
+    private boolean[] teamAlive = new boolean[0];
+    /**
+     * Amount of teams still in the game
+     */
+    private int aliveTeams;
+
+    /**
+     * Index of the team that is currently making a move
+     */
+    private int currentTeam;
+    /**
+     * Indication of the game being in progress
+     */
+    private boolean inProgress;
+    /**
+     * Zobrist hash of the state, computed like {@link Game#hash()} and maintained incrementally
+     */
+    private long hash;
+
+    /**
+     * Constructs an empty state, meant to be used as the target of {@link #copy(GameState)}
+     */
+    public GameState() {}
+
+    /**
+     * Check whether a field is small enough to be captured in a state
+     * @param width Width of the field
+     * @param height Height of the field
+     * @return {@code true} if the cells of the field fit in an array, otherwise {@code false}
+     */
+    public static boolean fits(int width, int height) {
+        return (long) width * height <= MAX_CELLS;
+    }
+
+    /**
+     * Captures the state of the specified {@link Game}
+     * @param game The game to capture
+     * @pre game.inProgress() && fits(game.width(), game.height())
+     */
+    public GameState(Game game) {
+        width = game.width();
+        height = game.height();
+        cellPlayer = new int[width * height];
+        cellBunker = new int[width * height];
+
+        SizedIterator<Building> buildings = game.buildings();
+        ensureBunkers(buildings.size());
+        bunkerNames = new String[buildings.size()];
+        IdentityHashMap<Building, Integer> bunkers = new IdentityHashMap<>(buildings.size());
+        while (buildings.hasNext()) {
+            Building building = buildings.next();
+            int b = bunkerCount++;
+            bunkers.put(building, b);
+            bunkerNames[b] = building.name();
+            bunkerX[b] = building.fieldLocation().getX();
+            bunkerY[b] = building.fieldLocation().getY();
+            bunkerTreasury[b] = building.treasury();
+            bunkerOwner[b] = NO_OWNER;
+            cellBunker[cell(bunkerX[b], bunkerY[b])] = b + 1;
+        }
+
+        SizedIterator<Team> teams = game.teams();
+        teamCount = teams.size();
+        aliveTeams = teamCount;
+        teamNames = new String[teamCount];
+        teamIds = new int[teamCount];
+        teamPlayers = new int[teamCount];
+        teamBunkers = new int[teamCount];
+        teamAlive = new boolean[teamCount];
+        int players = 0;
+        for (int t = 0; t < teamCount; t++) {
+            Team team = teams.next();
+            teamNames[t] = team.name();
+            teamIds[t] = team.id();
+            teamAlive[t] = true;
+            if (team == game.currentTeam()) currentTeam = t;
+            SizedIterator<Building> owned = team.buildings();
+            while (owned.hasNext()) {
+                int b = bunkers.get(owned.next());
+                bunkerOwner[b] = t;
+                bunkerSeized[b] = ++seizures;
+                teamBunkers[t]++;
+            }
+            players += team.players().size();
+        }
+
+        ensurePlayers(Math.max(MIN_PLAYERS, 2 * players));
+        teams = game.teams();
+        for (int t = 0; t < teamCount; t++) {
+            SizedIterator<Player> teamPlayerList = teams.next().players();
+            while (teamPlayerList.hasNext()) {
+                Player player = teamPlayerList.next();
+                addPlayer(player.color(), player.fieldLocation().getX(),
+                    player.fieldLocation().getY(), t);
+            }
+        }
+        inProgress = game.inProgress();
+        hash ^= Zobrist.turn(teamIds[currentTeam]);
+        for (int b = 0; b < bunkerCount; b++) hash ^= bunkerKey(b);
+    }
+
+    /**
+     * Creates a new {@link PaintballGame} with the state described by this object
+     * @return A new game with the state described by this object
+     */
+    public PaintballGame toGame() {
+        PaintballGame game = new PaintballGame();
+        game.restore(this);
+        return game;
+    }
+
+    /**
+     * Writes this state to a file through a memory-mapped buffer<br>
+     * The file holds a header (format, field, turn and amounts of entities)
+     * followed by the teams, the bunkers and the players alive, in their order;
+     * names are stored as their length followed by their UTF-8 bytes
+     * @param file The file, replaced if it exists
+     * @return Amount of bytes written
+     * @throws IOException if the file can't be written or the state doesn't fit in 2 GB
+     */
+    public long save(Path file) throws IOException {
+        byte[][] teamNameBytes = encode(teamNames, teamCount), bunkerNameBytes = encode(bunkerNames, bunkerCount);
+        long size = HEADER_BYTES + (long) TEAM_BYTES * teamCount + (long) BUNKER_BYTES * bunkerCount +
+            (long) PLAYER_BYTES * (playerSlots - deadPlayers);
+        for (byte[] name : teamNameBytes) size += name.length;
+        for (byte[] name : bunkerNameBytes) size += name.length;
+        if (size > Integer.MAX_VALUE) throw new IOException("State too large to save");
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+            StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            buffer.putInt(IMAGE_MAGIC).putInt(IMAGE_VERSION).putInt(width).putInt(height);
+            buffer.put((byte) (inProgress ? 1 : 0)).putInt(currentTeam).putLong(seizures);
+            buffer.putInt(teamCount).putInt(bunkerCount).putInt(playerSlots - deadPlayers);
+            for (int t = 0; t < teamCount; t++) {
+                buffer.putInt(teamIds[t]).put((byte) (teamAlive[t] ? 1 : 0));
+                buffer.putInt(teamNameBytes[t].length).put(teamNameBytes[t]);
+            }
+            for (int b = 0; b < bunkerCount; b++) {
+                buffer.putInt(bunkerX[b]).putInt(bunkerY[b]).putInt(bunkerTreasury[b]).putInt(bunkerOwner[b]);
+                buffer.putLong(bunkerSeized[b]).putInt(bunkerNameBytes[b].length).put(bunkerNameBytes[b]);
+            }
+            for (int p = 0; p < playerSlots; p++) {
+                if (playerColor[p] == DEAD) continue;
+                buffer.put(playerColor[p]).putInt(playerX[p]).putInt(playerY[p]).putInt(playerTeam[p]);
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Reads a state written by {@link #save(Path)} through a memory-mapped buffer
+     * @param file The file
+     * @return The state stored in the file
+     * @throws IOException if the file can't be read or doesn't hold a valid state
+     */
+    public static GameState load(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) throw new IOException("Not a saved game");
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.remaining() < HEADER_BYTES || buffer.getInt() != IMAGE_MAGIC)
+                throw new IOException("Not a saved game");
+            if (buffer.getInt() != IMAGE_VERSION) throw new IOException("Unsupported saved game version");
+            GameState state = new GameState();
+            state.read(buffer);
+            return state;
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | NegativeArraySizeException e) {
+            throw new IOException("Corrupted saved game", e);
+        }
+    }
+
+    /**
+     * Reads the contents of a saved state, after its format and version<br>
+     * The current team, the owners of the bunkers and the teams of the players must be teams
+     * still in the game, and every cell may hold at most one bunker and one player
+     * @param buffer Buffer positioned after the version
+     * @throws IOException if the size of the field is invalid or too big, see {@link #fits(int, int)}
+     * @throws IndexOutOfBoundsException if an entity is outside the field, refers to a team
+     * which is not in the game or shares its cell with an entity of the same kind
+     */
+    private void read(ByteBuffer buffer) throws IOException {
+        width = buffer.getInt();
+        height = buffer.getInt();
+        if (width < 1 || height < 1 || !fits(width, height)) throw new IOException("Corrupted saved game");
+        inProgress = buffer.get() != 0;
+        currentTeam = buffer.getInt();
+        seizures = buffer.getLong();
+        teamCount = buffer.getInt();
+        bunkerCount = buffer.getInt();
+        int players = buffer.getInt();
+        cellPlayer = new int[width * height];
+        cellBunker = new int[width * height];
+
+        teamNames = new String[teamCount];
+        teamIds = new int[teamCount];
+        teamPlayers = new int[teamCount];
+        teamBunkers = new int[teamCount];
+        teamAlive = new boolean[teamCount];
+        for (int t = 0; t < teamCount; t++) {
+            teamIds[t] = buffer.getInt();
+            teamAlive[t] = buffer.get() != 0;
+            teamNames[t] = decode(buffer);
+            if (teamAlive[t]) aliveTeams++;
+        }
+
+        ensureBunkers(bunkerCount);
+        bunkerNames = new String[bunkerCount];
+        for (int b = 0; b < bunkerCount; b++) {
+            bunkerX[b] = buffer.getInt();
+            bunkerY[b] = buffer.getInt();
+            bunkerTreasury[b] = buffer.getInt();
+            bunkerOwner[b] = buffer.getInt();
+            bunkerSeized[b] = buffer.getLong();
+            bunkerNames[b] = decode(buffer);
+            cellBunker[checkedFreeCell(bunkerX[b], bunkerY[b], cellBunker)] = b + 1;
+            if (bunkerOwner[b] != NO_OWNER) teamBunkers[checkedTeam(bunkerOwner[b])]++;
+            hash ^= bunkerKey(b);
+        }
+
+        ensurePlayers(Math.max(MIN_PLAYERS, players));
+        for (int p = 0; p < players; p++) {
+            PlayerColor color = COLORS[buffer.get()];
+            int x = buffer.getInt(), y = buffer.getInt();
+            checkedFreeCell(x, y, cellPlayer);
+            addPlayer(color, x, y, checkedTeam(buffer.getInt()));
+        }
+        if (teamCount > 0) hash ^= Zobrist.turn(teamIds[checkedTeam(currentTeam)]);
+    }
+
+    /**
+     * Converts coordinates read from a saved state to the index of a cell
+     * @param x X coordinate of the cell
+     * @param y Y coordinate of the cell
+     * @return Index of the cell
+     * @throws IndexOutOfBoundsException if the cell is outside the field
+     */
+    private int checkedCell(int x, int y) {
+        if (x < 1 || x > width || y < 1 || y > height) throw new IndexOutOfBoundsException("Cell outside the field");
+        return cell(x, y);
+    }
+
+    /**
+     * Converts coordinates read from a saved state to the index of a cell without an entity of a kind
+     * @param x X coordinate of the cell
+     * @param y Y coordinate of the cell
+     * @param cells Entities of the kind in each cell, {@link #cellPlayer} or {@link #cellBunker}
+     * @return Index of the cell
+     * @throws IndexOutOfBoundsException if the cell is outside the field or already has an entity of the kind
+     */
+    private int checkedFreeCell(int x, int y, int[] cells) {
+        int cell = checkedCell(x, y);
+        if (cells[cell] != 0) throw new IndexOutOfBoundsException("Cell already occupied");
+        return cell;
+    }
+
+    /**
+     * Checks a team index read from a saved state
+     * @param team Index of the team
+     * @return The index of the team
+     * @throws IndexOutOfBoundsException if the team is not in the game
+     */
+    private int checkedTeam(int team) {
+        if (team < 0 || team >= teamCount || !teamAlive[team])
+            throw new IndexOutOfBoundsException("Team not in the game");
+        return team;
+    }
+
+    /**
+     * Encodes names in UTF-8
+     * @param names The names
+     * @param count Amount of names to encode
+     * @return The encoded names
+     */
+    private static byte[][] encode(String[] names, int count) {
+        byte[][] bytes = new byte[count][];
+        for (int i = 0; i < count; i++) bytes[i] = names[i].getBytes(StandardCharsets.UTF_8);
+        return bytes;
+    }
+
+    /**
+     * Reads a name stored as its length followed by its UTF-8 bytes
+     * @param buffer Buffer positioned at the name
+     * @return The name
+     */
+    private static String decode(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Creates a copy of this state
+     * @return A new state equal to this one
+     */
+    public GameState copy() {
+        GameState target = new GameState();
+        copy(target);
+        return target;
+    }
+
+    /**
+     * Copies this state into the specified target, reusing its arrays when they are large enough<br>
+     * Takes time proportional to the size of the field plus the amount of entities
+     * @param target The state which will become equal to this one
+     */
+    public void copy(GameState target) {
+        int cells = width * height;
+        if (target.cellPlayer.length < cells) {
+            target.cellPlayer = new int[cells];
+            target.cellBunker = new int[cells];
+        }
+        target.width = width;
+        target.height = height;
+        System.arraycopy(cellPlayer, 0, target.cellPlayer, 0, cells);
+        System.arraycopy(cellBunker, 0, target.cellBunker, 0, cells);
+
+        target.ensurePlayers(playerSlots);
+        target.playerSlots = playerSlots;
+        target.deadPlayers = deadPlayers;
+        System.arraycopy(playerColor, 0, target.playerColor, 0, playerSlots);
+        System.arraycopy(playerX, 0, target.playerX, 0, playerSlots);
+        System.arraycopy(playerY, 0, target.playerY, 0, playerSlots);
+        System.arraycopy(playerTeam, 0, target.playerTeam, 0, playerSlots);
+
+        target.ensureBunkers(bunkerCount);
+        target.bunkerCount = bunkerCount;
+        target.bunkerNames = bunkerNames;
+        System.arraycopy(bunkerX, 0, target.bunkerX, 0, bunkerCount);
+        System.arraycopy(bunkerY, 0, target.bunkerY, 0, bunkerCount);
+        System.arraycopy(bunkerTreasury, 0, target.bunkerTreasury, 0, bunkerCount);
+        System.arraycopy(bunkerOwner, 0, target.bunkerOwner, 0, bunkerCount);
+        System.arraycopy(bunkerSeized, 0, target.bunkerSeized, 0, bunkerCount);
+        target.seizures = seizures;
+
+        if (target.teamPlayers.length < teamCount) {
+            target.teamPlayers = new int[teamCount];
+            target.teamBunkers = new int[teamCount];
+            target.teamAlive = new boolean[teamCount];
+        }
+        target.teamCount = teamCount;
+        target.teamNames = teamNames;
+        target.teamIds = teamIds;
+        System.arraycopy(teamPlayers, 0, target.teamPlayers, 0, teamCount);
+        System.arraycopy(teamBunkers, 0, target.teamBunkers, 0, teamCount);
+        System.arraycopy(teamAlive, 0, target.teamAlive, 0, teamCount);
+        target.aliveTeams = aliveTeams;
+
+        target.currentTeam = currentTeam;
+        target.inProgress = inProgress;
+        target.hash = hash;
+    }
+
+    /**
+     * Creates a player in a bunker on behalf of the current team and ends the turn,
+     * like {@link Game#createPlayer(PlayerColor, String)}
+     * @param color Color of the player
+     * @param bunker Index of the bunker
+     * @return The {@link CreateStatus} of the creation<br>
+     * {@code null} if the bunker doesn't belong to the current team
+     * @pre inProgress() && 0 <= bunker && bunker < bunkerCount()
+     */
+    public CreateStatus createPlayer(PlayerColor color, int bunker) {
+        CreateStatus status = null;
+        if (bunkerOwner[bunker] == currentTeam) {
+            int cell = cell(bunkerX[bunker], bunkerY[bunker]);
+            int cost = color.cost();
+            if (cellPlayer[cell] != 0) status = CreateStatus.OCCUPIED;
+            else if (cost > bunkerTreasury[bunker]) status = CreateStatus.NOT_ENOUGH_MONEY;
+            else {
+                hash ^= bunkerKey(bunker);
+                bunkerTreasury[bunker] -= cost;
+                hash ^= bunkerKey(bunker);
+                addPlayer(color, bunkerX[bunker], bunkerY[bunker], currentTeam);
+                status = CreateStatus.OK;
+            }
+        }
+        nextTurn();
+        return status;
+    }
+
+    /**
+     * Places a new player of a team directly on an empty cell, without paying for it
+     * and without ending the turn<br>
+     * Used to build positions, a game never places players this way
+     * @param color Color of the player
+     * @param x X coordinate of the cell
+     * @param y Y coordinate of the cell
+     * @param team Index of the player's team
+     * @return {@code true} if the player was placed,
+     * {@code false} if the cell is off the field or occupied, or the team is eliminated
+     * @pre 0 <= team && team < teamCount()
+     */
+    public boolean placePlayer(PlayerColor color, int x, int y, int team) {
+        if (x <= 0 || x > width || y <= 0 || y > height || !teamAlive[team]) return false;
+        if (cellPlayer[cell(x, y)] != 0) return false;
+        addPlayer(color, x, y, team);
+        return true;
+    }
+
+    /**
+     * Moves the player at the specified location in the specified directions and ends the turn,
+     * like {@link Game#movePlayerAt(int, int, game.data_structures.Array)}
+     * @param x X coordinate of the player
+     * @param y Y coordinate of the player
+     * @param directions Directions in which the player will attempt to move
+     * @return {@link GameStatus#INVALID_POSITION}, {@link GameStatus#NO_PLAYER}
+     * or {@link GameStatus#PLAYER_NOT_FROM_TEAM} if the move is not possible<br>
+     * {@link GameStatus#GAME_OVER} if the game has ended, otherwise {@link GameStatus#OK}
+     * @pre inProgress()
+     */
+    public GameStatus movePlayerAt(int x, int y, Direction... directions) {
+        GameStatus status = GameStatus.OK;
+        if (x <= 0 || x > width || y <= 0 || y > height) status = GameStatus.INVALID_POSITION;
+        else if (cellPlayer[cell(x, y)] == 0) status = GameStatus.NO_PLAYER;
+        else {
+            int player = cellPlayer[cell(x, y)] - 1;
+            if (playerTeam[player] != currentTeam) status = GameStatus.PLAYER_NOT_FROM_TEAM;
+            else {
+                int maxMoves = playerColor[player] == PlayerColor.RED.ordinal() ? 3 : 1;
+                if (directions.length >= 1 && directions.length <= maxMoves) {
+                    for (int i = 0; i < directions.length; i++) {
+                        if (moveDefault(player, directions[i]) == ActionStatus.PLAYER_ELIMINATED)
+                            break;
+                    }
+                }
+                removeEmptyTeams();
+                if (aliveTeams == 1) status = GameStatus.GAME_OVER;
+            }
+        }
+        endTurn(status);
+        return status;
+    }
+
+    /**
+     * Forces every player of the current team to attack the field and ends the turn,
+     * like {@link Game#playersAttack()}<br>
+     * Players attack in the order of their creation, players eliminated during the attack
+     * of a teammate don't attack
+     * @return {@link GameStatus#TEAM_ELIMINATED}, {@link GameStatus#GAME_OVER},
+     * {@link GameStatus#TEAM_ELIM_AND_GAME_OVER} or {@link GameStatus#OK}
+     * @pre inProgress()
+     */
+    public GameStatus playersAttack() {
+        int team = currentTeam, slots = playerSlots;
+        for (int player = 0; player < slots; player++) {
+            if (playerColor[player] == DEAD || playerTeam[player] != team) continue;
+            attack(player);
+        }
+        boolean eliminated = teamPlayers[team] + teamBunkers[team] == 0;
+        removeEmptyTeams();
+        GameStatus status = eliminated ? GameStatus.TEAM_ELIMINATED : GameStatus.OK;
+        if (aliveTeams == 1)
+            status = eliminated ? GameStatus.TEAM_ELIM_AND_GAME_OVER : GameStatus.GAME_OVER;
+        endTurn(status);
+        return status;
+    }
+
+    /**
+     * Performs the attack of a player, following the pattern of its color
+     * @param player Slot of the attacking player
+     * @return {@link ActionStatus#PLAYER_ELIMINATED} if the attacker was eliminated,
+     * otherwise {@link ActionStatus#SURVIVED}
+     */
+    private ActionStatus attack(int player) {
+        int x = playerX[player], y = playerY[player];
+        switch (COLORS[playerColor[player]]) {
+            case RED -> {
+                for (int cell = cell(x, y) + 1, row = y; row <= height; row++, cell += x - 1) {
+                    for (int column = row == y ? x + 1 : x; column <= width; column++, cell++) {
+                        if (attackCell(player, cell) == ActionStatus.PLAYER_ELIMINATED)
+                            return ActionStatus.PLAYER_ELIMINATED;
+                    }
+                }
+            }
+            case BLUE -> {
+                int rowStart = cell(1, y) - 1;
+                for (int targetX : attackTables().row(x)) {
+                    if (attackCell(player, rowStart + targetX) == ActionStatus.PLAYER_ELIMINATED)
+                        return ActionStatus.PLAYER_ELIMINATED;
+                }
+            }
+            case GREEN -> {
+                int[] offsets = attackTables().diagonals(x, y);
+                for (int i = 0; i < offsets.length; i += 2) {
+                    int cell = cell(x + offsets[i], y + offsets[i + 1]);
+                    if (attackCell(player, cell) == ActionStatus.PLAYER_ELIMINATED)
+                        return ActionStatus.PLAYER_ELIMINATED;
+                }
+            }
+        }
+        return ActionStatus.SURVIVED;
+    }
+
+    /**
+     * Moves a player one cell in the specified direction, like {@link Player#move}
+     * @param player Slot of the player
+     * @param dir Direction of the move
+     * @return Status of the move
+     */
+    private ActionStatus moveDefault(int player, Direction dir) {
+        int x = playerX[player], y = playerY[player];
+        switch (dir) {
+            case NORTH -> y--;
+            case SOUTH -> y++;
+            case EAST -> x++;
+            case WEST -> x--;
+            default -> { return ActionStatus.INVALID_DIRECTION; }
+        }
+        if (x <= 0 || x > width || y <= 0 || y > height) return ActionStatus.OFF_THE_MAP;
+        int target = cell(x, y), occupant = cellPlayer[target] - 1;
+        if (occupant >= 0 && playerTeam[occupant] == playerTeam[player])
+            return ActionStatus.POSITION_OCCUPIED;
+        ActionStatus status = attackCell(player, target);
+        if (status == ActionStatus.PLAYER_ELIMINATED) return status;
+        hash ^= playerKey(player);
+        cellPlayer[cell(playerX[player], playerY[player])] = 0;
+        cellPlayer[target] = player + 1;
+        playerX[player] = x;
+        playerY[player] = y;
+        hash ^= playerKey(player);
+        return status;
+    }
+
+    /**
+     * Performs an attack of a player on a cell, like {@link Player#attackCell(Field.Cell)}
+     * @param player Slot of the attacking player
+     * @param cell Index of the attacked cell
+     * @return Status of the attack
+     */
+    private ActionStatus attackCell(int player, int cell) {
+        int team = playerTeam[player], defender = cellPlayer[cell] - 1;
+        ActionStatus status = ActionStatus.NOTHING;
+        if (defender >= 0) {
+            if (playerTeam[defender] == team) return status;
+            if (!COLORS[playerColor[player]].beats(COLORS[playerColor[defender]])) {
+                removePlayer(player);
+                return ActionStatus.PLAYER_ELIMINATED;
+            }
+            removePlayer(defender);
+            status = ActionStatus.WON_FIGHT;
+        }
+        int bunker = cellBunker[cell] - 1;
+        if (bunker >= 0 && bunkerOwner[bunker] != team) {
+            if (bunkerOwner[bunker] != NO_OWNER) teamBunkers[bunkerOwner[bunker]]--;
+            hash ^= bunkerKey(bunker);
+            bunkerOwner[bunker] = team;
+            hash ^= bunkerKey(bunker);
+            bunkerSeized[bunker] = ++seizures;
+            teamBunkers[team]++;
+            status = status == ActionStatus.WON_FIGHT ?
+                ActionStatus.WON_AND_SEIZED : ActionStatus.BUNKER_SEIZED;
+        }
+        return status;
+    }
+
+    /**
+     * Adds a new player to the end of the player slots
+     * @param color Color of the player
+     * @param x X coordinate of the player
+     * @param y Y coordinate of the player
+     * @param team Index of the player's team
+     */
+    private void addPlayer(PlayerColor color, int x, int y, int team) {
+        if (playerSlots == playerColor.length) ensurePlayers(Math.max(MIN_PLAYERS, 2 * playerSlots));
+        int player = playerSlots++;
+        playerColor[player] = (byte) color.ordinal();
+        playerX[player] = x;
+        playerY[player] = y;
+        playerTeam[player] = team;
+        cellPlayer[cell(x, y)] = player + 1;
+        teamPlayers[team]++;
+        hash ^= playerKey(player);
+    }
+
+    /**
+     * Eliminates a player, leaving its slot empty until the end of the turn
+     * @param player Slot of the player
+     */
+    private void removePlayer(int player) {
+        hash ^= playerKey(player);
+        cellPlayer[cell(playerX[player], playerY[player])] = 0;
+        teamPlayers[playerTeam[player]]--;
+        playerColor[player] = DEAD;
+        deadPlayers++;
+    }
+
+    /**
+     * Removes the slots of eliminated players, preserving the order of the others
+     */
+    private void compactPlayers() {
+        int kept = 0;
+        for (int player = 0; player < playerSlots; player++) {
+            if (playerColor[player] == DEAD) continue;
+            playerColor[kept] = playerColor[player];
+            playerX[kept] = playerX[player];
+            playerY[kept] = playerY[player];
+            playerTeam[kept] = playerTeam[player];
+            cellPlayer[cell(playerX[kept], playerY[kept])] = kept + 1;
+            kept++;
+        }
+        playerSlots = kept;
+        deadPlayers = 0;
+    }
+
+    /**
+     * Marks teams without players and bunkers as eliminated
+     */
+    private void removeEmptyTeams() {
+        for (int t = 0; t < teamCount; t++) {
+            if (teamAlive[t] && teamPlayers[t] + teamBunkers[t] == 0) {
+                teamAlive[t] = false;
+                aliveTeams--;
+            }
+        }
+    }
+
+    /**
+     * Ends the turn of the current team, ending the game if the status indicates it
+     * @param status Status of the command that ended the turn
+     */
+    private void endTurn(GameStatus status) {
+        if (status == GameStatus.GAME_OVER || status == GameStatus.TEAM_ELIM_AND_GAME_OVER) {
+            inProgress = false;
+            return;
+        }
+        nextTurn();
+    }
+
+    /**
+     * Passes the turn to the next team still in the game and pays the bunkers,
+     * removing the slots of eliminated players like {@link PlayerTable#endTurn()}
+     */
+    private void nextTurn() {
+        if (deadPlayers > 0 && deadPlayers * DEAD_FRACTION >= playerSlots) compactPlayers();
+        hash ^= Zobrist.turn(teamIds[currentTeam]);
+        do currentTeam = (currentTeam + 1) % teamCount; while (!teamAlive[currentTeam]);
+        hash ^= Zobrist.turn(teamIds[currentTeam]);
+        for (int b = 0; b < bunkerCount; b++) {
+            hash ^= bunkerKey(b);
+            bunkerTreasury[b]++;
+            hash ^= bunkerKey(b);
+        }
+    }
+
+    /**
+     * Returns the Zobrist key of a player
+     * @param player Slot of the player
+     * @return The key of the player
+     */
+    private long playerKey(int player) {
+        return Zobrist.player(playerX[player], playerY[player], COLORS[playerColor[player]],
+            teamIds[playerTeam[player]]);
+    }
+
+    /**
+     * Returns the Zobrist key of a bunker
+     * @param bunker Index of the bunker
+     * @return The key of the bunker
+     */
+    private long bunkerKey(int bunker) {
+        int owner = bunkerOwner[bunker];
+        return Zobrist.building(bunkerX[bunker], bunkerY[bunker],
+            owner == NO_OWNER ? NO_OWNER : teamIds[owner], bunkerTreasury[bunker]);
+    }
+
+    /**
+     * Grows the player arrays to hold at least the specified amount of slots
+     * @param capacity Required amount of slots
+     */
+    private void ensurePlayers(int capacity) {
+        if (playerColor.length >= capacity) return;
+        playerColor = Arrays.copyOf(playerColor, capacity);
+        playerX = Arrays.copyOf(playerX, capacity);
+        playerY = Arrays.copyOf(playerY, capacity);
+        playerTeam = Arrays.copyOf(playerTeam, capacity);
+    }
+
+    /**
+     * Grows the bunker arrays to hold at least the specified amount of bunkers
+     * @param capacity Required amount of bunkers
+     */
+    private void ensureBunkers(int capacity) {
+        if (bunkerX.length >= capacity) return;
+        bunkerX = Arrays.copyOf(bunkerX, capacity);
+        bunkerY = Arrays.copyOf(bunkerY, capacity);
+        bunkerTreasury = Arrays.copyOf(bunkerTreasury, capacity);
+        bunkerOwner = Arrays.copyOf(bunkerOwner, capacity);
+        bunkerSeized = Arrays.copyOf(bunkerSeized, capacity);
+    }
+
+    /**
+     * Returns the attack orders of the field, creating them if the size of the field has changed
+     * @return Attack orders of the field
+     */
+    private AttackTables attackTables() {
+        if (attackTables == null || !attackTables.fits(width, height))
+            attackTables = new AttackTables(width, height);
+        return attackTables;
+    }
+
+    /**
+     * Converts coordinates to the index of a cell
+     * @param x X coordinate of the cell
+     * @param y Y coordinate of the cell
+     * @return Index of the cell
+     */
+    private int cell(int x, int y) {
+        return (y - 1) * width + (x - 1);
+    }
+
+    /**
+     * Returns width of the field
+     * @return Width of the field
+     */
+    public int width() {
+        return width;
+    }
+
+    /**
+     * Returns height of the field
+     * @return Height of the field
+     */
+    public int height() {
+        return height;
+    }
+
+    /**
+     * Check whether the game is in progress
+     * @return {@code true} if the game is in progress, {@code false} if it has ended
+     */
+    public boolean inProgress() {
+        return inProgress;
+    }
+
+    /**
+     * Returns the Zobrist hash of the state, equal to the {@link Game#hash()}
+     * of a game in the same state<br>
+     * Takes constant time, the hash is maintained incrementally
+     * @return The hash of the state, {@code 0} if the game has ended
+     */
+    public long hash() {
+        return inProgress ? hash : 0;
+    }
+
+    /**
+     * Returns index of the team that is currently making a move,
+     * or the winner if the game has ended
+     * @return Index of the current team
+     */
+    public int currentTeam() {
+        return currentTeam;
+    }
+
+    /**
+     * Returns the amount of player slots, some of which may belong to eliminated players
+     * @return The amount of player slots
+     */
+    public int playerSlots() {
+        return playerSlots;
+    }
+
+    /**
+     * Returns color of the player in the specified slot
+     * @param player Slot of the player
+     * @return Color of the player, {@code null} if the player was eliminated
+     */
+    public PlayerColor playerColor(int player) {
+        return playerColor[player] == DEAD ? null : COLORS[playerColor[player]];
+    }
+
+    /**
+     * Returns X coordinate of the player in the specified slot
+     * @param player Slot of the player
+     * @return X coordinate of the player
+     */
+    public int playerX(int player) {
+        return playerX[player];
+    }
+
+    /**
+     * Returns Y coordinate of the player in the specified slot
+     * @param player Slot of the player
+     * @return Y coordinate of the player
+     */
+    public int playerY(int player) {
+        return playerY[player];
+    }
+
+    /**
+     * Returns index of the team of the player in the specified slot
+     * @param player Slot of the player
+     * @return Index of the player's team
+     */
+    public int playerTeam(int player) {
+        return playerTeam[player];
+    }
+
+    /**
+     * Returns the amount of bunkers in the game
+     * @return The amount of bunkers in the game
+     */
+    public int bunkerCount() {
+        return bunkerCount;
+    }
+
+    /**
+     * Returns name of the specified bunker
+     * @param bunker Index of the bunker
+     * @return Name of the bunker
+     */
+    public String bunkerName(int bunker) {
+        return bunkerNames[bunker];
+    }
+
+    /**
+     * Returns X coordinate of the specified bunker
+     * @param bunker Index of the bunker
+     * @return X coordinate of the bunker
+     */
+    public int bunkerX(int bunker) {
+        return bunkerX[bunker];
+    }
+
+    /**
+     * Returns Y coordinate of the specified bunker
+     * @param bunker Index of the bunker
+     * @return Y coordinate of the bunker
+     */
+    public int bunkerY(int bunker) {
+        return bunkerY[bunker];
+    }
+
+    /**
+     * Returns the amount of money in the specified bunker
+     * @param bunker Index of the bunker
+     * @return The amount of money in the bunker
+     */
+    public int bunkerTreasury(int bunker) {
+        return bunkerTreasury[bunker];
+    }
+
+    /**
+     * Returns index of the team owning the specified bunker
+     * @param bunker Index of the bunker
+     * @return Index of the owner team, {@code -1} if the bunker has no owner
+     */
+    public int bunkerOwner(int bunker) {
+        return bunkerOwner[bunker];
+    }
+
+    /**
+     * Returns the seizure sequence number of the specified bunker,
+     * bunkers of a team are ordered by this number
+     * @param bunker Index of the bunker
+     * @return The seizure sequence number of the bunker
+     */
+    public long bunkerSeized(int bunker) {
+        return bunkerSeized[bunker];
+    }
+
+    /**
+     * Returns the amount of teams which were in the game when the state was captured
+     * @return The amount of teams
+     */
+    public int teamCount() {
+        return teamCount;
+    }
+
+    /**
+     * Returns name of the specified team
+     * @param team Index of the team
+     * @return Name of the team
+     */
+    public String teamName(int team) {
+        return teamNames[team];
+    }
+
+    /**
+     * Returns identifier of the specified team, see {@link Team#id()}
+     * @param team Index of the team
+     * @return Identifier of the team
+     */
+    public int teamId(int team) {
+        return teamIds[team];
+    }
+
+    /**
+     * Check whether the specified team is still in the game
+     * @param team Index of the team
+     * @return {@code true} if the team is still in the game, otherwise {@code false}
+     */
+    public boolean isTeamAlive(int team) {
+        return teamAlive[team];
+    }
+
+    /**
+     * Returns the amount of teams still in the game
+     * @return The amount of teams still in the game
+     */
+    public int aliveTeams() {
+        return aliveTeams;
+    }
+
+    /**
+     * Returns the amount of players of the specified team
+     * @param team Index of the team
+     * @return The amount of players of the team
+     */
+    public int teamPlayers(int team) {
+        return teamPlayers[team];
+    }
+
+    /**
+     * Returns the amount of bunkers of the specified team
+     * @param team Index of the team
+     * @return The amount of bunkers of the team
+     */
+    public int teamBunkers(int team) {
+        return teamBunkers[team];
+    }
+
+    /**
+     * Returns slot of the player located in the specified cell
+     * @param x X coordinate of the cell
+     * @param y Y coordinate of the cell
+     * @return Slot of the player, {@code -1} if the cell has no player
+     */
+    public int playerAt(int x, int y) {
+        return cellPlayer[cell(x, y)] - 1;
+    }
+
+    /**
+     * Returns index of the bunker located in the specified cell
+     * @param x X coordinate of the cell
+     * @param y Y coordinate of the cell
+     * @return Index of the bunker, {@code -1} if the cell has no bunker
+     */
+    public int bunkerAt(int x, int y) {
+        return cellBunker[cell(x, y)] - 1;
+    }
+}
@@ -0,0 +1,105 @@
+package game;
+
+import game.players.Player.PlayerColor;
+
+/**
+ * A snapshot of the cells which the players of every team could hit on their next attack,
+ * computed by {@link InfluenceMaps#snapshot(Team[])}<br>
+ * The colors of the players which could hit a cell are given as a set of bits,
+ * one per {@link PlayerColor}, see {@link #bit(PlayerColor)}
+ */
+public final class InfluenceMap {
+    /**
+     * Width and height of the field
+     */
+    private final int width, height;
+    /**
+     * Teams of the maps
+     */
+    private final Team[] teams;
+    /**
+     * Colors of the players of each team which could hit each cell, indexed row by row
+     */
+    private final byte[][] colors;
+
+    /**
+     * Constructs a snapshot of the maps of some teams
+     * @param width Width of the field
+     * @param height Height of the field
+     * @param teams Teams of the maps
+     * @param colors Colors of the players of each team which could hit each cell, indexed row by row
+     */
+    InfluenceMap(int width, int height, Team[] teams, byte[][] colors) {
+        this.width = width;
+        this.height = height;
+        this.teams = teams;
+        this.colors = colors;
+    }
+
+    /**
+     * Returns the bit of a color in the sets of colors
+     * @param color The color
+     * @return The bit of the color
+     */
+    public static int bit(PlayerColor color) {
+        return 1 << color.ordinal();
+    }
+
+    /**
+     * Returns width of the field
+     * @return Width of the field
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * Returns height of the field
+     * @return Height of the field
+     */
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Returns amount of teams of the maps
+     * @return Amount of teams of the maps
+     */
+    public int teamCount() {
+        return teams.length;
+    }
+
+    /**
+     * Returns a team of the maps
+     * @param team Index of the team, in the order of the teams of the game
+     * @return The team
+     */
+    public Team team(int team) {
+        return teams[team];
+    }
+
+    /**
+     * Returns the colors of the players of a team which could hit a cell
+     * @param team Index of the team, see {@link #team(int)}
+     * @param x Coordinate x of the cell
+     * @param y Coordinate y of the cell
+     * @return Bits of the colors, {@code 0} if no player of the team could hit the cell
+     */
+    public int colors(int team, int x, int y) {
+        return colors[team][(y - 1) * width + x - 1];
+    }
+
+    /**
+     * Returns the colors of the players of every other team which could hit a cell
+     * @param viewer The team threatened
+     * @param x Coordinate x of the cell
+     * @param y Coordinate y of the cell
+     * @return Bits of the colors, {@code 0} if no enemy player could hit the cell
+     */
+    public int threat(Team viewer, int x, int y) {
+        int threat = 0;
+        for (int team = 0; team < teams.length; team++)
+            if (teams[team] != viewer) threat |= colors(team, x, y);
+        return threat;
+    }
+}
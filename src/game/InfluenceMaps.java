@@ -0,0 +1,314 @@
+package game;
+
+import game.players.Player.PlayerColor;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntConsumer;
+
+/**
+ * Cells of a {@link Field} which the players of every team could hit on their next attack,
+ * by color, computed from counts of the players kept as they enter and leave cells<br>
+ * Every attack pattern depends on a few lines of the field: blue players hit the rest of their row
+ * and green players the rest of their diagonals, so counting the players of each row and each
+ * diagonal tells whether a cell is hit, without visiting the players. Red players hit the rest
+ * of their row to the right and every cell below and to the right of them, so a cell is hit
+ * when a red player of a row above is in its column or to the left of it, which is a prefix
+ * minimum of the leftmost red player of each row<br>
+ * The counts are updated in constant time when a player moves. The maps are computed by
+ * {@link #snapshot(Team[])} in two passes over bands of {@value #BAND_ROWS} rows: the first finds
+ * the leftmost red player of each band, the minimums of the bands above are accumulated between the
+ * passes, and the second fills the cells of each band. Both passes run on the
+ * {@link ForkJoinPool#commonPool()} for fields with at least {@value #PARALLEL_CELLS} cells<br>
+ * The counts must be updated by a single thread
+ */
+public final class InfluenceMaps {
+    /**
+     * Amount of rows of a band
+     */
+    private static final int BAND_ROWS = 64;
+    /**
+     * Minimum amount of cells of the fields whose maps are computed in parallel
+     */
+    private static final int PARALLEL_CELLS = 1 << 16;
+    /**
+     * Maximum amount of cells of a field with influence maps
+     */
+    private static final long MAX_CELLS = Integer.MAX_VALUE - 8;
+    /**
+     * Column of the leftmost red player of a row without red players
+     */
+    private static final int NONE = Integer.MAX_VALUE;
+    /**
+     * Initial capacity of the columns of the red players of a row
+     */
+    private static final int MIN_LENGTH = 4;
+    /**
+     * Bits of the colors in the maps, see {@link InfluenceMap#colors(int, int, int)}
+     */
+    private static final int RED = InfluenceMap.bit(PlayerColor.RED), GREEN = InfluenceMap.bit(PlayerColor.GREEN),
+        BLUE = InfluenceMap.bit(PlayerColor.BLUE);
+
+    /**
+     * Size of the field
+     */
+    private final int width, height;
+    /**
+     * Counts of the players of each team, by identifier, {@code null} for teams without players
+     */
+    private Counts[] counts = new Counts[0];
+
+    /**
+     * Constructs influence maps of a field without players
+     * @param width Width of the field
+     * @param height Height of the field
+     */
+    public InfluenceMaps(int width, int height) {
+        this.width = width;
+        this.height = height;
+    }
+
+    /**
+     * Check whether a field is small enough to have influence maps
+     * @param width Width of the field
+     * @param height Height of the field
+     * @return {@code true} if the cells of the field fit in an array, otherwise {@code false}
+     */
+    public static boolean fits(int width, int height) {
+        return (long) width * height <= MAX_CELLS;
+    }
+
+    /**
+     * Counts a player which has entered a cell
+     * @param team Identifier of the team of the player
+     * @param color Color of the player
+     * @param x Coordinate x of the cell
+     * @param y Coordinate y of the cell
+     */
+    public void add(int team, PlayerColor color, int x, int y) {
+        if (team >= counts.length) counts = Arrays.copyOf(counts, Math.max(team + 1, 2 * counts.length));
+        if (counts[team] == null) counts[team] = new Counts();
+        counts[team].add(color, x, y, 1);
+    }
+
+    /**
+     * Stops counting a player which has left a cell
+     * @param team Identifier of the team of the player
+     * @param color Color of the player
+     * @param x Coordinate x of the cell
+     * @param y Coordinate y of the cell
+     */
+    public void remove(int team, PlayerColor color, int x, int y) {
+        counts[team].add(color, x, y, -1);
+    }
+
+    /**
+     * Computes the maps of some teams
+     * @param teams The teams
+     * @return Colors of the players of each team which could hit each cell
+     */
+    public InfluenceMap snapshot(Team[] teams) {
+        Counts[] of = new Counts[teams.length];
+        byte[][] colors = new byte[teams.length][width * height];
+        for (int t = 0; t < teams.length; t++)
+            of[t] = teams[t].id() < counts.length ? counts[teams[t].id()] : null;
+        int bands = (height + BAND_ROWS - 1) / BAND_ROWS;
+        int[][] above = new int[teams.length][bands];
+        inBands(bands, band -> {
+            for (int t = 0; t < of.length; t++) if (of[t] != null) above[t][band] = of[t].leftmostRed(band);
+        });
+        for (int[] bandMins : above) {
+            int min = NONE;
+            for (int band = 0; band < bands; band++) {
+                int leftmost = bandMins[band];
+                bandMins[band] = min;
+                min = Math.min(min, leftmost);
+            }
+        }
+        inBands(bands, band -> {
+            for (int t = 0; t < of.length; t++) if (of[t] != null) of[t].fill(band, above[t][band], colors[t]);
+        });
+        return new InfluenceMap(width, height, teams, colors);
+    }
+
+    /**
+     * Runs a pass over every band, in parallel if the field is big enough
+     * @param bands Amount of bands
+     * @param pass Pass over a band, given its index
+     */
+    private void inBands(int bands, IntConsumer pass) {
+        Bands all = new Bands(pass, 0, bands);
+        if ((long) width * height >= PARALLEL_CELLS) ForkJoinPool.commonPool().invoke(all);
+        else all.compute();
+    }
+
+    /**
+     * Counts of the players of a team by row, by diagonal and by color
+     */
+    private final class Counts {
+        /**
+         * Amount of blue players of each row and sum of their columns,
+         * which is the column of the player when there's only one
+         */
+        private final int[] blue = new int[height], blueXs = new int[height];
+        /**
+         * Amount of green players of each diagonal from the top left to the bottom right,
+         * indexed by {@code x - y + height - 1}, and sum of their columns
+         */
+        private final int[] diagonal = new int[width + height - 1], diagonalXs = new int[width + height - 1];
+        /**
+         * Amount of green players of each diagonal from the top right to the bottom left,
+         * indexed by {@code x + y - 2}, and sum of their columns
+         */
+        private final int[] antiDiagonal = new int[width + height - 1], antiDiagonalXs = new int[width + height - 1];
+        /**
+         * Columns of the red players of each row, {@code null} for rows which never had one
+         */
+        private final int[][] reds = new int[height][];
+        /**
+         * Amount of red players of each row
+         */
+        private final int[] redCount = new int[height];
+        /**
+         * Column of the leftmost red player of each row, {@link #NONE} if there's none
+         */
+        private final int[] redMin = new int[height];
+
+        /**
+         * Constructs counts without players
+         */
+        private Counts() {
+            Arrays.fill(redMin, NONE);
+        }
+
+        /**
+         * Counts a player entering or leaving a cell
+         * @param color Color of the player
+         * @param x Coordinate x of the cell
+         * @param y Coordinate y of the cell
+         * @param delta {@code 1} if the player entered the cell, {@code -1} if it left it
+         */
+        private void add(PlayerColor color, int x, int y, int delta) {
+            switch (color) {
+                case RED -> {
+                    if (delta > 0) addRed(x, y - 1);
+                    else removeRed(x, y - 1);
+                }
+                case GREEN -> {
+                    diagonal[x - y + height - 1] += delta;
+                    diagonalXs[x - y + height - 1] += delta * x;
+                    antiDiagonal[x + y - 2] += delta;
+                    antiDiagonalXs[x + y - 2] += delta * x;
+                }
+                case BLUE -> {
+                    blue[y - 1] += delta;
+                    blueXs[y - 1] += delta * x;
+                }
+            }
+        }
+
+        /**
+         * Adds the column of a red player to its row
+         * @param x Column of the player
+         * @param row Index of the row
+         */
+        private void addRed(int x, int row) {
+            int[] columns = reds[row];
+            if (columns == null) columns = reds[row] = new int[MIN_LENGTH];
+            else if (redCount[row] == columns.length) columns = reds[row] = Arrays.copyOf(columns, 2 * columns.length);
+            columns[redCount[row]++] = x;
+            redMin[row] = Math.min(redMin[row], x);
+        }
+
+        /**
+         * Removes the column of a red player from its row, finding the leftmost one again if it was
+         * @param x Column of the player
+         * @param row Index of the row
+         */
+        private void removeRed(int x, int row) {
+            int[] columns = reds[row];
+            int last = --redCount[row];
+            for (int i = 0; i <= last; i++) {
+                if (columns[i] != x) continue;
+                columns[i] = columns[last];
+                break;
+            }
+            if (x != redMin[row]) return;
+            redMin[row] = NONE;
+            for (int i = 0; i < last; i++) redMin[row] = Math.min(redMin[row], columns[i]);
+        }
+
+        /**
+         * Returns the column of the leftmost red player of a band
+         * @param band Index of the band
+         * @return Column of the leftmost red player, {@link #NONE} if there's none
+         */
+        private int leftmostRed(int band) {
+            int min = NONE;
+            for (int row = band * BAND_ROWS; row < Math.min(height, (band + 1) * BAND_ROWS); row++)
+                min = Math.min(min, redMin[row]);
+            return min;
+        }
+
+        /**
+         * Fills the colors of the cells of a band
+         * @param band Index of the band
+         * @param above Column of the leftmost red player of the rows above the band
+         * @param colors Colors of the cells of the field, indexed row by row
+         */
+        private void fill(int band, int above, byte[] colors) {
+            for (int row = band * BAND_ROWS; row < Math.min(height, (band + 1) * BAND_ROWS); row++) {
+                int y = row + 1;
+                int redFrom = redMin[row] == NONE ? above : Math.min(above, redMin[row] + 1);
+                for (int x = 1; x <= width; x++) {
+                    int color = 0;
+                    if (x >= redFrom) color |= RED;
+                    if (isHit(blue[row], blueXs[row], x)) color |= BLUE;
+                    int d = x - y + height - 1, a = x + y - 2;
+                    if (isHit(diagonal[d], diagonalXs[d], x) || isHit(antiDiagonal[a], antiDiagonalXs[a], x))
+                        color |= GREEN;
+                    colors[row * width + x - 1] = (byte) color;
+                }
+                above = Math.min(above, redMin[row]);
+            }
+        }
+    }
+
+    /**
+     * Check whether a cell is hit by the players of a line, which don't hit their own cell
+     * @param players Amount of players of the line
+     * @param columns Sum of the columns of the players
+     * @param x Column of the cell
+     * @return {@code true} if a player of the line other than the one in the cell hits it,
+     * otherwise {@code false}
+     */
+    private static boolean isHit(int players, int columns, int x) {
+        return players > 1 || players == 1 && columns != x;
+    }
+
+    /**
+     * Task running a pass over a range of bands, split in halves until it's a single band
+     */
+    @SuppressWarnings("serial")
+    private static class Bands extends RecursiveAction {
+        private final IntConsumer pass;
+        private final int from, to;
+
+        Bands(IntConsumer pass, int from, int to) {
+            this.pass = pass;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > 1) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new Bands(pass, from, middle), new Bands(pass, middle, to));
+                return;
+            }
+            for (int band = from; band < to; band++) pass.accept(band);
+        }
+    }
+}
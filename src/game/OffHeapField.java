@@ -0,0 +1,292 @@
+package game;
+
+import game.players.Player;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * {@link Field} which keeps the occupancy of its cells outside the Java heap,
+ * meant for fields too big for {@link PaintballField}<br>
+ * Every cell is an {@code int} in a direct or memory-mapped buffer, holding the identifier
+ * of an occupied cell in an on-heap table, or {@code 0} if the cell is empty.
+ * Only occupied cells have a {@link Cell} object, created when the first entity arrives
+ * and dropped when the last one leaves, so the heap and the work of the garbage collector
+ * grow with the amount of entities and not with the size of the field<br>
+ * The buffers are split into chunks of {@value #CHUNK_CELLS} cells,
+ * so the field can have billions of cells<br>
+ * {@link #cellAt(int, int)} returns the cell holding the entities if the cell is occupied,
+ * otherwise a new empty cell which is not updated when an entity arrives, so the attacks and the
+ * paths read the cells with {@link #playerAt(int, int)} and {@link #buildingAt(int, int)} instead
+ */
+public class OffHeapField implements Field {
+    /**
+     * Amount of cells in a chunk, a power of two
+     */
+    private static final int CHUNK_CELLS = 1 << 28;
+    /**
+     * Initial capacity of the table of occupied cells
+     */
+    private static final int MIN_OCCUPIED = 16;
+
+    /**
+     * Width and height of the field
+     */
+    private final int width, height;
+    /**
+     * Identifier of the occupied cell of each cell, {@code 0} if the cell is empty
+     */
+    private final IntBuffer[] chunks;
+    /**
+     * Occupied cells by identifier, the identifier {@code 0} is never used
+     */
+    private Cell[] occupied = new Cell[MIN_OCCUPIED];
+    /**
+     * Identifiers of the occupied cells which were dropped, to be reused
+     */
+    private int[] freeIds = new int[MIN_OCCUPIED];
+    /**
+     * Amount of identifiers to be reused and amount of identifiers ever used
+     */
+    private int freeCount, usedIds;
+    /**
+     * Players located on the field
+     */
+    private final PlayerTable players = new PlayerTable(this);
+    /**
+     * Locations of the entities on the field
+     */
+    private final SpatialIndex index;
+    /**
+     * Zobrist hash of the entities on the field
+     */
+    private long hash;
+
+    /**
+     * Constructs a field stored in direct buffers, limited by the maximum direct memory of the JVM
+     * @param width Width of the field
+     * @param height Height of the field
+     */
+    public OffHeapField(int width, int height) {
+        this.width = width;
+        this.height = height;
+        index = new SpatialIndex(this, true);
+        chunks = new IntBuffer[chunkCount()];
+        for (int c = 0; c < chunks.length; c++) {
+            chunks[c] = ByteBuffer.allocateDirect(Integer.BYTES * chunkCells(c))
+                .order(ByteOrder.nativeOrder()).asIntBuffer();
+        }
+    }
+
+    /**
+     * Constructs a field stored in a memory-mapped file, limited only by the size of the disk<br>
+     * The file is truncated, the operating system writes the cells to it when memory is needed
+     * @param width Width of the field
+     * @param height Height of the field
+     * @param file The file, replaced if it exists
+     * @throws IOException if the file can't be created or mapped
+     */
+    public OffHeapField(int width, int height, Path file) throws IOException {
+        this.width = width;
+        this.height = height;
+        index = new SpatialIndex(this, true);
+        chunks = new IntBuffer[chunkCount()];
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+            StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            for (int c = 0; c < chunks.length; c++) {
+                chunks[c] = channel.map(FileChannel.MapMode.READ_WRITE, (long) Integer.BYTES * c * CHUNK_CELLS,
+                    (long) Integer.BYTES * chunkCells(c)).order(ByteOrder.nativeOrder()).asIntBuffer();
+            }
+        }
+    }
+
+    /**
+     * Returns amount of chunks needed by the cells of the field
+     * @return Amount of chunks
+     */
+    private int chunkCount() {
+        return (int) (((long) width * height + CHUNK_CELLS - 1) / CHUNK_CELLS);
+    }
+
+    /**
+     * Returns amount of cells of a chunk, the last chunk may be smaller
+     * @param chunk Index of the chunk
+     * @return Amount of cells of the chunk
+     */
+    private int chunkCells(int chunk) {
+        return (int) Math.min(CHUNK_CELLS, (long) width * height - (long) chunk * CHUNK_CELLS);
+    }
+
+    @Override
+    public int width() {
+        return width;
+    }
+
+    @Override
+    public int height() {
+        return height;
+    }
+
+    @Override
+    public PlayerTable players() {
+        return players;
+    }
+
+    @Override
+    public SpatialIndex index() {
+        return index;
+    }
+
+    @Override
+    public Cell setPlayerAt(Player player, int x, int y) {
+        Cell cell = occupy(x, y);
+        if (cell.player != 0) hash ^= Zobrist.player(cell.getPlayer(), x, y);
+        if (cell.player == 0 && player != null) index.addPlayer(x, y);
+        else if (cell.player != 0 && player == null) index.removePlayer(x, y);
+        cell.player = player == null ? 0 : player.slot() + 1;
+        cell.players = player == null ? null : player.table();
+        if (player != null) hash ^= Zobrist.player(player, x, y);
+        release(cell);
+        return cell;
+    }
+
+    @Override
+    public boolean removePlayerAt(int x, int y) {
+        int id = idAt(x, y);
+        if (id == 0 || occupied[id].player == 0) return false;
+        setPlayerAt(null, x, y);
+        return true;
+    }
+
+    @Override
+    public Cell setBuildingAt(Building building, int x, int y) {
+        Cell cell = occupy(x, y);
+        if (cell.building != null) hash ^= Zobrist.building(cell.building, x, y);
+        if (cell.building == null && building != null) index.addBuilding(x, y);
+        else if (cell.building != null && building == null) index.removeBuilding(x, y);
+        cell.building = building;
+        if (building != null) hash ^= Zobrist.building(building, x, y);
+        release(cell);
+        return cell;
+    }
+
+    @Override
+    public boolean removeBuildingAt(int x, int y) {
+        int id = idAt(x, y);
+        if (id == 0 || occupied[id].building == null) return false;
+        setBuildingAt(null, x, y);
+        return true;
+    }
+
+    @Override
+    public void rehashBuilding(Building building, Team oldTeam, int oldTreasury) {
+        int x = building.fieldLocation().getX(), y = building.fieldLocation().getY();
+        hash ^= Zobrist.building(x, y, Zobrist.id(oldTeam), oldTreasury);
+        hash ^= Zobrist.building(building, x, y);
+    }
+
+    @Override
+    public long hash() {
+        return hash;
+    }
+
+    @Override
+    public Cell cellAt(int x, int y) {
+        int id = idAt(x, y);
+        return id == 0 ? new Cell(x, y) : occupied[id];
+    }
+
+    @Override
+    public int playerAt(int x, int y) {
+        int id = idAt(x, y);
+        return id == 0 ? 0 : occupied[id].player;
+    }
+
+    @Override
+    public Building buildingAt(int x, int y) {
+        int id = idAt(x, y);
+        return id == 0 ? null : occupied[id].building;
+    }
+
+    @Override
+    public void owners(int y, int[] players, int[] buildings) {
+        for (int x = 1; x <= width; x++) {
+            int id = idAt(x, y);
+            Cell cell = occupied[id];
+            players[x - 1] =
+                id == 0 || cell.player == 0 ? Visibility.EMPTY : Visibility.owner(cell.players.team(cell.player - 1));
+            buildings[x - 1] =
+                id == 0 || cell.building == null ? Visibility.EMPTY : Visibility.owner(cell.building.team());
+        }
+    }
+
+    @Override
+    public Map map() {
+        return new Map(this);
+    }
+
+    @Override
+    public Map map(Team team) {
+        return new Map(this, team);
+    }
+
+    /**
+     * Returns identifier of the occupied cell at the specified location
+     * @param x Coordinate x of the location
+     * @param y Coordinate y of the location
+     * @return Identifier of the occupied cell, {@code 0} if the cell is empty
+     */
+    private int idAt(int x, int y) {
+        long index = (long) (y - 1) * width + (x - 1);
+        return chunks[(int) (index / CHUNK_CELLS)].get((int) (index % CHUNK_CELLS));
+    }
+
+    /**
+     * Sets identifier of the occupied cell at the specified location
+     * @param x Coordinate x of the location
+     * @param y Coordinate y of the location
+     * @param id Identifier of the occupied cell, {@code 0} if the cell is empty
+     */
+    private void setIdAt(int x, int y, int id) {
+        long index = (long) (y - 1) * width + (x - 1);
+        chunks[(int) (index / CHUNK_CELLS)].put((int) (index % CHUNK_CELLS), id);
+    }
+
+    /**
+     * Returns the occupied cell at the specified location, creating it if the cell is empty
+     * @param x Coordinate x of the location
+     * @param y Coordinate y of the location
+     * @return The occupied cell
+     */
+    private Cell occupy(int x, int y) {
+        int id = idAt(x, y);
+        if (id != 0) return occupied[id];
+        if (freeCount > 0) id = freeIds[--freeCount];
+        else {
+            id = ++usedIds;
+            if (id == occupied.length) occupied = Arrays.copyOf(occupied, 2 * occupied.length);
+        }
+        occupied[id] = new Cell(x, y);
+        setIdAt(x, y, id);
+        return occupied[id];
+    }
+
+    /**
+     * Drops an occupied cell if it has no entities left
+     * @param cell The cell
+     */
+    private void release(Cell cell) {
+        if (cell.player != 0 || cell.building != null) return;
+        int id = idAt(cell.x, cell.y);
+        occupied[id] = null;
+        setIdAt(cell.x, cell.y, 0);
+        if (freeCount == freeIds.length) freeIds = Arrays.copyOf(freeIds, 2 * freeIds.length);
+        freeIds[freeCount++] = id;
+    }
+}
@@ -0,0 +1,143 @@
+package game;
+
+import game.data_structures.Array;
+import game.players.Player.*;
+
+/**
+ * Order submitted by a {@link Team} for a simultaneous round,
+ * see {@link Game#submitOrder(Order)} and {@link Game#resolveRound()}<br>
+ * An order is one of the commands a team could issue during its own turn:
+ * creating a player, moving a player or attacking with all players
+ */
+public class Order {
+    /**
+     * {@link Team} which issued this order
+     */
+    private final Team team;
+    /**
+     * Kind of the order
+     */
+    private final Kind kind;
+    /**
+     * Color of the player to create, used by {@link Kind#CREATE}
+     */
+    private final PlayerColor color;
+    /**
+     * Name of the bunker where the player will be created, used by {@link Kind#CREATE}
+     */
+    private final String bunkerName;
+    /**
+     * Coordinates of the player to move, used by {@link Kind#MOVE}
+     */
+    private final int x, y;
+    /**
+     * Directions in which the player will move, used by {@link Kind#MOVE}
+     */
+    private final Array<Direction> directions;
+
+    private Order(Team team, Kind kind, PlayerColor color, String bunkerName,
+                  int x, int y, Array<Direction> directions) {
+        this.team = team;
+        this.kind = kind;
+        this.color = color;
+        this.bunkerName = bunkerName;
+        this.x = x;
+        this.y = y;
+        this.directions = directions;
+    }
+
+    /**
+     * Creates an order to recruit a player,
+     * resolved like {@link Game#createPlayer(PlayerColor, String)}
+     * @param team {@link Team} which issues the order
+     * @param color Color of the player to create
+     * @param bunkerName Name of the bunker where the player will be created
+     */
+    public Order(Team team, PlayerColor color, String bunkerName) {
+        this(team, Kind.CREATE, color, bunkerName, 0, 0, null);
+    }
+
+    /**
+     * Creates an order to move a player,
+     * resolved like {@link Game#movePlayerAt(int, int, Array)}
+     * @param team {@link Team} which issues the order
+     * @param x X coordinate of the player
+     * @param y Y coordinate of the player
+     * @param directions Directions in which the player will attempt to move
+     */
+    public Order(Team team, int x, int y, Array<Direction> directions) {
+        this(team, Kind.MOVE, null, null, x, y, directions);
+    }
+
+    /**
+     * Creates an order to attack with every player of the team,
+     * resolved like {@link Game#playersAttack()}
+     * @param team {@link Team} which issues the order
+     */
+    public Order(Team team) {
+        this(team, Kind.ATTACK, null, null, 0, 0, null);
+    }
+
+    /**
+     * Returns the {@link Team} which issued this order
+     * @return The {@link Team} which issued this order
+     */
+    public Team getTeam() {
+        return team;
+    }
+
+    /**
+     * Returns the kind of this order
+     * @return The kind of this order
+     */
+    public Kind getKind() {
+        return kind;
+    }
+
+    /**
+     * Returns the color of the player to create
+     * @return The color of the player to create
+     */
+    public PlayerColor getColor() {
+        return color;
+    }
+
+    /**
+     * Returns the name of the bunker where the player will be created
+     * @return The name of the bunker where the player will be created
+     */
+    public String getBunkerName() {
+        return bunkerName;
+    }
+
+    /**
+     * Returns X coordinate of the player to move
+     * @return X coordinate of the player to move
+     */
+    public int getX() {
+        return x;
+    }
+
+    /**
+     * Returns Y coordinate of the player to move
+     * @return Y coordinate of the player to move
+     */
+    public int getY() {
+        return y;
+    }
+
+    /**
+     * Returns the directions in which the player will move
+     * @return The directions in which the player will move
+     */
+    public Array<Direction> getDirections() {
+        return directions;
+    }
+
+    /**
+     * Kinds of orders a team can submit
+     */
+    public enum Kind {
+        CREATE, MOVE, ATTACK
+    }
+}
@@ -18,6 +18,23 @@ public class PaintballField implements Field {
      * 2D array of objects of the type Cell
      */
     private final Cell[][] cells;
+    /**
+     * Owner codes of the players and the buildings of each cell, see {@link Visibility#owner(Team)},
+     * indexed as {@code (y - 1) * width + (x - 1)}
+     */
+    private final int[] playerOwners, buildingOwners;
+    /**
+     * Players located on the field
+     */
+    private final PlayerTable players = new PlayerTable(this);
+    /**
+     * Locations of the entities on the field
+     */
+    private final SpatialIndex index;
+    /**
+     * Zobrist hash of the entities on the field
+     */
+    private long hash;
 
     /**
      * Constructs an object {@link PaintballField} with the given width and height
@@ -27,7 +44,10 @@ public class PaintballField implements Field {
     public PaintballField(int width, int height) {
         this.width = width;
         this.height = height;
+        index = new SpatialIndex(this, false);
         cells = new Cell[height][width];
+        playerOwners = new int[width * height];
+        buildingOwners = new int[width * height];
         for (int i = 0; i < height; i++)
             for (int j = 0; j < width; j++)
                 cells[i][j] = new Cell(j + 1, i + 1);
@@ -44,16 +64,32 @@ public class PaintballField implements Field {
         return height;
     }
 
+    @Override
+    public PlayerTable players() {
+        return players;
+    }
+
+    @Override
+    public SpatialIndex index() {
+        return index;
+    }
+
     @Override
     public Cell setPlayerAt(Player player, int x, int y) {
         Cell cell = cellAt(x, y);
-        cell.player = player;
+        if (cell.player != 0) hash ^= Zobrist.player(cell.getPlayer(), x, y);
+        if (cell.player == 0 && player != null) index.addPlayer(x, y);
+        else if (cell.player != 0 && player == null) index.removePlayer(x, y);
+        cell.player = player == null ? 0 : player.slot() + 1;
+        cell.players = player == null ? null : player.table();
+        playerOwners[(y - 1) * width + x - 1] = player == null ? Visibility.EMPTY : Visibility.owner(player.team());
+        if (player != null) hash ^= Zobrist.player(player, x, y);
         return cell;
     }
 
     @Override
     public boolean removePlayerAt(int x, int y) {
-        boolean removed = cellAt(x, y).player != null;
+        boolean removed = cellAt(x, y).player != 0;
         setPlayerAt(null, x, y);
         return removed;
     }
@@ -61,10 +97,35 @@ public class PaintballField implements Field {
     @Override
     public Cell setBuildingAt(Building building, int x, int y) {
         Cell cell = cellAt(x, y);
+        if (cell.building != null) hash ^= Zobrist.building(cell.building, x, y);
+        if (cell.building == null && building != null) index.addBuilding(x, y);
+        else if (cell.building != null && building == null) index.removeBuilding(x, y);
         cell.building = building;
+        buildingOwners[(y - 1) * width + x - 1] =
+            building == null ? Visibility.EMPTY : Visibility.owner(building.team());
+        if (building != null) hash ^= Zobrist.building(building, x, y);
         return cell;
     }
 
+    @Override
+    public void rehashBuilding(Building building, Team oldTeam, int oldTreasury) {
+        int x = building.fieldLocation().getX(), y = building.fieldLocation().getY();
+        hash ^= Zobrist.building(x, y, Zobrist.id(oldTeam), oldTreasury);
+        hash ^= Zobrist.building(building, x, y);
+        buildingOwners[(y - 1) * width + x - 1] = Visibility.owner(building.team());
+    }
+
+    @Override
+    public void owners(int y, int[] players, int[] buildings) {
+        System.arraycopy(playerOwners, (y - 1) * width, players, 0, width);
+        System.arraycopy(buildingOwners, (y - 1) * width, buildings, 0, width);
+    }
+
+    @Override
+    public long hash() {
+        return hash;
+    }
+
     @Override
     public boolean removeBuildingAt(int x, int y) {
         boolean removed = cellAt(x, y).building != null;
@@ -77,6 +138,16 @@ public class PaintballField implements Field {
         return cells[y - 1][x - 1];
     }
 
+    @Override
+    public int playerAt(int x, int y) {
+        return cells[y - 1][x - 1].player;
+    }
+
+    @Override
+    public Building buildingAt(int x, int y) {
+        return cells[y - 1][x - 1].building;
+    }
+
     @Override
     public Map map() {
         return new Map(this);
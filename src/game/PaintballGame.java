@@ -4,11 +4,52 @@ import game.data_structures.*;
 import game.players.*;
 import game.players.Player.*;
 import game.Building.CreateStatus;
+import game.metrics.*;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 /**
  * Class that represents a Paintball Game
  */
 public class PaintballGame implements Game {
+    /**
+     * Latencies of the operations of the game, see {@link Stats}
+     */
+    private static final Histogram CREATE_LATENCY = Stats.histogram("Game.createPlayer"),
+        MOVE_LATENCY = Stats.histogram("Game.movePlayerAt"),
+        ATTACK_LATENCY = Stats.histogram("Game.playersAttack"),
+        ROUND_LATENCY = Stats.histogram("Game.resolveRound");
+    /**
+     * Kinds of the spans recorded by the {@link Tracer}
+     */
+    private static final int CREATE_SPAN = Tracer.kind("create", null),
+        MOVE_SPAN = Tracer.kind("move", "steps"),
+        ATTACK_SPAN = Tracer.kind("attack", "players"),
+        PLAN_SPAN = Tracer.kind("attack planning", "players"),
+        PLAYER_ATTACK_SPAN = Tracer.kind("player attack", null),
+        CLEANUP_SPAN = Tracer.kind("remove empty teams", "teams"),
+        MAP_SPAN = Tracer.kind("map snapshot", null),
+        INFLUENCE_SPAN = Tracer.kind("influence maps", "teams"),
+        NEXT_TURN_SPAN = Tracer.kind("next turn", "buildings");
+    /**
+     * Amount of cells from which fields are stored off the heap in an {@link OffHeapField},
+     * set by the {@code paintball.field.offHeapCells} system property
+     */
+    private static final long OFF_HEAP_CELLS = Long.getLong("paintball.field.offHeapCells", 1L << 24);
+    /**
+     * File where the fields stored off the heap are mapped, set by the {@code paintball.field.offHeapFile}
+     * system property, {@code null} to keep them in direct buffers
+     */
+    private static final String OFF_HEAP_FILE = System.getProperty("paintball.field.offHeapFile");
+
     /**
      * Field of the game
      */
@@ -16,7 +57,7 @@ public class PaintballGame implements Game {
     /**
      * Array of all buildings in the game
      */
-    private Array<Building> allBuildings = new ArrayClass<>();
+    private Array<Building> allBuildings = new SegmentedArray<>();
     /**
      * Array of all teams of the game
      */
@@ -25,6 +66,15 @@ public class PaintballGame implements Game {
      * Index of the current team (team that turn is at the particular moment)
      */
     private int currentTeamIndex = 0;
+    /**
+     * Identifier of the next team to be added to the game
+     */
+    private int nextTeamId = 0;
+
+    /**
+     * Orders submitted for the current simultaneous round, indexed by the index of their team
+     */
+    private volatile AtomicReferenceArray<Order> roundOrders;
 
     /**
      * Indication of a game being in progress
@@ -44,10 +94,31 @@ public class PaintballGame implements Game {
     @Override
     public GameStatus setField(int width, int height) {
         if (width < 10 || height < 10) return GameStatus.INVALID_SIZE;
-        field = new PaintballField(width, height);
+        if (field != null) Metrics.fieldCells(-(long) field.width() * field.height());
+        field = newField(width, height);
+        Metrics.fieldCells((long) width * height);
         return GameStatus.OK;
     }
 
+    /**
+     * Creates the field of a game, off the heap if it has at least {@link #OFF_HEAP_CELLS} cells,
+     * mapped to {@link #OFF_HEAP_FILE} if it's set and can be mapped, otherwise in direct buffers
+     * @param width Width of the field
+     * @param height Height of the field
+     * @return The new field
+     */
+    private static Field newField(int width, int height) {
+        if ((long) width * height < OFF_HEAP_CELLS) return new PaintballField(width, height);
+        if (OFF_HEAP_FILE != null) {
+            try {
+                return new OffHeapField(width, height, Path.of(OFF_HEAP_FILE));
+            } catch (IOException e) {
+                return new OffHeapField(width, height);
+            }
+        }
+        return new OffHeapField(width, height);
+    }
+
     @Override
     public GameStatus addTeam(String teamName, String bunkerName){
         for (int i = 0; i < teams.size(); i++){
@@ -59,7 +130,7 @@ public class PaintballGame implements Game {
             Building bunker = allBuildings.get(i);
             if (bunker.team() != null) continue;
             if (bunker.name().equals(bunkerName)) {
-                Team team = new PaintballTeam(teamName);
+                Team team = new PaintballTeam(teamName, nextTeamId++, field.players());
                 team.addBuilding(bunker);
                 teams.insertLast(team);
                 return GameStatus.OK;
@@ -84,6 +155,47 @@ public class PaintballGame implements Game {
         return GameStatus.OK;
     }
 
+    @Override
+    public GameStatus[] addBuildings(int[] x, int[] y, int[] treasury, String[] buildingNames) {
+        GameStatus[] statuses = new GameStatus[buildingNames.length];
+        Set<String> names = new HashSet<>(2 * (allBuildings.size() + buildingNames.length));
+        for (int i = 0; i < allBuildings.size(); i++) names.add(allBuildings.get(i).name());
+        for (int i = 0; i < statuses.length; i++) {
+            if (x[i] <= 0 || x[i] > field.width() || y[i] <= 0 || y[i] > field.height() || treasury[i] <= 0 ||
+                field.cellAt(x[i], y[i]).hasBuilding() || !names.add(buildingNames[i])) {
+                statuses[i] = GameStatus.BUNKER_NOT_CREATED;
+                continue;
+            }
+            allBuildings.insertLast(new Bunker(field, buildingNames[i], x[i], y[i], treasury[i]));
+            statuses[i] = GameStatus.OK;
+        }
+        return statuses;
+    }
+
+    @Override
+    public GameStatus[] addTeams(String[] teamNames, String[] buildingNames) {
+        GameStatus[] statuses = new GameStatus[teamNames.length];
+        Set<String> names = new HashSet<>(2 * (teams.size() + teamNames.length));
+        for (int i = 0; i < teams.size(); i++) names.add(teams.get(i).name());
+        Map<String, Building> free = new HashMap<>(2 * allBuildings.size());
+        for (int i = 0; i < allBuildings.size(); i++) {
+            Building bunker = allBuildings.get(i);
+            if (bunker.team() == null) free.putIfAbsent(bunker.name(), bunker);
+        }
+        for (int i = 0; i < statuses.length; i++) {
+            if (names.contains(teamNames[i]) || !free.containsKey(buildingNames[i])) {
+                statuses[i] = GameStatus.TEAM_NOT_CREATED;
+                continue;
+            }
+            Team team = new PaintballTeam(teamNames[i], nextTeamId++, field.players());
+            team.addBuilding(free.remove(buildingNames[i]));
+            teams.insertLast(team);
+            names.add(teamNames[i]);
+            statuses[i] = GameStatus.OK;
+        }
+        return statuses;
+    }
+
     @Override
     public Team currentTeam() {
         return teams.get(currentTeamIndex);
@@ -101,29 +213,58 @@ public class PaintballGame implements Game {
 
     @Override
     public GameResponse<CreateStatus> createPlayer(PlayerColor color, String bunkerName) {
-        if (color == null) {
-            nextTurn();
-            return new GameResponse<>(GameStatus.INVALID_PLAYER_COLOR);
-        }
-        Building building = null;
-        for (int i = 0; i < allBuildings.size(); i++){
-            Building b = allBuildings.get(i);
-            if (b.name().equals(bunkerName)) {
-                building = b;
-                break;
-            }
-        }
-        if (building == null) {
-            nextTurn();
-            return new GameResponse<>(GameStatus.INVALID_BUNKER_NAME);
-        }
-        if (building.team() != this.currentTeam()){
-            nextTurn();
-            return new GameResponse<>(GameStatus.WRONG_TEAM_BUNKER);
-        }
-        CreateStatus status = building.createPlayer(color);
+        long start = Stats.start();
+        Tracer.begin(CREATE_SPAN);
+        GameResponse<CreateStatus> response = createPlayer(currentTeam(), color, bunkerName);
         nextTurn();
-        return new GameResponse<>(status);
+        Tracer.end();
+        Metrics.turn(Stats.stop(CREATE_LATENCY, start));
+        return response;
+    }
+
+    /**
+     * Creates a player on behalf of the specified {@link Team}, without ending the turn
+     * @param team {@link Team} which creates the player
+     * @param color color of the player
+     * @param bunkerName name of the bunker, where the player will be created
+     * @return {@link GameResponse} as described in {@link #createPlayer(PlayerColor, String)}
+     */
+    private GameResponse<CreateStatus> createPlayer(Team team, PlayerColor color, String bunkerName) {
+        CreateEvent event = new CreateEvent();
+        event.begin();
+        GameResponse<CreateStatus> response = createPlayerIn(team, color, bunkerName);
+        if (response.getResult() == CreateStatus.OK) Metrics.playersAlive(1);
+        if (event.shouldCommit()) {
+            event.team = team.name();
+            event.color = color == null ? null : color.name();
+            event.bunker = bunkerName;
+            event.status = response.getStatus() == GameStatus.OK ?
+                response.getResult().name() : response.getStatus().name();
+            event.commit();
+        }
+        return response;
+    }
+
+    /**
+     * Creates a player as described in {@link #createPlayer(Team, PlayerColor, String)}
+     * @param team {@link Team} which creates the player
+     * @param color color of the player
+     * @param bunkerName name of the bunker, where the player will be created
+     * @return {@link GameResponse} as described in {@link #createPlayer(PlayerColor, String)}
+     */
+    private GameResponse<CreateStatus> createPlayerIn(Team team, PlayerColor color,
+                                                      String bunkerName) {
+        if (color == null) return new GameResponse<>(GameStatus.INVALID_PLAYER_COLOR);
+        Building building = building(bunkerName);
+        if (building == null) return new GameResponse<>(GameStatus.INVALID_BUNKER_NAME);
+        if (building.team() != team) return new GameResponse<>(GameStatus.WRONG_TEAM_BUNKER);
+        return new GameResponse<>(building.createPlayer(color));
+    }
+
+    @Override
+    public long hash() {
+        if (!inProgress) return 0;
+        return field.hash() ^ Zobrist.turn(currentTeam().id());
     }
 
     @Override
@@ -134,32 +275,42 @@ public class PaintballGame implements Game {
     @Override
     public GameStatus start() {
         if (teams.size() < 2) return GameStatus.NOT_ENOUGH_TEAMS;
+        roundOrders = new AtomicReferenceArray<>(teams.size());
         inProgress = true;
+        Metrics.gamesActive(1);
         return GameStatus.OK;
     }
 
 
     @Override
     public void stop() {
+        if (field != null) Metrics.fieldCells(-(long) field.width() * field.height());
+        if (inProgress) {
+            Metrics.gamesActive(-1);
+            for (int i = 0; i < teams.size(); i++) Metrics.playersAlive(-teams.get(i).players().size());
+        }
         field = null;
         currentTeamIndex = 0;
-        allBuildings = new ArrayClass<>();
+        nextTeamId = 0;
+        allBuildings = new SegmentedArray<>();
         teams = new ArrayClass<>();
+        roundOrders = null;
         inProgress = false;
     }
 
     /**
      * Removes empty teams, called at the end of some methods where
-     * a team can undergo certain modifications
+     * a team can undergo certain modifications<br>
+     * The teams are removed in a single pass, moving the current team index back for every
+     * removed team up to the current one, so that the next turn goes to the team after it
      */
     private void removeEmptyTeams() {
-        for (int i = 0; i < teams.size(); i++) {
-            if (teams.get(i).isEmpty()) {
-                teams.removeAt(i);
-                i--;
-                if (i < currentTeamIndex) currentTeamIndex--;
-            }
-        }
+        Tracer.begin(CLEANUP_SPAN);
+        int current = currentTeamIndex;
+        teams.removeIf(Team::isEmpty, i -> {
+            if (i <= current) currentTeamIndex--;
+        });
+        Tracer.end(teams.size());
     }
 
     /**
@@ -181,59 +332,334 @@ public class PaintballGame implements Game {
      * Performs some actions at the end of each team's turn
      */
     private void nextTurn() {
+        Tracer.begin(NEXT_TURN_SPAN);
+        TurnEvent event = new TurnEvent();
+        event.begin();
+        if (event.shouldCommit() && currentTeamIndex < teams.size())
+            event.previousTeam = currentTeam().name();
         currentTeamIndex++;
         if (currentTeamIndex >= teams.size()) currentTeamIndex = 0;
         for (int i = 0; i < allBuildings.size(); i++) {
             allBuildings.get(i).endTurn();
         }
+        field.players().endTurn();
+        if (event.shouldCommit()) {
+            event.nextTeam = currentTeam().name();
+            event.teams = teams.size();
+            event.buildings = allBuildings.size();
+            event.commit();
+        }
+        Tracer.end(allBuildings.size());
+    }
+
+    /**
+     * Ends the turn after a move or an attack,
+     * stopping the game if the response indicates that it's over
+     * @param response Response of the move or the attack
+     */
+    private void endTurn(GameResponse<?> response) {
+        GameStatus status = response.getStatus();
+        if (status == GameStatus.GAME_OVER || status == GameStatus.TEAM_ELIM_AND_GAME_OVER) this.stop();
+        else nextTurn();
     }
 
     @Override
     public GameResponse<Iterator<Action>> movePlayerAt(int x, int y, Array<Direction> directions) {
-        if (x < 0 || x > field.width() || y < 0 || y > field.height()) {
-            nextTurn();
-            return new GameResponse<>(GameStatus.INVALID_POSITION);
-        }
-        Player player = field.cellAt(x, y).player;
-        if (player == null) {
-            nextTurn();
-            return new GameResponse<>(GameStatus.NO_PLAYER);
-        }
-        if (player.team() != this.currentTeam()) {
-            nextTurn();
-            return new GameResponse<>(GameStatus.PLAYER_NOT_FROM_TEAM);
+        long start = Stats.start();
+        Tracer.begin(MOVE_SPAN);
+        GameResponse<Iterator<Action>> response = movePlayerAt(currentTeam(), x, y, directions);
+        endTurn(response);
+        Tracer.end(directions.size());
+        Metrics.turn(Stats.stop(MOVE_LATENCY, start));
+        return response;
+    }
+
+    /**
+     * Moves a player on behalf of the specified {@link Team}, without ending the turn
+     * @param team {@link Team} which moves the player
+     * @param x X coordinate of the player
+     * @param y Y coordinate of the player
+     * @param directions Directions in which the player will attempt to move
+     * @return {@link GameResponse} as described in {@link #movePlayerAt(int, int, Array)}
+     */
+    private GameResponse<Iterator<Action>> movePlayerAt(Team team, int x, int y,
+                                                       Array<Direction> directions) {
+        MoveEvent event = new MoveEvent();
+        event.begin();
+        GameResponse<Iterator<Action>> response = movePlayerIn(team, x, y, directions);
+        if (event.shouldCommit()) {
+            event.team = team.name();
+            event.x = x;
+            event.y = y;
+            event.steps = directions.size();
+            event.status = response.getStatus().name();
+            event.commit();
         }
+        return response;
+    }
+
+    /**
+     * Moves a player as described in {@link #movePlayerAt(Team, int, int, Array)}
+     * @param team {@link Team} which moves the player
+     * @param x X coordinate of the player
+     * @param y Y coordinate of the player
+     * @param directions Directions in which the player will attempt to move
+     * @return {@link GameResponse} as described in {@link #movePlayerAt(int, int, Array)}
+     */
+    private GameResponse<Iterator<Action>> movePlayerIn(Team team, int x, int y,
+                                                       Array<Direction> directions) {
+        if (x < 0 || x > field.width() || y < 0 || y > field.height())
+            return new GameResponse<>(GameStatus.INVALID_POSITION);
+        Player player = field.cellAt(x, y).getPlayer();
+        if (player == null) return new GameResponse<>(GameStatus.NO_PLAYER);
+        if (player.team() != team) return new GameResponse<>(GameStatus.PLAYER_NOT_FROM_TEAM);
         Iterator<Action> actions = player.move(directions);
         removeEmptyTeams();
-        if (isGameOver()) {
-            Team winner = winner();
-            this.stop();
-            return new GameResponse<>(actions, GameStatus.GAME_OVER, winner);
-        }
-        nextTurn();
+        if (isGameOver()) return new GameResponse<>(actions, GameStatus.GAME_OVER, winner());
         return new GameResponse<>(actions);
     }
 
     @Override
     public GameResponse<Field.Map> playersAttack() {
+        long start = Stats.start();
+        Tracer.begin(ATTACK_SPAN);
+        int players = currentTeam().players().size();
+        GameResponse<Field.Map> response = playersAttack(currentTeam());
+        endTurn(response);
+        Tracer.end(players);
+        Metrics.turn(Stats.stop(ATTACK_LATENCY, start));
+        return response;
+    }
+
+    /**
+     * Attacks with every player of the specified {@link Team}, without ending the turn
+     * @param team {@link Team} which attacks
+     * @return {@link GameResponse} as described in {@link #playersAttack()}
+     */
+    private GameResponse<Field.Map> playersAttack(Team team) {
+        AttackEvent event = new AttackEvent();
+        event.begin();
+        int players = team.players().size();
+        long cellsAttacked = Stats.cellsAttacked(), eliminations = Stats.playersEliminated();
+        GameResponse<Field.Map> response = attackWith(team);
+        if (event.shouldCommit()) {
+            event.team = team.name();
+            event.players = players;
+            event.cellsAttacked = Stats.cellsAttacked() - cellsAttacked;
+            event.eliminations = Stats.playersEliminated() - eliminations;
+            event.status = response.getStatus().name();
+            event.commit();
+        }
+        return response;
+    }
+
+    /**
+     * Attacks with every player as described in {@link #playersAttack(Team)}<br>
+     * The targets of the players are planned before the first attack, in parallel
+     * for big teams, see {@link PlayerTable#plan(int[])}, and attacked in the order of the players
+     * @param team {@link Team} which attacks
+     * @return {@link GameResponse} as described in {@link #playersAttack()}
+     */
+    private GameResponse<Field.Map> attackWith(Team team) {
         GameStatus status = GameStatus.OK;
-        Iterator<Player> players = currentTeam().players();
-        while (players.hasNext()) {
-            players.next().attack();
+        PlayerTable players = field.players();
+        int[] attackers = players.attackers(team);
+        Tracer.begin(PLAN_SPAN);
+        int[][] targets = players.plan(attackers);
+        Tracer.end(attackers.length);
+        for (int i = 0; i < attackers.length; i++) {
+            if (!players.isAlive(attackers[i])) continue;
+            Tracer.begin(PLAYER_ATTACK_SPAN);
+            players.attack(attackers[i], targets[i]);
+            Tracer.end();
         }
-        Field.Map mapAfterAttack = map(this.currentTeam());
+        Tracer.begin(MAP_SPAN);
+        Field.Map mapAfterAttack = map(team);
+        Tracer.end();
 
-        if (currentTeam().isEmpty()) status = GameStatus.TEAM_ELIMINATED;
+        if (team.isEmpty()) status = GameStatus.TEAM_ELIMINATED;
         removeEmptyTeams();
-        if (!isGameOver()) {
-            nextTurn();
-            return new GameResponse<>(mapAfterAttack, status);
-        }
-        Team winner = winner();
-        this.stop();
+        if (!isGameOver()) return new GameResponse<>(mapAfterAttack, status);
         if (status == GameStatus.TEAM_ELIMINATED)
-            return new GameResponse<>(mapAfterAttack, GameStatus.TEAM_ELIM_AND_GAME_OVER, winner);
-        return new GameResponse<>(mapAfterAttack, GameStatus.GAME_OVER, winner);
+            return new GameResponse<>(mapAfterAttack, GameStatus.TEAM_ELIM_AND_GAME_OVER, winner());
+        return new GameResponse<>(mapAfterAttack, GameStatus.GAME_OVER, winner());
+    }
+
+    @Override
+    public GameStatus submitOrder(Order order) {
+        AtomicReferenceArray<Order> orders = roundOrders;
+        if (!inProgress || orders == null) return GameStatus.INVALID_ORDER;
+        int index = teams.searchIndexOf(order.getTeam());
+        if (index < 0 || index >= orders.length()) return GameStatus.INVALID_ORDER;
+        if (!orders.compareAndSet(index, null, order)) return GameStatus.INVALID_ORDER;
+        return GameStatus.OK;
+    }
+
+    @Override
+    public GameResponse<Iterator<GameResponse<?>>> resolveRound() {
+        long start = Stats.start();
+        GameResponse<Iterator<GameResponse<?>>> response = resolveOrders();
+        Stats.stop(ROUND_LATENCY, start);
+        return response;
+    }
+
+    /**
+     * Resolves the orders of the current simultaneous round
+     * @return {@link GameResponse} as described in {@link #resolveRound()}
+     */
+    private GameResponse<Iterator<GameResponse<?>>> resolveOrders() {
+        Array<GameResponse<?>> responses = new ArrayClass<>();
+        if (!inProgress) return new GameResponse<>(responses.iterator(), GameStatus.INVALID_ORDER);
+        AtomicReferenceArray<Order> orders = roundOrders;
+        Team current = currentTeam();
+        int resolved = 0;
+        for (int i = 0; i < orders.length(); i++) {
+            Order order = orders.get(i);
+            if (order == null) continue;
+            if (order.getTeam().isEmpty()) {
+                responses.insertLast(new GameResponse<>(GameStatus.TEAM_ELIMINATED));
+                continue;
+            }
+            GameResponse<?> response = resolveOrder(order);
+            responses.insertLast(response);
+            if (response.getStatus() == GameStatus.GAME_OVER ||
+                response.getStatus() == GameStatus.TEAM_ELIM_AND_GAME_OVER) {
+                this.stop();
+                return new GameResponse<>(responses.iterator(), GameStatus.GAME_OVER,
+                    response.getWinner());
+            }
+            resolved++;
+        }
+        if (current.isEmpty()) currentTeamIndex = (currentTeamIndex + 1) % teams.size();
+        roundOrders = new AtomicReferenceArray<>(teams.size());
+        for (int i = 0; i < allBuildings.size(); i++) {
+            allBuildings.get(i).endTurn(resolved);
+        }
+        field.players().endTurn();
+        return new GameResponse<>(responses.iterator());
+    }
+
+    /**
+     * Resolves a single order of a simultaneous round, without ending the turn
+     * @param order The order to resolve, of a team which hasn't been eliminated
+     * @return Response of the corresponding game method
+     */
+    private GameResponse<?> resolveOrder(Order order) {
+        Team team = order.getTeam();
+        return switch (order.getKind()) {
+            case CREATE -> createPlayer(team, order.getColor(), order.getBunkerName());
+            case MOVE -> movePlayerAt(team, order.getX(), order.getY(), order.getDirections());
+            case ATTACK -> playersAttack(team);
+        };
+    }
+
+    @Override
+    public void restore(GameState state) {
+        stop();
+        if (!state.inProgress()) return;
+        field = newField(state.width(), state.height());
+        Metrics.fieldCells((long) state.width() * state.height());
+        Building[] bunkers = new Building[state.bunkerCount()];
+        for (int b = 0; b < bunkers.length; b++) {
+            bunkers[b] = new Bunker(field, state.bunkerName(b), state.bunkerX(b), state.bunkerY(b),
+                state.bunkerTreasury(b));
+            allBuildings.insertLast(bunkers[b]);
+        }
+        Team[] stateTeams = new Team[state.teamCount()];
+        for (int t = 0; t < stateTeams.length; t++) {
+            if (!state.isTeamAlive(t)) continue;
+            if (t == state.currentTeam()) currentTeamIndex = teams.size();
+            stateTeams[t] = new PaintballTeam(state.teamName(t), state.teamId(t), field.players());
+            nextTeamId = Math.max(nextTeamId, state.teamId(t) + 1);
+            teams.insertLast(stateTeams[t]);
+        }
+        int owned = 0;
+        for (int b = 0; b < bunkers.length; b++) if (state.bunkerOwner(b) >= 0) owned++;
+        Integer[] seized = new Integer[owned];
+        for (int b = 0, i = 0; b < bunkers.length; b++) if (state.bunkerOwner(b) >= 0) seized[i++] = b;
+        Arrays.sort(seized, Comparator.comparingLong(state::bunkerSeized));
+        for (int b : seized) stateTeams[state.bunkerOwner(b)].addBuilding(bunkers[b]);
+        for (int p = 0; p < state.playerSlots(); p++) {
+            if (state.playerColor(p) == null) continue;
+            field.players().add(state.playerColor(p), stateTeams[state.playerTeam(p)],
+                state.playerX(p), state.playerY(p));
+            Metrics.playersAlive(1);
+        }
+        roundOrders = new AtomicReferenceArray<>(teams.size());
+        inProgress = true;
+        Metrics.gamesActive(1);
+    }
+
+    @Override
+    public GameResponse<SizedIterator<Player>> enemiesWithin(Team team, int x, int y, int radius) {
+        if (!isOnField(x, y)) return new GameResponse<>(GameStatus.INVALID_POSITION);
+        if (radius < 0) return new GameResponse<>(GameStatus.INVALID_RANGE);
+        return new GameResponse<>(field.index().enemiesWithin(team, x, y, radius).iterator());
+    }
+
+    @Override
+    public GameResponse<Building> nearestEnemyBunker(Team team, int x, int y) {
+        if (!isOnField(x, y)) return new GameResponse<>(GameStatus.INVALID_POSITION);
+        boolean enemyBunkers = false;
+        for (int i = 0; i < teams.size() && !enemyBunkers; i++)
+            enemyBunkers = teams.get(i) != team && teams.get(i).buildings().size() > 0;
+        if (!enemyBunkers) return new GameResponse<>(null, GameStatus.OK);
+        return new GameResponse<>(field.index().nearestEnemyBuilding(team, x, y));
+    }
+
+    @Override
+    public GameResponse<SizedIterator<Building>> bunkersIn(int x1, int y1, int x2, int y2) {
+        if (!isOnField(x1, y1) || !isOnField(x2, y2)) return new GameResponse<>(GameStatus.INVALID_POSITION);
+        return new GameResponse<>(field.index().buildingsIn(Math.min(x1, x2), Math.min(y1, y2),
+            Math.max(x1, x2), Math.max(y1, y2)).iterator());
+    }
+
+    @Override
+    public GameResponse<SizedIterator<Direction>> pathTo(int x, int y, String bunkerName) {
+        if (!isOnField(x, y)) return new GameResponse<>(GameStatus.INVALID_POSITION);
+        Player player = field.cellAt(x, y).getPlayer();
+        if (player == null) return new GameResponse<>(GameStatus.NO_PLAYER);
+        if (player.team() != currentTeam()) return new GameResponse<>(GameStatus.PLAYER_NOT_FROM_TEAM);
+        Building building = building(bunkerName);
+        if (building == null) return new GameResponse<>(GameStatus.INVALID_BUNKER_NAME);
+        if (!DistanceFields.fits(field.width(), field.height())) return new GameResponse<>(GameStatus.INVALID_SIZE);
+        Array<Direction> path = field.players().distanceFields().path(player.team().id(), x, y, building);
+        if (path == null) return new GameResponse<>(GameStatus.NO_PATH);
+        return new GameResponse<>(path.iterator());
+    }
+
+    @Override
+    public GameResponse<InfluenceMap> influence() {
+        if (!InfluenceMaps.fits(field.width(), field.height())) return new GameResponse<>(GameStatus.INVALID_SIZE);
+        Team[] all = new Team[teams.size()];
+        for (int i = 0; i < all.length; i++) all[i] = teams.get(i);
+        Tracer.begin(INFLUENCE_SPAN);
+        InfluenceMap influence = field.players().influenceMaps().snapshot(all);
+        Tracer.end(all.length);
+        return new GameResponse<>(influence);
+    }
+
+    /**
+     * Finds a building of the game by its name
+     * @param bunkerName Name of the building
+     * @return The building with the specified name, {@code null} if it doesn't exist
+     */
+    private Building building(String bunkerName) {
+        for (int i = 0; i < allBuildings.size(); i++) {
+            Building building = allBuildings.get(i);
+            if (building.name().equals(bunkerName)) return building;
+        }
+        return null;
+    }
+
+    /**
+     * Check whether a location is inside the field
+     * @param x X coordinate of the location
+     * @param y Y coordinate of the location
+     * @return {@code true} if the location is inside the field, otherwise {@code false}
+     */
+    private boolean isOnField(int x, int y) {
+        return x > 0 && x <= field.width() && y > 0 && y <= field.height();
     }
 
     @Override
@@ -12,9 +12,13 @@ public class PaintballTeam implements Team {
      */
     private final String name;
     /**
-     * Array of players of the team
+     * Identifier of the team
      */
-    private final Array<Player> players = new ArrayClass<>();
+    private final int id;
+    /**
+     * Table of the players of the field, where the players of the team are stored
+     */
+    private final PlayerTable players;
     /**
      * Array of buildings of the team
      */
@@ -23,31 +27,30 @@ public class PaintballTeam implements Team {
     /**
      * Constructs an object Team with the given name
      * @param name name of the team
+     * @param id identifier of the team, unique among the teams of its game
+     * @param players table of the players of the field of the game
      */
-    public PaintballTeam(String name) {
+    public PaintballTeam(String name, int id, PlayerTable players) {
         this.name = name;
+        this.id = id;
+        this.players = players;
     }
 
     @Override
     public boolean isEmpty() {
-        return players.size() + buildings.size() == 0;
+        return players.size(this) + buildings.size() == 0;
     }
 
     @Override
-    public String name() {
-        return name;
+    public int id() {
+        return id;
     }
 
     @Override
-    public void addPlayer(Player player) {
-        player.setTeam(this);
-        players.insertLast(player);
-    }
-    @Override
-    public void removePlayer(Player player) {
-        players.removeAt(players.searchIndexOf(player));
-        player.setTeam(null);
+    public String name() {
+        return name;
     }
+
     @Override
     public void addBuilding(Building building) {
         building.setTeam(this);
@@ -66,6 +69,6 @@ public class PaintballTeam implements Team {
 
     @Override
     public SizedIterator<Player> players() {
-        return players.iterator();
+        return players.players(this);
     }
 }
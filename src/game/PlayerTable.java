@@ -0,0 +1,698 @@
+package game;
+
+import game.data_structures.SizedIterator;
+import game.metrics.Metrics;
+import game.metrics.Stats;
+import game.metrics.Tracer;
+import game.players.Player;
+import game.players.Player.ActionStatus;
+import game.players.Player.PlayerColor;
+
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Players located on a {@link Field}, stored column by column in primitive arrays<br>
+ * Every player takes a slot with its color, coordinates, team identifier, alive flag
+ * and creation sequence number, so a player costs a few bytes instead of an object
+ * and attacks walk contiguous memory. {@link Player} objects are short-lived views of a slot,
+ * created when the players are listed or found in a {@link Field.Cell}<br>
+ * The rules of every color are implemented here and dispatched by a switch over the color,
+ * walking the attack orders kept by the {@link AttackTables} of the field. The cells with entities
+ * found by an attack are kept by the {@link AttackTargets} of the table, so the next attack
+ * of the player only visits them unless a player has entered or left its pattern.
+ * The shortest paths of the teams to the buildings are kept by the {@link DistanceFields}
+ * of the table, repaired as the players move, and the cells the players could hit on their next
+ * attack by its {@link InfluenceMaps}, counted as the players move<br>
+ * Players are kept in the order of their creation: eliminated players leave a dead slot,
+ * a tombstone which is skipped by the iterations, and the dead slots are only removed by
+ * {@link #endTurn()}, in a single pass, when at least a quarter of the slots are dead<br>
+ * The slots are therefore stable during a turn, an epoch of the table: iterating while
+ * thousands of players are eliminated needs neither copies nor shifting, and views of players
+ * only look up their slot again when the epoch has changed
+ */
+public final class PlayerTable {
+    /**
+     * Kind of the spans of attacked cells recorded by the {@link Tracer}
+     */
+    private static final int ATTACKED_CELLS_SPAN = Tracer.kind("attacked cells", "cells");
+    /**
+     * Initial capacity of the columns
+     */
+    private static final int MIN_PLAYERS = 16;
+    /**
+     * Inverse of the minimum fraction of dead slots removed at the end of a turn
+     */
+    private static final int DEAD_FRACTION = 4;
+    /**
+     * System property with the minimum amount of players planned in parallel,
+     * see {@link #plan(int[])}, {@code 0} to always plan them one after the other
+     */
+    public static final String PARALLEL_PROPERTY = "paintball.attack.parallelPlayers";
+    /**
+     * Minimum amount of players planned in parallel
+     */
+    private static final int PARALLEL_ATTACKERS = Integer.getInteger(PARALLEL_PROPERTY, 4);
+    /**
+     * Amount of planning tasks per thread of the pool, to balance patterns of different sizes
+     */
+    private static final int TASKS_PER_THREAD = 4;
+    /**
+     * Player colors indexed by their ordinal
+     */
+    private static final PlayerColor[] COLORS = PlayerColor.values();
+    /**
+     * Outcome of the fights, indexed by the ordinals of the attacker and the defender colors
+     */
+    private static final boolean[][] BEATS = new boolean[COLORS.length][COLORS.length];
+
+    static {
+        for (PlayerColor attacker : COLORS)
+            for (PlayerColor defender : COLORS)
+                BEATS[attacker.ordinal()][defender.ordinal()] = attacker.beats(defender);
+    }
+
+    /**
+     * Field where the players are located
+     */
+    private final Field field;
+    /**
+     * Attack orders of the field, created on the first attack
+     */
+    private AttackTables attackTables;
+    /**
+     * Cells with entities in the attack patterns of the players, created on the first attack
+     */
+    private AttackTargets attackTargets;
+    /**
+     * Distances of the players of each team to the buildings, created on the first path
+     */
+    private DistanceFields distanceFields;
+    /**
+     * Cells the players of each team could hit, created on the first snapshot
+     */
+    private InfluenceMaps influenceMaps;
+    /**
+     * Ordinal of the {@link PlayerColor} of each player
+     */
+    private byte[] colors = new byte[MIN_PLAYERS];
+    /**
+     * Coordinates and team identifier of each player
+     */
+    private int[] xs = new int[MIN_PLAYERS], ys = new int[MIN_PLAYERS], teams = new int[MIN_PLAYERS];
+    /**
+     * Whether each player is alive
+     */
+    private boolean[] alive = new boolean[MIN_PLAYERS];
+    /**
+     * Creation sequence number of each player, increasing with the slots
+     */
+    private long[] sequences = new long[MIN_PLAYERS];
+    /**
+     * Amount of used slots, including the dead ones
+     */
+    private int slots;
+    /**
+     * Amount of dead slots
+     */
+    private int dead;
+    /**
+     * Amount of times the dead slots have been removed, the slots only change between epochs
+     */
+    private int epoch;
+    /**
+     * Last used creation sequence number
+     */
+    private long sequence;
+    /**
+     * Teams by identifier
+     */
+    private Team[] teamsById = new Team[0];
+    /**
+     * Amount of players alive of each team, by identifier
+     */
+    private int[] teamSizes = new int[0];
+
+    /**
+     * Constructs an empty table
+     * @param field Field where the players will be located
+     */
+    public PlayerTable(Field field) {
+        this.field = field;
+    }
+
+    /**
+     * Creates a player and places it on the field
+     * @param color Color of the player
+     * @param team Team of the player
+     * @param x Coordinate x of the player
+     * @param y Coordinate y of the player
+     * @return View of the new player
+     */
+    public Player add(PlayerColor color, Team team, int x, int y) {
+        if (slots == colors.length) grow(Math.max(MIN_PLAYERS, 2 * slots));
+        int slot = slots++;
+        colors[slot] = (byte) color.ordinal();
+        xs[slot] = x;
+        ys[slot] = y;
+        teams[slot] = register(team);
+        alive[slot] = true;
+        sequences[slot] = ++sequence;
+        teamSizes[teams[slot]]++;
+        Player player = new Player(this, slot);
+        field.setPlayerAt(player, x, y);
+        changed(slot, x, y);
+        entered(slot);
+        return player;
+    }
+
+    /**
+     * Eliminates a player, removing it from the field and leaving its slot dead until the end of the turn
+     * @param slot Slot of the player
+     */
+    public void remove(int slot) {
+        field.removePlayerAt(xs[slot], ys[slot]);
+        changed(slot, xs[slot], ys[slot]);
+        left(slot);
+        alive[slot] = false;
+        teamSizes[teams[slot]]--;
+        dead++;
+    }
+
+    /**
+     * Moves a player to another cell, which must not have a player
+     * @param slot Slot of the player
+     * @param x Coordinate x of the new location
+     * @param y Coordinate y of the new location
+     */
+    public void move(int slot, int x, int y) {
+        field.removePlayerAt(xs[slot], ys[slot]);
+        changed(slot, xs[slot], ys[slot]);
+        changed(slot, x, y);
+        left(slot);
+        xs[slot] = x;
+        ys[slot] = y;
+        entered(slot);
+        field.setPlayerAt(new Player(this, slot), x, y);
+    }
+
+    /**
+     * Changes the team of a player
+     * @param slot Slot of the player
+     * @param team The new team
+     */
+    public void setTeam(int slot, Team team) {
+        field.removePlayerAt(xs[slot], ys[slot]);
+        changed(slot, xs[slot], ys[slot]);
+        left(slot);
+        teamSizes[teams[slot]]--;
+        teams[slot] = register(team);
+        teamSizes[teams[slot]]++;
+        field.setPlayerAt(new Player(this, slot), xs[slot], ys[slot]);
+        changed(slot, xs[slot], ys[slot]);
+        entered(slot);
+    }
+
+    /**
+     * Performs the attack of a player, following the pattern of its color
+     * @param slot Slot of the player
+     * @return {@link ActionStatus#PLAYER_ELIMINATED} if the attacker was eliminated,
+     * otherwise {@link ActionStatus#SURVIVED}
+     */
+    public ActionStatus attack(int slot) {
+        int[] targets = attackTargets().get(slot, xs[slot], ys[slot]);
+        if (targets == null) {
+            AttackTargets.Recorder recorder = attackTargets.recorder();
+            plan(slot, order(slot), recorder);
+            targets = attackTargets.keep(slot, recorder);
+        }
+        return attack(slot, targets);
+    }
+
+    /**
+     * Returns the slots of the players alive of a team, in the order of their creation
+     * @param team The team
+     * @return Slots of the players of the team
+     */
+    public int[] attackers(Team team) {
+        int[] attackers = new int[size(team)];
+        for (int slot = 0, i = 0; i < attackers.length; slot++)
+            if (alive[slot] && isOf(slot, team)) attackers[i++] = slot;
+        return attackers;
+    }
+
+    /**
+     * Plans the attacks of several players before any of them attacks, finding the cells
+     * with entities in their patterns, which are the only cells their attacks can change<br>
+     * Players without a kept list are planned on the {@link ForkJoinPool#commonPool()}
+     * when there are at least {@value #PARALLEL_PROPERTY} of them, otherwise one after the other.
+     * Planning only reads the field, so the plans are the ones a sequential attack would find:
+     * attacks only eliminate players and seize bunkers, so cells found empty stay empty
+     * while the players attack, and the other cells are checked again when they're attacked
+     * @param attackers Slots of the players alive
+     * @return Targets of every player, to be attacked by {@link #attack(int, int[])}
+     */
+    public int[][] plan(int[] attackers) {
+        int[][] targets = new int[attackers.length][];
+        int[] unplanned = new int[attackers.length];
+        int count = 0;
+        for (int i = 0; i < attackers.length; i++) {
+            int slot = attackers[i];
+            targets[i] = attackTargets().get(slot, xs[slot], ys[slot]);
+            if (targets[i] == null) unplanned[count++] = i;
+        }
+        if (count == 0) return targets;
+        int[][] orders = new int[count][];
+        AttackTargets.Recorder[] recorders = new AttackTargets.Recorder[count];
+        for (int i = 0; i < count; i++) {
+            orders[i] = order(attackers[unplanned[i]]);
+            recorders[i] = attackTargets.recorder();
+        }
+        Planning planning = new Planning(attackers, unplanned, orders, recorders, 0, count,
+            Math.max(1, count / (TASKS_PER_THREAD * ForkJoinPool.getCommonPoolParallelism())));
+        if (PARALLEL_ATTACKERS > 0 && count >= PARALLEL_ATTACKERS) ForkJoinPool.commonPool().invoke(planning);
+        else planning.compute();
+        for (int i = 0; i < count; i++)
+            targets[unplanned[i]] = attackTargets.keep(attackers[unplanned[i]], recorders[i]);
+        return targets;
+    }
+
+    /**
+     * Performs the attack of a player on the targets found by planning it,
+     * see {@link #plan(int[])}
+     * @param slot Slot of the player
+     * @param targets Position of the player followed by the coordinates of the cells,
+     * see {@link AttackTargets#get(int, int, int)}
+     * @return Status of the attack, see {@link #attack(int)}
+     */
+    public ActionStatus attack(int slot, int[] targets) {
+        for (int i = 2; i < targets.length; i += 2) {
+            if (attackCell(slot, targets[i], targets[i + 1]) == ActionStatus.PLAYER_ELIMINATED)
+                return ActionStatus.PLAYER_ELIMINATED;
+        }
+        return ActionStatus.SURVIVED;
+    }
+
+    /**
+     * Returns the attack order of a player, which must be read by a single thread
+     * @param slot Slot of the player
+     * @return Columns of a row for blue players, offsets of the diagonal cells for green players,
+     * {@code null} for red players, see {@link AttackTables}
+     */
+    private int[] order(int slot) {
+        return switch (COLORS[colors[slot]]) {
+            case RED -> null;
+            case GREEN -> attackTables().diagonals(xs[slot], ys[slot]);
+            case BLUE -> attackTables().row(xs[slot]);
+        };
+    }
+
+    /**
+     * Records the cells with entities in the pattern of a player, without changing anything
+     * @param slot Slot of the player
+     * @param order Attack order of the player, see {@link #order(int)}
+     * @param recorder Recorder of the attack
+     */
+    private void plan(int slot, int[] order, AttackTargets.Recorder recorder) {
+        int x = xs[slot], y = ys[slot];
+        recorder.begin(x, y);
+        switch (COLORS[colors[slot]]) {
+            case RED -> {
+                int width = field.width(), height = field.height();
+                for (int targetY = y; targetY <= height; targetY++)
+                    for (int targetX = targetY == y ? x + 1 : x; targetX <= width; targetX++)
+                        record(targetX, targetY, recorder);
+            }
+            case GREEN -> {
+                for (int i = 0; i < order.length; i += 2) record(x + order[i], y + order[i + 1], recorder);
+            }
+            case BLUE -> {
+                for (int targetX : order) record(targetX, y, recorder);
+            }
+        }
+    }
+
+    /**
+     * Records a cell of the pattern of a player
+     * @param x Coordinate x of the cell
+     * @param y Coordinate y of the cell
+     * @param recorder Recorder of the attack
+     */
+    private void record(int x, int y, AttackTargets.Recorder recorder) {
+        recorder.record(x, y, field.playerAt(x, y) != 0 || field.buildingAt(x, y) != null);
+    }
+
+    /**
+     * Returns the attack orders of the field, creating them on the first attack,
+     * when the size of the field is known
+     * @return Attack orders of the field
+     */
+    private AttackTables attackTables() {
+        if (attackTables == null) attackTables = new AttackTables(field.width(), field.height());
+        return attackTables;
+    }
+
+    /**
+     * Returns the cells with entities in the attack patterns, creating them on the first attack,
+     * when the size of the field is known
+     * @return Cells with entities in the attack patterns
+     */
+    private AttackTargets attackTargets() {
+        if (attackTargets == null) attackTargets = new AttackTargets(field.width(), field.height(), colors.length);
+        return attackTargets;
+    }
+
+    /**
+     * Returns the distances of the players to the buildings, creating them on the first path,
+     * see {@link DistanceFields#fits(int, int)}
+     * @return Distances of the players to the buildings
+     */
+    public DistanceFields distanceFields() {
+        if (distanceFields == null) distanceFields = new DistanceFields(field);
+        return distanceFields;
+    }
+
+    /**
+     * Returns the cells the players of each team could hit, counting the players alive
+     * on the first snapshot, see {@link InfluenceMaps#fits(int, int)}
+     * @return Cells the players of each team could hit
+     */
+    public InfluenceMaps influenceMaps() {
+        if (influenceMaps == null) {
+            influenceMaps = new InfluenceMaps(field.width(), field.height());
+            for (int slot = 0; slot < slots; slot++)
+                if (alive[slot]) entered(slot);
+        }
+        return influenceMaps;
+    }
+
+    /**
+     * Performs an attack of a player on a cell, see {@link Player#attackCell(Field.Cell)}
+     * @param slot Slot of the attacker
+     * @param x Coordinate x of the cell
+     * @param y Coordinate y of the cell
+     * @return Status of the attack, see {@link Player#attackCell(Field.Cell)}
+     */
+    public ActionStatus attackCell(int slot, int x, int y) {
+        Stats.cellAttacked();
+        Tracer.step(ATTACKED_CELLS_SPAN);
+        int player = field.playerAt(x, y);
+        ActionStatus status = ActionStatus.NOTHING;
+        if (player != 0) {
+            int defender = player - 1;
+            if (teams[defender] == teams[slot]) return status;
+            int loser = BEATS[colors[slot]][colors[defender]] ? defender : slot;
+            remove(loser);
+            Stats.playerEliminated();
+            Metrics.playersAlive(-1);
+            if (loser == slot) return ActionStatus.PLAYER_ELIMINATED;
+            status = ActionStatus.WON_FIGHT;
+        }
+        Building building = field.buildingAt(x, y);
+        Team team = teamsById[teams[slot]];
+        if (building != null && building.team() != team) {
+            if (building.team() != null) building.team().removeBuilding(building);
+            team.addBuilding(building);
+            status = status == ActionStatus.WON_FIGHT ?
+                ActionStatus.WON_AND_SEIZED : ActionStatus.BUNKER_SEIZED;
+        }
+        return status;
+    }
+
+    /**
+     * Check whether a player of a color wins a fight against a player of another color
+     * @param attacker Color of the attacking player
+     * @param defender Color of the defending player
+     * @return {@code true} if the attacker wins, otherwise {@code false}
+     */
+    public static boolean beats(PlayerColor attacker, PlayerColor defender) {
+        return BEATS[attacker.ordinal()][defender.ordinal()];
+    }
+
+    /**
+     * Ends the turn, removing the dead slots if at least a quarter of the slots are dead<br>
+     * Removing them starts a new epoch, where the slots of the players may have changed
+     */
+    public void endTurn() {
+        if (dead > 0 && dead * DEAD_FRACTION >= slots) compact();
+    }
+
+    /**
+     * Returns the current epoch, which changes every time the dead slots are removed
+     * @return The current epoch
+     */
+    public int epoch() {
+        return epoch;
+    }
+
+    /**
+     * Returns amount of used slots, including the dead ones
+     * @return Amount of used slots
+     */
+    public int slots() {
+        return slots;
+    }
+
+    /**
+     * Check whether a player is alive
+     * @param slot Slot of the player
+     * @return {@code true} if the player is alive, otherwise {@code false}
+     */
+    public boolean isAlive(int slot) {
+        return alive[slot];
+    }
+
+    /**
+     * Returns color of a player
+     * @param slot Slot of the player
+     * @return Color of the player
+     */
+    public PlayerColor color(int slot) {
+        return COLORS[colors[slot]];
+    }
+
+    /**
+     * Returns coordinate x of a player
+     * @param slot Slot of the player
+     * @return Coordinate x of the player
+     */
+    public int x(int slot) {
+        return xs[slot];
+    }
+
+    /**
+     * Returns coordinate y of a player
+     * @param slot Slot of the player
+     * @return Coordinate y of the player
+     */
+    public int y(int slot) {
+        return ys[slot];
+    }
+
+    /**
+     * Returns team of a player, also for dead players
+     * @param slot Slot of the player
+     * @return Team of the player
+     */
+    public Team team(int slot) {
+        return teamsById[teams[slot]];
+    }
+
+    /**
+     * Check whether a player belongs to a team
+     * @param slot Slot of the player
+     * @param team The team
+     * @return {@code true} if the player belongs to the team, otherwise {@code false}
+     */
+    public boolean isOf(int slot, Team team) {
+        return teams[slot] == team.id();
+    }
+
+    /**
+     * Returns creation sequence number of a player
+     * @param slot Slot of the player
+     * @return Creation sequence number of the player
+     */
+    public long sequence(int slot) {
+        return sequences[slot];
+    }
+
+    /**
+     * Returns the field where the players are located
+     * @return The field where the players are located
+     */
+    public Field field() {
+        return field;
+    }
+
+    /**
+     * Finds the slot of a player from its creation sequence number
+     * @param sequence Creation sequence number of the player
+     * @return Slot of the player, {@code -1} if its dead slot has been removed
+     */
+    public int find(long sequence) {
+        int slot = Arrays.binarySearch(sequences, 0, slots, sequence);
+        return slot < 0 ? -1 : slot;
+    }
+
+    /**
+     * Returns amount of players alive of a team
+     * @param team The team
+     * @return Amount of players alive of the team
+     */
+    public int size(Team team) {
+        return team.id() < teamSizes.length ? teamSizes[team.id()] : 0;
+    }
+
+    /**
+     * Returns an iterator over the players alive of a team, in the order of their creation<br>
+     * Players eliminated while iterating are skipped and players created while iterating
+     * aren't visited; the iterator fails if the turn ends while iterating, since it may move the slots
+     * @param team The team
+     * @return Iterator over views of the players of the team
+     */
+    public SizedIterator<Player> players(Team team) {
+        return new SizedIterator<>() {
+            private final int size = PlayerTable.this.size(team), end = slots, start = epoch;
+            private int next = advance(0);
+
+            private int advance(int slot) {
+                while (slot < end && (!alive[slot] || !isOf(slot, team))) slot++;
+                return slot;
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+
+            @Override
+            public boolean hasNext() {
+                next = advance(next);
+                return next < end;
+            }
+
+            @Override
+            public Player next() {
+                if (epoch != start) throw new ConcurrentModificationException();
+                if (!hasNext()) throw new NoSuchElementException();
+                return new Player(PlayerTable.this, next++);
+            }
+        };
+    }
+
+    /**
+     * Registers a team, so the players can refer to it by its identifier
+     * @param team The team
+     * @return Identifier of the team
+     */
+    private int register(Team team) {
+        int id = team.id();
+        if (id >= teamsById.length) {
+            teamsById = Arrays.copyOf(teamsById, Math.max(id + 1, 2 * teamsById.length));
+            teamSizes = Arrays.copyOf(teamSizes, teamsById.length);
+        }
+        teamsById[id] = team;
+        return id;
+    }
+
+    /**
+     * Drops the kept attack targets which depend on a cell and marks the cell in the distance fields
+     * of the team of a player, called when the player enters or leaves it
+     * @param slot Slot of the player
+     * @param x Coordinate x of the cell
+     * @param y Coordinate y of the cell
+     */
+    private void changed(int slot, int x, int y) {
+        if (attackTargets != null) attackTargets.changed(x, y);
+        if (distanceFields != null) distanceFields.changed(teams[slot], x, y);
+    }
+
+    /**
+     * Counts a player in the influence maps after it has entered its cell
+     * @param slot Slot of the player
+     */
+    private void entered(int slot) {
+        if (influenceMaps != null) influenceMaps.add(teams[slot], COLORS[colors[slot]], xs[slot], ys[slot]);
+    }
+
+    /**
+     * Stops counting a player in the influence maps before it leaves its cell
+     * @param slot Slot of the player
+     */
+    private void left(int slot) {
+        if (influenceMaps != null) influenceMaps.remove(teams[slot], COLORS[colors[slot]], xs[slot], ys[slot]);
+    }
+
+    /**
+     * Grows the columns to hold at least the specified amount of slots
+     * @param capacity Required amount of slots
+     */
+    private void grow(int capacity) {
+        colors = Arrays.copyOf(colors, capacity);
+        xs = Arrays.copyOf(xs, capacity);
+        ys = Arrays.copyOf(ys, capacity);
+        teams = Arrays.copyOf(teams, capacity);
+        alive = Arrays.copyOf(alive, capacity);
+        sequences = Arrays.copyOf(sequences, capacity);
+    }
+
+    /**
+     * Removes the dead slots, preserving the order of the players alive
+     * and updating the slots referenced by the cells, and starts a new epoch
+     */
+    private void compact() {
+        int kept = 0;
+        for (int slot = 0; slot < slots; slot++) {
+            if (!alive[slot]) continue;
+            colors[kept] = colors[slot];
+            xs[kept] = xs[slot];
+            ys[kept] = ys[slot];
+            teams[kept] = teams[slot];
+            alive[kept] = true;
+            sequences[kept] = sequences[slot];
+            field.cellAt(xs[kept], ys[kept]).player = kept + 1;
+            kept++;
+        }
+        slots = kept;
+        dead = 0;
+        epoch++;
+        if (attackTargets != null) attackTargets.clear();
+    }
+
+    /**
+     * Task planning the attacks of a range of players, split in halves until it's small enough
+     */
+    @SuppressWarnings("serial")
+    private class Planning extends RecursiveAction {
+        private final int[] attackers, unplanned;
+        private final int[][] orders;
+        private final AttackTargets.Recorder[] recorders;
+        private final int from, to, threshold;
+
+        Planning(int[] attackers, int[] unplanned, int[][] orders, AttackTargets.Recorder[] recorders,
+                 int from, int to, int threshold) {
+            this.attackers = attackers;
+            this.unplanned = unplanned;
+            this.orders = orders;
+            this.recorders = recorders;
+            this.from = from;
+            this.to = to;
+            this.threshold = threshold;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > threshold) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new Planning(attackers, unplanned, orders, recorders, from, middle, threshold),
+                    new Planning(attackers, unplanned, orders, recorders, middle, to, threshold));
+                return;
+            }
+            for (int i = from; i < to; i++) plan(attackers[unplanned[i]], orders[i], recorders[i]);
+        }
+    }
+}
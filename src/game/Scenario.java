@@ -0,0 +1,201 @@
+package game;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Setup of a new game: the size of the field, the bunkers and the teams,
+ * stored column by column so huge setups can be read without parsing text<br>
+ * A scenario file starts with a header (format, version, field size and amounts of bunkers and teams),
+ * followed by the columns of the bunkers (every X coordinate, then every Y coordinate,
+ * every treasury and every name) and the columns of the teams (every name, then every bunker name)<br>
+ * Names are stored in modified UTF-8, as written by {@link DataOutput#writeUTF(String)}<br>
+ * The scenario is not validated, invalid bunkers and teams are rejected by
+ * {@link Game#addBuildings(int[], int[], int[], String[])} and {@link Game#addTeams(String[], String[])}
+ */
+public class Scenario {
+    /**
+     * First bytes of a scenario file ("PBSC") and version of the format written by {@link #write(Path)}
+     */
+    private static final int MAGIC = 0x50425343, VERSION = 1;
+    /**
+     * Size of the buffers of the scenario files
+     */
+    private static final int BUFFER = 1 << 16;
+
+    /**
+     * Width and height of the field
+     */
+    private final int width, height;
+    /**
+     * Coordinates and treasury of each bunker
+     */
+    private final int[] bunkerX, bunkerY, bunkerTreasury;
+    /**
+     * Names of the bunkers
+     */
+    private final String[] bunkerNames;
+    /**
+     * Names of the teams and of the bunker of each team
+     */
+    private final String[] teamNames, teamBunkers;
+
+    /**
+     * Constructs a scenario
+     * @param width Width of the field
+     * @param height Height of the field
+     * @param bunkerX Coordinates X of the bunkers
+     * @param bunkerY Coordinates Y of the bunkers
+     * @param bunkerTreasury Initial amounts of money in the bunkers
+     * @param bunkerNames Names of the bunkers
+     * @param teamNames Names of the teams
+     * @param teamBunkers Names of the bunkers of the teams
+     * @pre the bunker arrays have the same length, as do the team arrays
+     */
+    public Scenario(int width, int height, int[] bunkerX, int[] bunkerY, int[] bunkerTreasury,
+                    String[] bunkerNames, String[] teamNames, String[] teamBunkers) {
+        this.width = width;
+        this.height = height;
+        this.bunkerX = bunkerX;
+        this.bunkerY = bunkerY;
+        this.bunkerTreasury = bunkerTreasury;
+        this.bunkerNames = bunkerNames;
+        this.teamNames = teamNames;
+        this.teamBunkers = teamBunkers;
+    }
+
+    /**
+     * Reads a scenario written by {@link #write(Path)}
+     * @param file The file
+     * @return The scenario stored in the file
+     * @throws IOException if the file can't be read or doesn't hold a valid scenario
+     */
+    public static Scenario read(Path file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), BUFFER))) {
+            if (in.readInt() != MAGIC) throw new IOException("Not a scenario");
+            if (in.readInt() != VERSION) throw new IOException("Unsupported scenario version");
+            int width = in.readInt(), height = in.readInt(), bunkers = in.readInt(), teams = in.readInt();
+            if (bunkers < 0 || teams < 0) throw new IOException("Corrupted scenario");
+            int[] bunkerX = readInts(in, bunkers), bunkerY = readInts(in, bunkers),
+                bunkerTreasury = readInts(in, bunkers);
+            String[] bunkerNames = readStrings(in, bunkers);
+            String[] teamNames = readStrings(in, teams), teamBunkers = readStrings(in, teams);
+            return new Scenario(width, height, bunkerX, bunkerY, bunkerTreasury, bunkerNames, teamNames, teamBunkers);
+        } catch (EOFException e) {
+            throw new IOException("Corrupted scenario", e);
+        }
+    }
+
+    /**
+     * Writes this scenario to a file
+     * @param file The file, replaced if it exists
+     * @throws IOException if the file can't be written
+     */
+    public void write(Path file) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file), BUFFER))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(width);
+            out.writeInt(height);
+            out.writeInt(bunkerNames.length);
+            out.writeInt(teamNames.length);
+            for (int x : bunkerX) out.writeInt(x);
+            for (int y : bunkerY) out.writeInt(y);
+            for (int treasury : bunkerTreasury) out.writeInt(treasury);
+            for (String name : bunkerNames) out.writeUTF(name);
+            for (String name : teamNames) out.writeUTF(name);
+            for (String name : teamBunkers) out.writeUTF(name);
+        }
+    }
+
+    /**
+     * Reads a column of integers
+     * @param in The input
+     * @param count Amount of integers
+     * @return The integers
+     * @throws IOException if the column can't be read
+     */
+    private static int[] readInts(DataInputStream in, int count) throws IOException {
+        int[] column = new int[count];
+        for (int i = 0; i < count; i++) column[i] = in.readInt();
+        return column;
+    }
+
+    /**
+     * Reads a column of strings
+     * @param in The input
+     * @param count Amount of strings
+     * @return The strings
+     * @throws IOException if the column can't be read
+     */
+    private static String[] readStrings(DataInputStream in, int count) throws IOException {
+        String[] column = new String[count];
+        for (int i = 0; i < count; i++) column[i] = in.readUTF();
+        return column;
+    }
+
+    /**
+     * Returns width of the field
+     * @return Width of the field
+     */
+    public int width() {
+        return width;
+    }
+
+    /**
+     * Returns height of the field
+     * @return Height of the field
+     */
+    public int height() {
+        return height;
+    }
+
+    /**
+     * Returns coordinates X of the bunkers
+     * @return Coordinates X of the bunkers
+     */
+    public int[] bunkerX() {
+        return bunkerX;
+    }
+
+    /**
+     * Returns coordinates Y of the bunkers
+     * @return Coordinates Y of the bunkers
+     */
+    public int[] bunkerY() {
+        return bunkerY;
+    }
+
+    /**
+     * Returns initial amounts of money in the bunkers
+     * @return Initial amounts of money in the bunkers
+     */
+    public int[] bunkerTreasury() {
+        return bunkerTreasury;
+    }
+
+    /**
+     * Returns names of the bunkers
+     * @return Names of the bunkers
+     */
+    public String[] bunkerNames() {
+        return bunkerNames;
+    }
+
+    /**
+     * Returns names of the teams
+     * @return Names of the teams
+     */
+    public String[] teamNames() {
+        return teamNames;
+    }
+
+    /**
+     * Returns names of the bunkers of the teams
+     * @return Names of the bunkers of the teams
+     */
+    public String[] teamBunkers() {
+        return teamBunkers;
+    }
+}
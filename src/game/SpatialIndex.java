@@ -0,0 +1,505 @@
+package game;
+
+import game.data_structures.Array;
+import game.data_structures.ArrayClass;
+import game.players.Player;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Locations of the players and the buildings of a {@link Field}, grouped into square buckets
+ * with sides of {@value #BUCKET} cells<br>
+ * Every bucket keeps the offsets of its occupied cells, so area queries only visit the buckets
+ * overlapping the area and the entities inside them, instead of every cell of the field.
+ * The field updates the index when an entity enters or leaves a cell; the owners are read
+ * from the cells when answering a query, so seizing a building or converting a player
+ * doesn't change the index<br>
+ * A dense index keeps a directory of every bucket of the field, while a sparse index keeps only
+ * the occupied buckets in a hash map, so its memory grows with the entities and not with the area
+ * of the field, for fields stored off the heap. A sparse index visits the occupied buckets instead of
+ * the buckets of an area when there are fewer of them<br>
+ * Distances are measured in steps, as the sum of the horizontal and vertical distances,
+ * and the results are sorted by row, then by column
+ */
+public final class SpatialIndex {
+    /**
+     * Side of the buckets is {@code 2^BUCKET_BITS} cells
+     */
+    private static final int BUCKET_BITS = 4;
+    /**
+     * Side of the buckets
+     */
+    private static final int BUCKET = 1 << BUCKET_BITS;
+    /**
+     * Mask of the position of a cell inside its bucket
+     */
+    private static final int MASK = BUCKET - 1;
+    /**
+     * Initial capacity of the buckets and of the results
+     */
+    private static final int MIN_LENGTH = 4;
+
+    /**
+     * Field of the indexed entities
+     */
+    private final Field field;
+    /**
+     * Amount of buckets in a row and in a column of the field
+     */
+    private final int bucketsPerRow, bucketsPerColumn;
+    /**
+     * Buckets of the players and of the buildings
+     */
+    private final Buckets players, buildings;
+
+    /**
+     * Constructs an empty index of a field
+     * @param field The field
+     * @param sparse {@code true} to keep only the occupied buckets, otherwise {@code false}
+     * @pre sparse || the field has less than {@link Integer#MAX_VALUE} buckets
+     */
+    public SpatialIndex(Field field, boolean sparse) {
+        this.field = field;
+        bucketsPerRow = (field.width() + MASK) >> BUCKET_BITS;
+        bucketsPerColumn = (field.height() + MASK) >> BUCKET_BITS;
+        players = new Buckets((long) bucketsPerRow * bucketsPerColumn, sparse);
+        buildings = new Buckets((long) bucketsPerRow * bucketsPerColumn, sparse);
+    }
+
+    /**
+     * Indexes a player which has entered a cell without a player
+     * @param x Coordinate x of the cell
+     * @param y Coordinate y of the cell
+     */
+    public void addPlayer(int x, int y) {
+        players.add(bucket(x, y), offset(x, y));
+    }
+
+    /**
+     * Removes the player which has left a cell from the index
+     * @param x Coordinate x of the cell
+     * @param y Coordinate y of the cell
+     */
+    public void removePlayer(int x, int y) {
+        players.remove(bucket(x, y), offset(x, y));
+    }
+
+    /**
+     * Indexes a building which has been placed in a cell without a building
+     * @param x Coordinate x of the cell
+     * @param y Coordinate y of the cell
+     */
+    public void addBuilding(int x, int y) {
+        buildings.add(bucket(x, y), offset(x, y));
+    }
+
+    /**
+     * Removes the building of a cell from the index
+     * @param x Coordinate x of the cell
+     * @param y Coordinate y of the cell
+     */
+    public void removeBuilding(int x, int y) {
+        buildings.remove(bucket(x, y), offset(x, y));
+    }
+
+    /**
+     * Finds the players of other teams within a distance of a cell
+     * @param team The team whose enemies are searched, {@code null} to find every player
+     * @param x Coordinate x of the cell
+     * @param y Coordinate y of the cell
+     * @param radius Maximum distance in steps
+     * @return Players of other teams at most {@code radius} steps away, sorted by row and column
+     */
+    public Array<Player> enemiesWithin(Team team, int x, int y, int radius) {
+        Keys found = new Keys();
+        int fromX = Math.max(1, x - radius), toX = (int) Math.min(field.width(), (long) x + radius);
+        int fromY = Math.max(1, y - radius), toY = (int) Math.min(field.height(), (long) y + radius);
+        players.visit(fromX, fromY, toX, toY, (bx, by, bucket) -> {
+            for (int i = 0; i < bucket.count; i++) {
+                int cellX = cellX(bx, bucket.offsets[i]), cellY = cellY(by, bucket.offsets[i]);
+                if (distance(x, y, cellX, cellY) > radius) continue;
+                if (team != null && field.players().team(field.playerAt(cellX, cellY) - 1) == team) continue;
+                found.add(key(cellX, cellY));
+            }
+        });
+        found.sort();
+        Array<Player> enemies = new ArrayClass<>(Math.max(MIN_LENGTH, found.count));
+        for (int i = 0; i < found.count; i++)
+            enemies.insertLast(field.cellAt(keyX(found.keys[i]), keyY(found.keys[i])).getPlayer());
+        return enemies;
+    }
+
+    /**
+     * Finds the nearest building owned by another team, searching the buckets in rings
+     * around the cell until no bucket left can hold a nearer building<br>
+     * A sparse index stops searching the rings once it has looked up as many buckets as are occupied,
+     * and visits every occupied bucket instead
+     * @param team The team whose enemies are searched
+     * @param x Coordinate x of the cell
+     * @param y Coordinate y of the cell
+     * @return The nearest building owned by another team, the first by row and column
+     * among the equally near ones, {@code null} if there's none
+     */
+    public Building nearestEnemyBuilding(Team team, int x, int y) {
+        int centerX = (x - 1) >> BUCKET_BITS, centerY = (y - 1) >> BUCKET_BITS;
+        int rings = Math.max(Math.max(centerX, bucketsPerRow - 1 - centerX),
+            Math.max(centerY, bucketsPerColumn - 1 - centerY));
+        Nearest nearest = new Nearest(team, x, y);
+        long lookups = buildings.sparse() ? buildings.occupied() : Long.MAX_VALUE;
+        for (int ring = 0; ring <= rings; ring++) {
+            if (ring > 0 && nearest.bestDistance < (long) (ring - 1) * BUCKET + 1) break;
+            int fromY = Math.max(0, centerY - ring), toY = Math.min(bucketsPerColumn - 1, centerY + ring);
+            for (int by = fromY; by <= toY; by++) {
+                boolean edge = by == centerY - ring || by == centerY + ring;
+                int step = edge || ring == 0 ? 1 : 2 * ring;
+                for (int bx = centerX - ring; bx <= centerX + ring; bx += step) {
+                    if (bx < 0 || bx >= bucketsPerRow) continue;
+                    if (--lookups < 0) {
+                        buildings.visit(1, 1, field.width(), field.height(), nearest);
+                        return nearest.building();
+                    }
+                    Bucket bucket = buildings.get(index(bx, by));
+                    if (bucket != null) nearest.visit(bx, by, bucket);
+                }
+            }
+        }
+        return nearest.building();
+    }
+
+    /**
+     * Finds the buildings inside a rectangle of the field
+     * @param fromX Coordinate x of the left column of the rectangle
+     * @param fromY Coordinate y of the top row of the rectangle
+     * @param toX Coordinate x of the right column of the rectangle
+     * @param toY Coordinate y of the bottom row of the rectangle
+     * @return Buildings inside the rectangle, sorted by row and column
+     * @pre 1 <= fromX <= toX <= width and 1 <= fromY <= toY <= height
+     */
+    public Array<Building> buildingsIn(int fromX, int fromY, int toX, int toY) {
+        Keys found = new Keys();
+        buildings.visit(fromX, fromY, toX, toY, (bx, by, bucket) -> {
+            for (int i = 0; i < bucket.count; i++) {
+                int cellX = cellX(bx, bucket.offsets[i]), cellY = cellY(by, bucket.offsets[i]);
+                if (cellX < fromX || cellX > toX || cellY < fromY || cellY > toY) continue;
+                found.add(key(cellX, cellY));
+            }
+        });
+        found.sort();
+        Array<Building> inside = new ArrayClass<>(Math.max(MIN_LENGTH, found.count));
+        for (int i = 0; i < found.count; i++)
+            inside.insertLast(field.buildingAt(keyX(found.keys[i]), keyY(found.keys[i])));
+        return inside;
+    }
+
+    /**
+     * Returns the distance in steps between two cells
+     * @param x1 Coordinate x of the first cell
+     * @param y1 Coordinate y of the first cell
+     * @param x2 Coordinate x of the second cell
+     * @param y2 Coordinate y of the second cell
+     * @return Sum of the horizontal and vertical distances
+     */
+    public static long distance(int x1, int y1, int x2, int y2) {
+        return Math.abs((long) x1 - x2) + Math.abs((long) y1 - y2);
+    }
+
+    /**
+     * Returns the bucket of a cell
+     * @param x Coordinate x of the cell
+     * @param y Coordinate y of the cell
+     * @return Index of the bucket
+     */
+    private long bucket(int x, int y) {
+        return index((x - 1) >> BUCKET_BITS, (y - 1) >> BUCKET_BITS);
+    }
+
+    /**
+     * Returns index of a bucket, row by row
+     * @param bucketX Column of the bucket
+     * @param bucketY Row of the bucket
+     * @return Index of the bucket
+     */
+    private long index(int bucketX, int bucketY) {
+        return (long) bucketY * bucketsPerRow + bucketX;
+    }
+
+    /**
+     * Returns the offset of a cell inside its bucket
+     * @param x Coordinate x of the cell
+     * @param y Coordinate y of the cell
+     * @return Offset of the cell, row by row
+     */
+    private static short offset(int x, int y) {
+        return (short) (((y - 1) & MASK) << BUCKET_BITS | (x - 1) & MASK);
+    }
+
+    /**
+     * Returns coordinate x of a cell from its bucket and offset
+     * @param bucketX Column of the bucket
+     * @param offset Offset of the cell inside the bucket
+     * @return Coordinate x of the cell
+     */
+    private static int cellX(int bucketX, short offset) {
+        return (bucketX << BUCKET_BITS) + (offset & MASK) + 1;
+    }
+
+    /**
+     * Returns coordinate y of a cell from its bucket and offset
+     * @param bucketY Row of the bucket
+     * @param offset Offset of the cell inside the bucket
+     * @return Coordinate y of the cell
+     */
+    private static int cellY(int bucketY, short offset) {
+        return (bucketY << BUCKET_BITS) + (offset >> BUCKET_BITS) + 1;
+    }
+
+    /**
+     * Returns a key of a cell which sorts the cells by row and column
+     * @param x Coordinate x of the cell
+     * @param y Coordinate y of the cell
+     * @return Key of the cell
+     */
+    private static long key(int x, int y) {
+        return (long) y << 32 | x;
+    }
+
+    /**
+     * Returns coordinate x of the cell of a key, see {@link #key(int, int)}
+     * @param key The key
+     * @return Coordinate x of the cell
+     */
+    private static int keyX(long key) {
+        return (int) key;
+    }
+
+    /**
+     * Returns coordinate y of the cell of a key, see {@link #key(int, int)}
+     * @param key The key
+     * @return Coordinate y of the cell
+     */
+    private static int keyY(long key) {
+        return (int) (key >>> 32);
+    }
+
+    /**
+     * Receiver of the occupied buckets of an area, see {@link Buckets#visit(int, int, int, int, Visitor)}
+     */
+    private interface Visitor {
+        /**
+         * Receives an occupied bucket
+         * @param bucketX Column of the bucket
+         * @param bucketY Row of the bucket
+         * @param bucket The bucket
+         */
+        void visit(int bucketX, int bucketY, Bucket bucket);
+    }
+
+    /**
+     * Keys of the cells found by a query, see {@link #key(int, int)}
+     */
+    private static final class Keys {
+        /**
+         * The keys, in the order they were found
+         */
+        private long[] keys = new long[MIN_LENGTH];
+        /**
+         * Amount of keys
+         */
+        private int count;
+
+        /**
+         * Adds a key
+         * @param key The key
+         */
+        private void add(long key) {
+            if (count == keys.length) keys = Arrays.copyOf(keys, 2 * count);
+            keys[count++] = key;
+        }
+
+        /**
+         * Sorts the keys, so the cells are sorted by row and column
+         */
+        private void sort() {
+            Arrays.sort(keys, 0, count);
+        }
+    }
+
+    /**
+     * Nearest building owned by another team among the buildings of the visited buckets,
+     * the first by row and column among the equally near ones
+     */
+    private final class Nearest implements Visitor {
+        /**
+         * The team whose enemies are searched
+         */
+        private final Team team;
+        /**
+         * Coordinates of the cell the distances are measured from
+         */
+        private final int x, y;
+        /**
+         * Key of the nearest building found, {@code -1} if none, and its distance
+         */
+        private long best = -1, bestDistance = Long.MAX_VALUE;
+
+        /**
+         * Constructs a search with no building found
+         * @param team The team whose enemies are searched
+         * @param x Coordinate x of the cell
+         * @param y Coordinate y of the cell
+         */
+        private Nearest(Team team, int x, int y) {
+            this.team = team;
+            this.x = x;
+            this.y = y;
+        }
+
+        @Override
+        public void visit(int bucketX, int bucketY, Bucket bucket) {
+            for (int i = 0; i < bucket.count; i++) {
+                int cellX = cellX(bucketX, bucket.offsets[i]), cellY = cellY(bucketY, bucket.offsets[i]);
+                long distance = distance(x, y, cellX, cellY), key = key(cellX, cellY);
+                if (distance > bestDistance || distance == bestDistance && key > best) continue;
+                Team owner = field.buildingAt(cellX, cellY).team();
+                if (owner == null || owner == team) continue;
+                best = key;
+                bestDistance = distance;
+            }
+        }
+
+        /**
+         * Returns the nearest building found
+         * @return The building, {@code null} if none
+         */
+        private Building building() {
+            return best < 0 ? null : field.buildingAt(keyX(best), keyY(best));
+        }
+    }
+
+    /**
+     * Offsets of the occupied cells of a bucket, in no particular order
+     */
+    private static final class Bucket {
+        /**
+         * Offsets of the cells
+         */
+        private short[] offsets = new short[MIN_LENGTH];
+        /**
+         * Amount of cells
+         */
+        private int count;
+    }
+
+    /**
+     * Buckets of the entities of one kind, in a directory of every bucket or in a map of the occupied ones
+     */
+    private final class Buckets {
+        /**
+         * Buckets by index, with {@code null} for buckets which were never occupied, {@code null} if sparse
+         */
+        private final Bucket[] dense;
+        /**
+         * Occupied buckets by index, {@code null} if dense
+         */
+        private final Map<Long, Bucket> sparse;
+
+        /**
+         * Constructs empty buckets
+         * @param buckets Amount of buckets
+         * @param sparse {@code true} to keep only the occupied buckets, otherwise {@code false}
+         */
+        private Buckets(long buckets, boolean sparse) {
+            this.dense = sparse ? null : new Bucket[(int) buckets];
+            this.sparse = sparse ? new HashMap<>() : null;
+        }
+
+        /**
+         * Check whether only the occupied buckets are kept
+         * @return {@code true} if the buckets are sparse, otherwise {@code false}
+         */
+        private boolean sparse() {
+            return sparse != null;
+        }
+
+        /**
+         * Returns amount of occupied buckets of sparse buckets
+         * @return Amount of occupied buckets
+         */
+        private int occupied() {
+            return sparse.size();
+        }
+
+        /**
+         * Returns a bucket
+         * @param index Index of the bucket
+         * @return The bucket, {@code null} if it has no cells
+         */
+        private Bucket get(long index) {
+            return sparse != null ? sparse.get(index) : dense[(int) index];
+        }
+
+        /**
+         * Adds a cell to a bucket
+         * @param index Index of the bucket
+         * @param offset Offset of the cell
+         */
+        private void add(long index, short offset) {
+            Bucket bucket = get(index);
+            if (bucket == null) {
+                bucket = new Bucket();
+                if (sparse != null) sparse.put(index, bucket);
+                else dense[(int) index] = bucket;
+            } else if (bucket.count == bucket.offsets.length) {
+                bucket.offsets = Arrays.copyOf(bucket.offsets, 2 * bucket.count);
+            }
+            bucket.offsets[bucket.count++] = offset;
+        }
+
+        /**
+         * Removes a cell from a bucket, moving the last cell of the bucket to its place,
+         * and drops the bucket if it's sparse and has no cells left
+         * @param index Index of the bucket
+         * @param offset Offset of the cell
+         */
+        private void remove(long index, short offset) {
+            Bucket bucket = get(index);
+            int last = --bucket.count;
+            if (last == 0 && sparse != null) sparse.remove(index);
+            for (int i = 0; i <= last; i++) {
+                if (bucket.offsets[i] != offset) continue;
+                bucket.offsets[i] = bucket.offsets[last];
+                return;
+            }
+        }
+
+        /**
+         * Visits the occupied buckets overlapping a rectangle of the field, looking up every bucket
+         * of the rectangle, or going through the occupied buckets if they're sparse and fewer
+         * @param fromX Coordinate x of the left column of the rectangle
+         * @param fromY Coordinate y of the top row of the rectangle
+         * @param toX Coordinate x of the right column of the rectangle
+         * @param toY Coordinate y of the bottom row of the rectangle
+         * @param visitor Receiver of the buckets
+         */
+        private void visit(int fromX, int fromY, int toX, int toY, Visitor visitor) {
+            int fromBx = (fromX - 1) >> BUCKET_BITS, toBx = (toX - 1) >> BUCKET_BITS;
+            int fromBy = (fromY - 1) >> BUCKET_BITS, toBy = (toY - 1) >> BUCKET_BITS;
+            if (sparse != null && sparse.size() < (long) (toBx - fromBx + 1) * (toBy - fromBy + 1)) {
+                for (Map.Entry<Long, Bucket> entry : sparse.entrySet()) {
+                    long index = entry.getKey();
+                    int bx = (int) (index % bucketsPerRow), by = (int) (index / bucketsPerRow);
+                    if (bx >= fromBx && bx <= toBx && by >= fromBy && by <= toBy) visitor.visit(bx, by, entry.getValue());
+                }
+                return;
+            }
+            for (int by = fromBy; by <= toBy; by++) {
+                for (int bx = fromBx; bx <= toBx; bx++) {
+                    Bucket bucket = get(index(bx, by));
+                    if (bucket != null) visitor.visit(bx, by, bucket);
+                }
+            }
+        }
+    }
+}
@@ -14,22 +14,16 @@ public interface Team {
     boolean isEmpty();
 
     /**
-     * Returns name of the team
-     * @return name of the team
+     * Returns identifier of the team, unique among the teams of its game
+     * @return identifier of the team
      */
-    String name();
+    int id();
 
     /**
-     * Adds a player to the team
-     * @param player player that should be added to the team
-     */
-    void addPlayer(Player player);
-
-    /**
-     * Removes a player from the team
-     * @param player player that should be removed from the team
+     * Returns name of the team
+     * @return name of the team
      */
-    void removePlayer(Player player);
+    String name();
 
     /**
      * Adds a building to the team
@@ -50,7 +44,8 @@ public interface Team {
     SizedIterator<Building> buildings();
 
     /**
-     * Returns players of the team
+     * Returns players of the team, in the order they were created<br>
+     * Players are created in and removed from the {@link PlayerTable} of the field
      * @return players of the team
      */
     SizedIterator<Player> players();
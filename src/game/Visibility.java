@@ -0,0 +1,48 @@
+package game;
+
+/**
+ * Computation of the {@link Field.MapCell} codes of the cells seen by a team, a row at a time<br>
+ * The owners of the entities of a row are given as flat arrays of codes (see {@link #owner(Team)}),
+ * and every cell is computed with the same branch-free integer operations,
+ * so the JIT compiler turns the loop of {@link #row(int[], int[], int, int[], int)}
+ * into SIMD instructions and the map of a big field is limited by the memory bandwidth<br>
+ * A cell is hidden if it has a player or a building of a team other than the viewing team,
+ * like in {@link Field.Map}
+ */
+public final class Visibility {
+    /**
+     * Owner code of a cell without the entity
+     */
+    public static final int EMPTY = 0;
+
+    private Visibility() {}
+
+    /**
+     * Returns the owner code of an entity of a team
+     * @param team The team, may be {@code null}
+     * @return Owner code of the entity, never {@link #EMPTY}
+     */
+    public static int owner(Team team) {
+        return Zobrist.id(team) + 2;
+    }
+
+    /**
+     * Computes the codes of the cells of a row seen by a team, which are the ordinals of the
+     * corresponding {@link Field.MapCell}
+     * @param players Owner codes of the players of the row
+     * @param buildings Owner codes of the buildings of the row
+     * @param viewer Owner code of the viewing team
+     * @param codes Ordinals of the {@link Field.MapCell} of the cells of the row
+     * @param length Amount of cells in the row
+     */
+    public static void row(int[] players, int[] buildings, int viewer, int[] codes, int length) {
+        for (int i = 0; i < length; i++) {
+            int player = players[i], building = buildings[i];
+            int hasPlayer = (player | -player) >>> 31, hasBuilding = (building | -building) >>> 31;
+            int foreignPlayer = ((player ^ viewer) | -(player ^ viewer)) >>> 31;
+            int foreignBuilding = ((building ^ viewer) | -(building ^ viewer)) >>> 31;
+            int visible = 1 ^ (hasPlayer & foreignPlayer | hasBuilding & foreignBuilding);
+            codes[i] = 3 - visible * (2 * hasBuilding + hasPlayer);
+        }
+    }
+}
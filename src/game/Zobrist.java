@@ -0,0 +1,101 @@
+package game;
+
+import game.players.Player;
+import game.players.Player.PlayerColor;
+
+/**
+ * Keys of the Zobrist hash of a game, see {@link Field#hash()} and {@link Game#hash()}<br>
+ * The hash of a game is the XOR of the keys of every player, every building
+ * and the team that is currently making a move, so it can be updated incrementally
+ * by XORing out the key of an entity before it changes and XORing in its new key<br>
+ * Keys are derived from their components with a mixing function instead of being stored
+ * in random tables, so they don't take memory on fields of any size
+ */
+public final class Zobrist {
+    /**
+     * Distinct seeds of every kind of key
+     */
+    private static final long PLAYER = 0x1F83D9ABFB41BD6BL, BUILDING = 0x5BE0CD19137E2179L,
+        TURN = 0x6A09E667F3BCC908L;
+    /**
+     * Odd constant used to spread the components of a key
+     */
+    private static final long GAMMA = 0x9E3779B97F4A7C15L;
+
+    private Zobrist() {}
+
+    /**
+     * Key of a player located in a cell
+     * @param x X coordinate of the cell
+     * @param y Y coordinate of the cell
+     * @param color Color of the player
+     * @param team Identifier of the player's team, see {@link Team#id()}
+     * @return Key of the player
+     */
+    public static long player(int x, int y, PlayerColor color, int team) {
+        return mix(mix(mix(PLAYER + x * GAMMA) + y * GAMMA) + (team * 4L + color.ordinal()) * GAMMA);
+    }
+
+    /**
+     * Key of a building located in a cell
+     * @param x X coordinate of the cell
+     * @param y Y coordinate of the cell
+     * @param team Identifier of the building's team, {@code -1} if it has no owner
+     * @param treasury Amount of money in the building
+     * @return Key of the building
+     */
+    public static long building(int x, int y, int team, int treasury) {
+        return mix(mix(mix(mix(BUILDING + x * GAMMA) + y * GAMMA) + team * GAMMA) + treasury * GAMMA);
+    }
+
+    /**
+     * Key of the team that is currently making a move
+     * @param team Identifier of the team
+     * @return Key of the turn
+     */
+    public static long turn(int team) {
+        return mix(TURN + team * GAMMA);
+    }
+
+    /**
+     * Key of a player, computed from the entity itself
+     * @param player The player
+     * @param x X coordinate of the player
+     * @param y Y coordinate of the player
+     * @return Key of the player
+     */
+    static long player(Player player, int x, int y) {
+        return player(x, y, player.color(), id(player.team()));
+    }
+
+    /**
+     * Key of a building, computed from the entity itself
+     * @param building The building
+     * @param x X coordinate of the building
+     * @param y Y coordinate of the building
+     * @return Key of the building
+     */
+    static long building(Building building, int x, int y) {
+        return building(x, y, id(building.team()), building.treasury());
+    }
+
+    /**
+     * Returns identifier of a team
+     * @param team The team, may be {@code null}
+     * @return Identifier of the team, {@code -1} if the team is {@code null}
+     */
+    static int id(Team team) {
+        return team == null ? -1 : team.id();
+    }
+
+    /**
+     * Mixes the bits of a value (finalizer of the SplitMix64 generator)
+     * @param z Value to mix
+     * @return Mixed value
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,401 @@
+package game.bot;
+
+import game.Game;
+import game.GameState;
+import game.Order;
+import game.Team;
+import game.data_structures.Array;
+import game.data_structures.ArrayClass;
+import game.players.Player.*;
+
+/**
+ * Computer player which can choose the next {@link Order} of any {@link Team}<br>
+ * The bot searches the game tree with alpha-beta pruning up to a bounded depth,
+ * deepening iteratively until the time for the move runs out<br>
+ * Opponents are assumed to play against the bot's team, so every team other than
+ * the bot's minimizes the evaluation of the bot's team<br>
+ * Several threads search the same position at the same time, sharing their results
+ * through a {@link TranspositionTable} (lazy SMP): helper threads start at different depths
+ * and try the moves in a different order, filling the table for each other
+ */
+public class Bot {
+    /**
+     * Score of a won game, lost games score the opposite
+     */
+    static final int WIN = 30000;
+    /**
+     * Maximum depth of the search
+     */
+    private static final int MAX_DEPTH = 64;
+    /**
+     * Amount of nodes between two checks of the deadline
+     */
+    private static final int CHECK_NODES = 1024;
+    /**
+     * Kinds of encoded moves, stored in the lowest two bits
+     */
+    private static final int ATTACK = 0, CREATE = 1, MOVE = 2;
+    /**
+     * Player colors indexed by their ordinal
+     */
+    private static final PlayerColor[] COLORS = PlayerColor.values();
+    /**
+     * Single step moves in every direction, indexed by the ordinal of the direction
+     */
+    private static final Direction[][] STEPS = {
+        { Direction.NORTH }, { Direction.SOUTH }, { Direction.EAST }, { Direction.WEST }
+    };
+
+    /**
+     * Amount of threads searching in parallel
+     */
+    private final int threads;
+    /**
+     * Table shared by the threads
+     */
+    private final TranspositionTable table;
+    /**
+     * Indication that the time for the current move has run out
+     */
+    private volatile boolean stop;
+    /**
+     * Moment when the current search must end, in {@link System#nanoTime()} units
+     */
+    private long deadline;
+    /**
+     * Amount of nodes visited and time spent during the last search
+     */
+    private long nodes, elapsed;
+
+    /**
+     * Creates a bot
+     * @param threads Amount of threads searching in parallel
+     * @param table Transposition table shared by the threads
+     * @pre threads > 0
+     */
+    public Bot(int threads, TranspositionTable table) {
+        this.threads = threads;
+        this.table = table;
+    }
+
+    /**
+     * Chooses the next order of the team that is currently making a move
+     * @param game The game
+     * @param millis Time for the search, in milliseconds
+     * @return The chosen order, to be executed by the current team
+     * @pre game.inProgress() && GameState.fits(game.width(), game.height())
+     */
+    public Order choose(Game game, long millis) {
+        GameState root = new GameState(game);
+        int move = search(root, millis);
+        Team team = game.currentTeam();
+        int index = move >>> 4;
+        return switch (move & 3) {
+            case CREATE -> new Order(team, COLORS[move >>> 2 & 3], root.bunkerName(index));
+            case MOVE -> {
+                Array<Direction> dirs = new ArrayClass<>(1);
+                dirs.insertLast(STEPS[move >>> 2 & 3][0]);
+                yield new Order(team, root.playerX(index), root.playerY(index), dirs);
+            }
+            default -> new Order(team);
+        };
+    }
+
+    /**
+     * Searches a state for the best move of the team that is currently making a move
+     * @param root The state to search
+     * @param millis Time for the search, in milliseconds
+     * @return The best move found, encoded as the kind of the move in the lowest two bits,
+     * the color or the direction in the next two bits and the bunker or player in the rest
+     * @pre root.inProgress()
+     */
+    public int search(GameState root, long millis) {
+        long start = System.nanoTime();
+        deadline = start + millis * 1_000_000;
+        stop = false;
+        table.newSearch();
+        Searcher[] searchers = new Searcher[threads];
+        Thread[] workers = new Thread[threads - 1];
+        for (int i = 0; i < threads; i++) searchers[i] = new Searcher(i, root);
+        for (int i = 1; i < threads; i++) {
+            workers[i - 1] = new Thread(searchers[i], "bot-search-" + i);
+            workers[i - 1].start();
+        }
+        searchers[0].run();
+        stop = true;
+        for (Thread worker : workers) {
+            try {
+                worker.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        Searcher best = searchers[0];
+        nodes = 0;
+        for (Searcher searcher : searchers) {
+            nodes += searcher.nodes;
+            if (searcher.completedDepth > best.completedDepth) best = searcher;
+        }
+        elapsed = System.nanoTime() - start;
+        return best.bestMove;
+    }
+
+    /**
+     * Returns the amount of nodes visited by all threads during the last search
+     * @return The amount of nodes visited during the last search
+     */
+    public long nodes() {
+        return nodes;
+    }
+
+    /**
+     * Returns the speed of the last search
+     * @return Nodes visited per second by all threads during the last search
+     */
+    public double nodesPerSecond() {
+        return elapsed == 0 ? 0 : nodes * 1e9 / elapsed;
+    }
+
+    /**
+     * Evaluates a state from the point of view of a team: players are worth their cost,
+     * bunkers are worth more than the most expensive player and money counts a little
+     * @param state The state to evaluate
+     * @param team Index of the team
+     * @return Score of the state, positive when the team is ahead
+     */
+    static int evaluate(GameState state, int team) {
+        int score = 0;
+        for (int p = 0; p < state.playerSlots(); p++) {
+            PlayerColor color = state.playerColor(p);
+            if (color == null) continue;
+            score += state.playerTeam(p) == team ? 10 * color.cost() : -10 * color.cost();
+        }
+        for (int b = 0; b < state.bunkerCount(); b++) {
+            int owner = state.bunkerOwner(b);
+            if (owner < 0) continue;
+            int value = 60 + Math.min(state.bunkerTreasury(b), 20);
+            score += owner == team ? value : -value;
+        }
+        return Math.max(-WIN + 1, Math.min(WIN - 1, score));
+    }
+
+    /**
+     * Applies an encoded move to a state
+     * @param state The state
+     * @param move The encoded move
+     */
+    static void apply(GameState state, int move) {
+        int index = move >>> 4;
+        switch (move & 3) {
+            case CREATE -> state.createPlayer(COLORS[move >>> 2 & 3], index);
+            case MOVE -> state.movePlayerAt(state.playerX(index), state.playerY(index),
+                STEPS[move >>> 2 & 3]);
+            default -> state.playersAttack();
+        }
+    }
+
+    /**
+     * Generates the useful moves of the team that is currently making a move: creating a player
+     * of every affordable color in every free bunker, moving every player one step
+     * in every direction not blocked by a teammate, and attacking
+     * @param state The state
+     * @param moves Buffer for the moves, replaced if it's too small
+     * @return The buffer holding the moves, the amount of moves is stored in the first element
+     */
+    static int[] generate(GameState state, int[] moves) {
+        int team = state.currentTeam();
+        int capacity = 2 + 3 * state.bunkerCount() + 4 * state.playerSlots();
+        if (moves == null || moves.length < capacity) moves = new int[capacity];
+        int n = 1;
+        moves[n++] = ATTACK;
+        for (int b = 0; b < state.bunkerCount(); b++) {
+            if (state.bunkerOwner(b) != team) continue;
+            if (state.playerAt(state.bunkerX(b), state.bunkerY(b)) >= 0) continue;
+            for (PlayerColor color : COLORS) {
+                if (color.cost() > state.bunkerTreasury(b)) continue;
+                moves[n++] = b << 4 | color.ordinal() << 2 | CREATE;
+            }
+        }
+        for (int p = 0; p < state.playerSlots(); p++) {
+            if (state.playerColor(p) == null || state.playerTeam(p) != team) continue;
+            for (Direction dir : Direction.values()) {
+                if (dir == Direction.INVALID) continue;
+                int x = state.playerX(p), y = state.playerY(p);
+                switch (dir) {
+                    case NORTH -> y--;
+                    case SOUTH -> y++;
+                    case EAST -> x++;
+                    default -> x--;
+                }
+                if (x <= 0 || x > state.width() || y <= 0 || y > state.height()) continue;
+                int occupant = state.playerAt(x, y);
+                if (occupant >= 0 && state.playerTeam(occupant) == team) continue;
+                moves[n++] = p << 4 | dir.ordinal() << 2 | MOVE;
+            }
+        }
+        moves[0] = n - 1;
+        return moves;
+    }
+
+    /**
+     * Search thread, reusing one state per ply of the search
+     */
+    private class Searcher implements Runnable {
+        /**
+         * Index of the thread, {@code 0} for the main thread
+         */
+        final int id;
+        /**
+         * Index of the team searching for a move
+         */
+        final int team;
+        /**
+         * Salt of the table keys, so the scores of different teams don't mix
+         */
+        final long salt;
+        /**
+         * States and move buffers of every ply
+         */
+        final GameState[] states = new GameState[MAX_DEPTH + 1];
+        final int[][] moves = new int[MAX_DEPTH + 1][];
+        /**
+         * Best move of the deepest completed iteration and its depth
+         */
+        int bestMove = ATTACK, completedDepth;
+        /**
+         * Amount of nodes visited by this thread
+         */
+        long nodes;
+
+        Searcher(int id, GameState root) {
+            this.id = id;
+            this.team = root.currentTeam();
+            this.salt = Long.rotateLeft(root.teamId(team) * 0x9E3779B97F4A7C15L + 1, 31);
+            states[0] = root.copy();
+        }
+
+        @Override
+        public void run() {
+            for (int depth = 1 + id % 2; depth <= MAX_DEPTH; depth++) {
+                int move = root(depth);
+                if (stopped()) break;
+                bestMove = move;
+                completedDepth = depth;
+            }
+        }
+
+        /**
+         * Check whether this thread must stop searching: the main thread always completes
+         * its first iteration, so that it has a move to return
+         * @return {@code true} if the search must stop
+         */
+        boolean stopped() {
+            return stop && (completedDepth > 0 || id > 0);
+        }
+
+        /**
+         * Searches the root position to the specified depth
+         * @param depth Depth of the search
+         * @return The best move
+         */
+        int root(int depth) {
+            int[] rootMoves = moves[0] = generate(states[0], moves[0]);
+            int count = rootMoves[0], first = preferred(states[0], rootMoves);
+            int alpha = -WIN - 1, best = first;
+            for (int i = 0; i < count; i++) {
+                int move = i == 0 ? first : rootMoves[1 + (i + id) % count];
+                if (i > 0 && move == first) move = rootMoves[1 + id % count];
+                int score = child(0, move, depth, alpha, WIN + 1);
+                if (stopped()) break;
+                if (score > alpha) {
+                    alpha = score;
+                    best = move;
+                }
+            }
+            if (!stop) {
+                table.store(states[0].hash() ^ salt, best, alpha, depth, TranspositionTable.EXACT);
+            }
+            return best;
+        }
+
+        /**
+         * Returns the move to search first: the best move stored in the table if it's legal,
+         * otherwise the first generated move
+         * @param state The state
+         * @param generated The generated moves
+         * @return The move to search first
+         */
+        int preferred(GameState state, int[] generated) {
+            long entry = table.probe(state.hash() ^ salt);
+            if (entry != TranspositionTable.MISSING) {
+                int move = TranspositionTable.move(entry);
+                for (int i = 1; i <= generated[0]; i++) if (generated[i] == move) return move;
+            }
+            return generated[1];
+        }
+
+        /**
+         * Applies a move to the state of a ply and searches the resulting state
+         * @param ply The ply of the state before the move
+         * @param move The move
+         * @param depth Remaining depth, including the move
+         * @param alpha Lower bound of the score
+         * @param beta Upper bound of the score
+         * @return Score of the resulting state
+         */
+        int child(int ply, int move, int depth, int alpha, int beta) {
+            if (states[ply + 1] == null) states[ply + 1] = new GameState();
+            states[ply].copy(states[ply + 1]);
+            apply(states[ply + 1], move);
+            return alphaBeta(ply + 1, depth - 1, alpha, beta);
+        }
+
+        /**
+         * Searches a state with alpha-beta pruning
+         * @param ply The ply of the state
+         * @param depth Remaining depth
+         * @param alpha Lower bound of the score
+         * @param beta Upper bound of the score
+         * @return Score of the state for the searching team
+         */
+        int alphaBeta(int ply, int depth, int alpha, int beta) {
+            GameState state = states[ply];
+            if (++nodes % CHECK_NODES == 0 && System.nanoTime() > deadline) stop = true;
+            if (stopped()) return 0;
+            if (!state.isTeamAlive(team)) return -WIN;
+            if (!state.inProgress()) return WIN;
+            if (depth == 0 || ply == MAX_DEPTH) return evaluate(state, team);
+
+            long key = state.hash() ^ salt;
+            long entry = table.probe(key);
+            if (entry != TranspositionTable.MISSING && TranspositionTable.depth(entry) >= depth) {
+                int score = TranspositionTable.score(entry), bound = TranspositionTable.bound(entry);
+                if (bound == TranspositionTable.EXACT) return score;
+                if (bound == TranspositionTable.LOWER && score >= beta) return score;
+                if (bound == TranspositionTable.UPPER && score <= alpha) return score;
+            }
+
+            int[] generated = moves[ply] = generate(state, moves[ply]);
+            int count = generated[0], first = preferred(state, generated);
+            boolean maximizing = state.currentTeam() == team;
+            int best = maximizing ? -WIN - 1 : WIN + 1, bestMove = first;
+            int originalAlpha = alpha, originalBeta = beta;
+            for (int i = 0; i < count && alpha < beta; i++) {
+                int move = i == 0 ? first : generated[i];
+                if (i > 0 && move == first) move = generated[count];
+                int score = child(ply, move, depth, alpha, beta);
+                if (maximizing ? score > best : score < best) {
+                    best = score;
+                    bestMove = move;
+                }
+                if (maximizing) alpha = Math.max(alpha, best);
+                else beta = Math.min(beta, best);
+            }
+            if (stopped()) return best;
+            int bound = best <= originalAlpha ? TranspositionTable.UPPER :
+                best >= originalBeta ? TranspositionTable.LOWER : TranspositionTable.EXACT;
+            table.store(key, bestMove, best, depth, bound);
+            return best;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package game.bot;
+
+import game.Field;
+import game.Game;
+import game.GameState;
+import game.PaintballGame;
+import game.data_structures.Array;
+import game.data_structures.ArrayClass;
+import game.players.Player.Direction;
+import game.players.Player.PlayerColor;
+
+/**
+ * Measures the search speed of the {@link Bot} in nodes per second,
+ * for powers of two threads up to the amount of available cores<br>
+ * Arguments (all optional): milliseconds per search, field size, amount of teams
+ */
+public class BotBenchmark {
+    /**
+     * Amount of searches per amount of threads, the first one is discarded as warm-up
+     */
+    private static final int SEARCHES = 4;
+
+    /**
+     * Runs the benchmark and prints the results
+     * @param args milliseconds per search, field size and amount of teams
+     */
+    public static void main(String[] args) {
+        long millis = args.length > 0 ? Long.parseLong(args[0]) : 1000;
+        int size = args.length > 1 ? Integer.parseInt(args[1]) : 20;
+        int teams = args.length > 2 ? Integer.parseInt(args[2]) : 4;
+        GameState position = position(size, teams);
+        int cores = Runtime.getRuntime().availableProcessors();
+        System.out.printf("%d ms per search, %dx%d field, %d teams%n", millis, size, size, teams);
+        for (int threads = 1; ; threads = Math.min(2 * threads, cores)) {
+            Bot bot = new Bot(threads, new TranspositionTable(22));
+            double total = 0;
+            for (int i = 0; i < SEARCHES; i++) {
+                bot.search(position, millis);
+                if (i > 0) total += bot.nodesPerSecond();
+            }
+            System.out.printf("%d threads: %.0f nodes/s%n", threads, total / (SEARCHES - 1));
+            if (threads == cores) break;
+        }
+    }
+
+    /**
+     * Builds the benchmark position: every team owns a bunker in a different part of the field
+     * and has recruited one player of every color, moved out of the bunker
+     * @param size Width and height of the field
+     * @param teams Amount of teams
+     * @return The benchmark position
+     */
+    static GameState position(int size, int teams) {
+        Game game = new PaintballGame();
+        game.setField(size, size);
+        for (int t = 0; t < teams; t++) {
+            int x = 1 + (t * 7 + 3) % size, y = 1 + (t * 5 + 2) % size;
+            game.addBuilding(x, y, 100, "bunker " + t);
+            game.addTeam("team" + t, "bunker " + t);
+        }
+        game.start();
+        Direction[] exits = { Direction.SOUTH, Direction.EAST, Direction.WEST };
+        for (PlayerColor color : PlayerColor.values()) {
+            for (int t = 0; t < teams; t++) game.createPlayer(color, "bunker " + t);
+            for (int t = 0; t < teams; t++) {
+                Field.Cell bunker = game.currentTeam().buildings().next().fieldLocation();
+                Array<Direction> dirs = new ArrayClass<>(1);
+                dirs.insertLast(exits[color.ordinal()]);
+                game.movePlayerAt(bunker.getX(), bunker.getY(), dirs);
+            }
+        }
+        return new GameState(game);
+    }
+}
@@ -0,0 +1,127 @@
+package game.bot;
+
+/**
+ * Fixed-size transposition table shared by the search threads of a {@link Bot}<br>
+ * Every entry is stored in two {@code long} words: the data and the key XORed with the data,
+ * so the table needs no locks: an entry torn by two threads writing at the same time
+ * fails the key check and is treated as missing<br>
+ * An entry is replaced when the new one was searched at least as deep
+ * or when the old one was stored during an earlier search
+ */
+public class TranspositionTable {
+    /**
+     * Bounds of the stored scores
+     */
+    public static final int EXACT = 0, LOWER = 1, UPPER = 2;
+    /**
+     * Value returned by {@link #probe(long)} when the position is not in the table
+     */
+    public static final long MISSING = 0;
+
+    /**
+     * Key and data words of every entry, interleaved
+     */
+    private final long[] entries;
+    /**
+     * Mask which converts a key to the index of its entry
+     */
+    private final int mask;
+    /**
+     * Age of the current search, between 1 and 63,
+     * entries of older searches are replaced first
+     */
+    private volatile int age = 1;
+
+    /**
+     * Creates a table with the specified amount of entries
+     * @param sizeBits Logarithm of the amount of entries, each entry takes 16 bytes
+     * @pre 0 < sizeBits && sizeBits <= 28
+     */
+    public TranspositionTable(int sizeBits) {
+        entries = new long[2 << sizeBits];
+        mask = (1 << sizeBits) - 1;
+    }
+
+    /**
+     * Marks the beginning of a new search, making the entries of previous searches older
+     */
+    public void newSearch() {
+        age = age % 0x3F + 1;
+    }
+
+    /**
+     * Looks up a position
+     * @param key Key of the position
+     * @return Data of the entry, {@link #MISSING} if the position is not in the table<br>
+     * Use {@link #move(long)}, {@link #score(long)}, {@link #depth(long)}
+     * and {@link #bound(long)} to read it
+     */
+    public long probe(long key) {
+        int i = ((int) key & mask) << 1;
+        long data = entries[i + 1];
+        return (entries[i] ^ data) == key ? data : MISSING;
+    }
+
+    /**
+     * Stores a position, unless the entry holds a deeper result of the current search
+     * @param key Key of the position
+     * @param move Best move found in the position
+     * @param score Score of the position
+     * @param depth Depth of the search of the position
+     * @param bound Bound of the score: {@link #EXACT}, {@link #LOWER} or {@link #UPPER}
+     */
+    public void store(long key, int move, int score, int depth, int bound) {
+        int i = ((int) key & mask) << 1;
+        long old = entries[i + 1];
+        if (old != MISSING && age(old) == age && depth(old) > depth) return;
+        long data = (move & 0xFFFFFFFFL) | (score & 0xFFFFL) << 32 | (long) (depth & 0xFF) << 48 |
+            (long) bound << 56 | (long) age << 58;
+        entries[i] = key ^ data;
+        entries[i + 1] = data;
+    }
+
+    /**
+     * Reads the best move of an entry
+     * @param data Data of the entry
+     * @return The best move
+     */
+    public static int move(long data) {
+        return (int) data;
+    }
+
+    /**
+     * Reads the score of an entry
+     * @param data Data of the entry
+     * @return The score
+     */
+    public static int score(long data) {
+        return (short) (data >>> 32);
+    }
+
+    /**
+     * Reads the depth of an entry
+     * @param data Data of the entry
+     * @return The depth
+     */
+    public static int depth(long data) {
+        return (int) (data >>> 48) & 0xFF;
+    }
+
+    /**
+     * Reads the bound of an entry
+     * @param data Data of the entry
+     * @return The bound
+     */
+    public static int bound(long data) {
+        return (int) (data >>> 56) & 0x3;
+    }
+
+    /**
+     * Reads the age of an entry
+     * @param data Data of the entry
+     * @return The age
+     */
+    private static int age(long data) {
+        return (int) (data >>> 58) & 0x3F;
+    }
+}
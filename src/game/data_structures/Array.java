@@ -1,4 +1,8 @@
 package game.data_structures;
+
+import java.util.function.IntConsumer;
+import java.util.function.Predicate;
+
 /**
  * This interface represents an array data structure that stores elements of type E.
  * @param <E> the type of elements stored in the array
@@ -34,6 +38,49 @@ public interface Array<E> {
      */
     void removeAt(int pos);
 
+    /**
+     * Inserts the elements of another array at the specified position, in their order,
+     * shifting the following elements once instead of once per element.
+     * @param es  the elements to insert
+     * @param pos the position at which to insert the first element
+     * @pre es != null && es != this && 0 <= pos && pos <= size()
+     */
+    void insertAll(Array<? extends E> es, int pos);
+
+    /**
+     * Removes the elements at the specified positions from the array in a single pass.
+     * @param positions the positions of the elements to remove, in increasing order
+     * @param count     the number of positions to use from <code>positions</code>
+     * @pre 0 <= count && count <= positions.length && the first <code>count</code> positions
+     *      are strictly increasing and within <code>0</code> and <code>size() - 1</code>
+     */
+    void removeAll(int[] positions, int count);
+
+    /**
+     * Removes the elements which satisfy the filter in a single pass,
+     * keeping the order of the remaining elements.
+     * @param filter the filter of the elements to remove
+     * @return the number of removed elements
+     * @pre filter != null
+     */
+    default int removeIf(Predicate<? super E> filter) {
+        return removeIf(filter, null);
+    }
+
+    /**
+     * Removes the elements which satisfy the filter in a single pass,
+     * keeping the order of the remaining elements.<br>
+     * The former position of every removed element is passed to <code>removed</code>,
+     * in increasing order, so that positions kept outside the array can be remapped
+     * in the same pass: a position <code>p</code> is shifted down by one for each
+     * removed position lower than <code>p</code>.
+     * @param filter  the filter of the elements to remove
+     * @param removed the receiver of the removed positions, or <code>null</code>
+     * @return the number of removed elements
+     * @pre filter != null
+     */
+    int removeIf(Predicate<? super E> filter, IntConsumer removed);
+
     /**
      * Searches for the specified element in the array in forward direction.
      * @param e the element to search for
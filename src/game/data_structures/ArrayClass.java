@@ -1,5 +1,8 @@
 package game.data_structures;
 
+import java.util.function.IntConsumer;
+import java.util.function.Predicate;
+
 /**
  * This class provides an implementation of the Array interface with a dynamically resizing array.
  * @param <E> the type of elements stored in the array
@@ -68,6 +71,48 @@ public class ArrayClass<E> implements Array<E> {
         elems[--counter] = null;
     }
 
+    @Override
+    public void insertAll(Array<? extends E> es, int pos) {
+        int n = es.size();
+        if (counter + n > elems.length) resize(counter + n);
+        System.arraycopy(elems, pos, elems, pos + n, counter - pos);
+        for (int i = 0; i < n; i++)
+            elems[pos + i] = es.get(i);
+        counter += n;
+    }
+
+    @Override
+    public void removeAll(int[] positions, int count) {
+        if (count == 0) return;
+        int kept = positions[0];
+        for (int k = 0; k < count; k++) {
+            int from = positions[k] + 1, to = k + 1 < count ? positions[k + 1] : counter;
+            System.arraycopy(elems, from, elems, kept, to - from);
+            kept += to - from;
+        }
+        for (int i = kept; i < counter; i++)
+            elems[i] = null;
+        counter = kept;
+    }
+
+    @Override
+    public int removeIf(Predicate<? super E> filter, IntConsumer removed) {
+        int kept = 0;
+        for (int i = 0; i < counter; i++) {
+            E e = elems[i];
+            if (filter.test(e)) {
+                if (removed != null) removed.accept(i);
+            } else {
+                elems[kept++] = e;
+            }
+        }
+        int count = counter - kept;
+        for (int i = kept; i < counter; i++)
+            elems[i] = null;
+        counter = kept;
+        return count;
+    }
+
     @Override
     public boolean searchForward(E e) {
         return searchIndexOf(e) != NOT_FOUND;
@@ -120,9 +165,20 @@ public class ArrayClass<E> implements Array<E> {
      * Resizes the array to more elements when the current capacity is reached.
      * This method extends the size of the array when resizing.
      */
-    @SuppressWarnings("unchecked")
     private void resize() {
-        E tmp[] = (E[]) new Object[FACTOR*elems.length];
+        resize(counter + 1);
+    }
+
+    /**
+     * Resizes the array to hold at least the specified amount of elements,
+     * growing it by the resizing factor as many times as needed.
+     * @param capacity the amount of elements the array must hold
+     */
+    @SuppressWarnings("unchecked")
+    private void resize(int capacity) {
+        int length = Math.max(elems.length, 1);
+        while (length < capacity) length *= FACTOR;
+        E tmp[] = (E[]) new Object[length];
         for (int i=0;i<counter; i++)
             tmp[i] = elems[i];
         elems = tmp;
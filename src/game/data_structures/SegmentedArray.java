@@ -0,0 +1,239 @@
+package game.data_structures;
+
+import java.util.function.IntConsumer;
+import java.util.function.Predicate;
+
+/**
+ * This class provides an implementation of the Array interface with fixed-size chunks.
+ * The chunks are referenced by a directory, so growing the array never copies the elements,
+ * only the directory when it is full. Chunks at the end are released when the size drops,
+ * keeping one spare chunk so that alternating insertions and removals don't allocate.
+ * Insertions and removals at a position shift the following elements with
+ * {@link System#arraycopy}, chunk by chunk, while bulk insertions and removals move
+ * every element at most once.
+ * @param <E> the type of elements stored in the array
+ */
+public class SegmentedArray<E> implements Array<E> {
+    /**
+     * Constants for the chunks and searching
+     */
+    private static final int CHUNK_BITS = 10;
+    private static final int CHUNK = 1 << CHUNK_BITS;
+    private static final int MASK = CHUNK - 1;
+    private static final int MIN_CHUNKS = 4;
+    private static final int NOT_FOUND = -1;
+
+    /**
+     * Directory of the chunks storing the elements, {@code null} for unallocated chunks
+     */
+    private Object[][] chunks;
+
+    /**
+     * Number of allocated chunks, all at the start of the directory
+     */
+    private int allocated;
+
+    /**
+     * Counter that maintains the number of elements in the array
+     */
+    private int counter;
+
+    /**
+     * Constructs an empty array.
+     */
+    public SegmentedArray() {
+        chunks = new Object[MIN_CHUNKS][];
+        counter = 0;
+    }
+
+    @Override
+    public void insertLast(E e) {
+        if (counter == allocated * CHUNK) allocate();
+        chunks[counter >>> CHUNK_BITS][counter & MASK] = e;
+        counter++;
+    }
+
+    @Override
+    public void insertAt(E e, int pos) {
+        if (counter == allocated * CHUNK) allocate();
+        Object carry = e;
+        for (int c = pos >>> CHUNK_BITS, from = pos & MASK; c <= counter >>> CHUNK_BITS; c++, from = 0) {
+            Object[] chunk = chunks[c];
+            int end = Math.min(CHUNK, counter + 1 - (c << CHUNK_BITS));
+            Object last = chunk[CHUNK - 1];
+            System.arraycopy(chunk, from, chunk, from + 1, end - from - 1);
+            chunk[from] = carry;
+            carry = last;
+        }
+        counter++;
+    }
+
+    @Override
+    public void removeLast() {
+        counter--;
+        chunks[counter >>> CHUNK_BITS][counter & MASK] = null;
+        release();
+    }
+
+    @Override
+    public void removeAt(int pos) {
+        int last = counter - 1;
+        for (int c = pos >>> CHUNK_BITS, from = pos & MASK; c <= last >>> CHUNK_BITS; c++, from = 0) {
+            Object[] chunk = chunks[c];
+            int end = Math.min(CHUNK, counter - (c << CHUNK_BITS));
+            System.arraycopy(chunk, from + 1, chunk, from, end - from - 1);
+            chunk[end - 1] = end == CHUNK && c < last >>> CHUNK_BITS ? chunks[c + 1][0] : null;
+        }
+        counter--;
+        release();
+    }
+
+    @Override
+    public void insertAll(Array<? extends E> es, int pos) {
+        int n = es.size();
+        while (counter + n > allocated * CHUNK) allocate();
+        for (int i = counter - 1; i >= pos; i--)
+            set(i + n, at(i));
+        for (int i = 0; i < n; i++)
+            set(pos + i, es.get(i));
+        counter += n;
+    }
+
+    @Override
+    public void removeAll(int[] positions, int count) {
+        if (count == 0) return;
+        int kept = positions[0];
+        for (int k = 0; k < count; k++) {
+            int to = k + 1 < count ? positions[k + 1] : counter;
+            for (int i = positions[k] + 1; i < to; i++)
+                set(kept++, at(i));
+        }
+        truncate(kept);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public int removeIf(Predicate<? super E> filter, IntConsumer removed) {
+        int kept = 0, size = counter;
+        for (int i = 0; i < size; i++) {
+            Object e = at(i);
+            if (filter.test((E) e)) {
+                if (removed != null) removed.accept(i);
+            } else {
+                set(kept++, e);
+            }
+        }
+        truncate(kept);
+        return size - kept;
+    }
+
+    @Override
+    public boolean searchForward(E e) {
+        return searchIndexOf(e) != NOT_FOUND;
+    }
+
+    @Override
+    public boolean searchBackward(E e) {
+        for (int i = counter - 1; i >= 0; i--)
+            if (chunks[i >>> CHUNK_BITS][i & MASK].equals(e)) return true;
+        return false;
+    }
+
+    @Override
+    public int searchIndexOf(E e) {
+        for (int c = 0; c << CHUNK_BITS < counter; c++) {
+            Object[] chunk = chunks[c];
+            int end = Math.min(CHUNK, counter - (c << CHUNK_BITS));
+            for (int i = 0; i < end; i++)
+                if (chunk[i].equals(e)) return (c << CHUNK_BITS) + i;
+        }
+        return NOT_FOUND;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E get(int pos) {
+        return (E) chunks[pos >>> CHUNK_BITS][pos & MASK];
+    }
+
+    @Override
+    public int size() {
+        return counter;
+    }
+
+    @Override
+    public SizedIterator<E> iterator() {
+        return new SizedIterator<>() {
+            private final Object[][] elems = chunks;
+            private final int size = counter;
+            private int current = 0;
+
+            @Override
+            public boolean hasNext() {
+                return current < size;
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public E next() {
+                E e = (E) elems[current >>> CHUNK_BITS][current & MASK];
+                current++;
+                return e;
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+
+    /**
+     * Returns the element at a position
+     * @param pos the position of the element
+     * @return the element at <code>pos</code>
+     */
+    private Object at(int pos) {
+        return chunks[pos >>> CHUNK_BITS][pos & MASK];
+    }
+
+    /**
+     * Replaces the element at a position
+     * @param pos the position of the element
+     * @param e   the new element
+     */
+    private void set(int pos, Object e) {
+        chunks[pos >>> CHUNK_BITS][pos & MASK] = e;
+    }
+
+    /**
+     * Removes every element from a position on, releasing the chunks which are not needed anymore.
+     * @param size the new number of elements
+     */
+    private void truncate(int size) {
+        for (int i = size; i < counter; i++)
+            set(i, null);
+        counter = size;
+        release();
+    }
+
+    /**
+     * Allocates a new chunk at the end, doubling the directory if it is full.
+     */
+    private void allocate() {
+        if (allocated == chunks.length) {
+            Object[][] tmp = new Object[2 * chunks.length][];
+            System.arraycopy(chunks, 0, tmp, 0, allocated);
+            chunks = tmp;
+        }
+        chunks[allocated++] = new Object[CHUNK];
+    }
+
+    /**
+     * Releases the chunks at the end which are not needed anymore, keeping one spare chunk.
+     */
+    private void release() {
+        int needed = (counter + MASK) >>> CHUNK_BITS;
+        while (allocated > needed + 1) chunks[--allocated] = null;
+    }
+}
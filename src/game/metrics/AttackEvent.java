@@ -0,0 +1,38 @@
+package game.metrics;
+
+import jdk.jfr.*;
+
+/**
+ * Flight recorder event of the attack of a team, see {@link game.Game#playersAttack()}
+ */
+@Name("paintball.PlayersAttack")
+@Label("Players Attack")
+@Category("Paintball")
+@Description("Attack with every player of a team")
+public class AttackEvent extends Event {
+    /**
+     * Name of the attacking team
+     */
+    @Label("Team")
+    public String team;
+    /**
+     * Amount of players of the team before the attack
+     */
+    @Label("Players")
+    public int players;
+    /**
+     * Amount of cells attacked, the cells of the patterns with entities
+     */
+    @Label("Cells Attacked")
+    public long cellsAttacked;
+    /**
+     * Amount of players eliminated, on both sides
+     */
+    @Label("Eliminations")
+    public long eliminations;
+    /**
+     * Outcome of the attack
+     */
+    @Label("Status")
+    public String status;
+}
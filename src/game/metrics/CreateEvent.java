@@ -0,0 +1,33 @@
+package game.metrics;
+
+import jdk.jfr.*;
+
+/**
+ * Flight recorder event of the creation of a player, see {@link game.Game#createPlayer}
+ */
+@Name("paintball.CreatePlayer")
+@Label("Create Player")
+@Category("Paintball")
+@Description("Creation of a player in a bunker")
+public class CreateEvent extends Event {
+    /**
+     * Name of the team creating the player
+     */
+    @Label("Team")
+    public String team;
+    /**
+     * Color of the player
+     */
+    @Label("Color")
+    public String color;
+    /**
+     * Name of the bunker
+     */
+    @Label("Bunker")
+    public String bunker;
+    /**
+     * Outcome of the creation
+     */
+    @Label("Status")
+    public String status;
+}
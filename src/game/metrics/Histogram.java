@@ -0,0 +1,145 @@
+package game.metrics;
+
+import java.util.Arrays;
+
+/**
+ * Histogram of latencies in nanoseconds, with logarithmic buckets<br>
+ * Every power of two is split into {@value #SUB_BUCKETS} buckets, so a recorded value
+ * is known with a relative error below 12.5%, whatever its magnitude<br>
+ * Recording a value doesn't allocate memory. The histogram is not thread-safe
+ */
+public class Histogram {
+    /**
+     * Logarithm of the amount of buckets per power of two
+     */
+    static final int SUB_BUCKET_BITS = 3;
+    /**
+     * Amount of buckets per power of two
+     */
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    /**
+     * Amount of buckets needed for every non-negative {@code long}
+     */
+    static final int BUCKETS = (64 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    /**
+     * Name of the recorded operation
+     */
+    private final String name;
+    /**
+     * Amount of values recorded in every bucket
+     */
+    private final long[] counts = new long[BUCKETS];
+    /**
+     * Amount of recorded values
+     */
+    private long count;
+    /**
+     * Sum of the recorded values
+     */
+    private long total;
+    /**
+     * Largest recorded value
+     */
+    private long max;
+
+    /**
+     * Creates an empty histogram
+     * @param name Name of the recorded operation
+     */
+    public Histogram(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Records a value
+     * @param value The value, negative values are recorded as {@code 0}
+     */
+    public void record(long value) {
+        if (value < 0) value = 0;
+        counts[bucket(value)]++;
+        count++;
+        total += value;
+        if (value > max) max = value;
+    }
+
+    /**
+     * Returns an upper bound of the value below which the specified percentage of values fall
+     * @param percentile The percentage, between {@code 0} and {@code 100}
+     * @return The upper bound of the bucket holding the percentile, {@code 0} if the histogram is empty
+     */
+    public long percentile(double percentile) {
+        long rank = (long) Math.ceil(percentile / 100 * count), seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank && seen > 0) return Math.min(upperBound(i), max);
+        }
+        return max;
+    }
+
+    /**
+     * Returns name of the recorded operation
+     * @return Name of the recorded operation
+     */
+    public String name() {
+        return name;
+    }
+
+    /**
+     * Returns amount of recorded values
+     * @return Amount of recorded values
+     */
+    public long count() {
+        return count;
+    }
+
+    /**
+     * Returns the largest recorded value
+     * @return The largest recorded value
+     */
+    public long max() {
+        return max;
+    }
+
+    /**
+     * Returns the mean of the recorded values
+     * @return The mean of the recorded values, {@code 0} if the histogram is empty
+     */
+    public double mean() {
+        return count == 0 ? 0 : (double) total / count;
+    }
+
+    /**
+     * Removes every recorded value
+     */
+    public void reset() {
+        Arrays.fill(counts, 0);
+        count = total = max = 0;
+    }
+
+    /**
+     * Index of the bucket of a value: values below {@code 2 * SUB_BUCKETS} have a bucket each,
+     * larger values are grouped by their highest bit and the {@value #SUB_BUCKET_BITS} bits after it
+     * @param value The value
+     * @return Index of the bucket
+     */
+    static int bucket(long value) {
+        if (value < 2 * SUB_BUCKETS) return (int) value;
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int sub = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + sub;
+    }
+
+    /**
+     * Largest value of a bucket
+     * @param bucket Index of the bucket
+     * @return Largest value of the bucket
+     */
+    static long upperBound(int bucket) {
+        if (bucket < 2 * SUB_BUCKETS) return bucket;
+        int exponent = bucket / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        int shift = exponent - SUB_BUCKET_BITS;
+        long lower = (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << shift;
+        return lower + (1L << shift) - 1;
+    }
+}
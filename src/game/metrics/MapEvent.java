@@ -0,0 +1,23 @@
+package game.metrics;
+
+import jdk.jfr.*;
+
+/**
+ * Flight recorder event of the rendering of a map
+ */
+@Name("paintball.RenderMap")
+@Label("Render Map")
+@Category("Paintball")
+@Description("Rendering of the map of a team")
+public class MapEvent extends Event {
+    /**
+     * Name of the team whose map is rendered, {@code null} for the whole field
+     */
+    @Label("Team")
+    public String team;
+    /**
+     * Amount of cells of the map
+     */
+    @Label("Cells")
+    public long cells;
+}
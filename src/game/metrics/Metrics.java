@@ -0,0 +1,176 @@
+package game.metrics;
+
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Live metrics of the process, exposed in the Prometheus text format
+ * by {@link #serve(int)} on {@code http://localhost:<port>/metrics}<br>
+ * The metrics are enabled when the {@value #PORT_PROPERTY} system property is set,
+ * otherwise every method recording them returns immediately<br>
+ * Every metric is a {@link LongAdder}, so games running on different threads
+ * record without contending for the same counter
+ */
+public final class Metrics {
+    /**
+     * System property with the port of the metrics endpoint
+     */
+    public static final String PORT_PROPERTY = "paintball.metrics.port";
+    /**
+     * Indication that metrics are recorded
+     */
+    public static final boolean ENABLED = System.getProperty(PORT_PROPERTY) != null;
+    /**
+     * Quantiles of the turn latency exposed by the endpoint
+     */
+    private static final double[] QUANTILES = { 0.5, 0.9, 0.99 };
+    /**
+     * Content type of the Prometheus text format
+     */
+    private static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    /**
+     * Amount of games in progress
+     */
+    private static final LongAdder gamesActive = new LongAdder();
+    /**
+     * Amount of cells of the fields of every game
+     */
+    private static final LongAdder fieldCells = new LongAdder();
+    /**
+     * Amount of players alive in every game
+     */
+    private static final LongAdder playersAlive = new LongAdder();
+    /**
+     * Amount of bytes written to game journals
+     */
+    private static final LongAdder journalBytes = new LongAdder();
+    /**
+     * Amount of executed commands by command
+     */
+    private static final Map<String, LongAdder> commands = new ConcurrentHashMap<>();
+    /**
+     * Latencies of the turns, in nanoseconds
+     */
+    private static final StripedHistogram turnLatency = new StripedHistogram();
+
+    private Metrics() {}
+
+    /**
+     * Counts a game being started or stopped
+     * @param delta {@code 1} for a started game, {@code -1} for a stopped one
+     */
+    public static void gamesActive(int delta) {
+        if (ENABLED) gamesActive.add(delta);
+    }
+
+    /**
+     * Counts cells of a field being allocated or released
+     * @param delta Amount of allocated cells, negative for released ones
+     */
+    public static void fieldCells(long delta) {
+        if (ENABLED) fieldCells.add(delta);
+    }
+
+    /**
+     * Counts players being created or eliminated
+     * @param delta Amount of created players, negative for eliminated ones
+     */
+    public static void playersAlive(long delta) {
+        if (ENABLED) playersAlive.add(delta);
+    }
+
+    /**
+     * Counts bytes written to a game journal
+     * @param bytes Amount of written bytes
+     */
+    public static void journalBytes(long bytes) {
+        if (ENABLED) journalBytes.add(bytes);
+    }
+
+    /**
+     * Counts an executed command
+     * @param command Name of the command
+     */
+    public static void command(String command) {
+        if (ENABLED) commands.computeIfAbsent(command, c -> new LongAdder()).increment();
+    }
+
+    /**
+     * Records the latency of a turn
+     * @param nanos Latency of the turn in nanoseconds
+     */
+    public static void turn(long nanos) {
+        if (ENABLED) turnLatency.record(nanos);
+    }
+
+    /**
+     * Starts serving the metrics on the loopback interface, on a background thread
+     * @param port Port of the endpoint
+     * @return The server, to be stopped when the program ends
+     * @throws IOException if the port can't be bound
+     */
+    public static HttpServer serve(int port) throws IOException {
+        InetSocketAddress address = new InetSocketAddress(InetAddress.getLoopbackAddress(), port);
+        HttpServer server = HttpServer.create(address, 0);
+        server.createContext("/metrics", exchange -> {
+            byte[] body = scrape().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+        return server;
+    }
+
+    /**
+     * Formats every metric in the Prometheus text format
+     * @return The formatted metrics
+     */
+    public static String scrape() {
+        StringBuilder text = new StringBuilder();
+        metric(text, "paintball_games_active", "gauge", "Games in progress.");
+        text.append("paintball_games_active ").append(gamesActive.sum()).append('\n');
+        metric(text, "paintball_field_cells", "gauge", "Cells of the fields of every game.");
+        text.append("paintball_field_cells ").append(fieldCells.sum()).append('\n');
+        metric(text, "paintball_players_alive", "gauge", "Players alive in every game.");
+        text.append("paintball_players_alive ").append(playersAlive.sum()).append('\n');
+        metric(text, "paintball_journal_bytes_total", "counter", "Bytes written to game journals.");
+        text.append("paintball_journal_bytes_total ").append(journalBytes.sum()).append('\n');
+        metric(text, "paintball_commands_total", "counter", "Executed commands.");
+        for (Map.Entry<String, LongAdder> command : commands.entrySet()) {
+            text.append("paintball_commands_total{command=\"").append(command.getKey()).append("\"} ")
+                .append(command.getValue().sum()).append('\n');
+        }
+        metric(text, "paintball_turn_latency_seconds", "summary", "Latency of the turns.");
+        for (double quantile : QUANTILES) {
+            text.append("paintball_turn_latency_seconds{quantile=\"").append(quantile).append("\"} ")
+                .append(turnLatency.percentile(quantile * 100) / 1e9).append('\n');
+        }
+        text.append("paintball_turn_latency_seconds_sum ").append(turnLatency.total() / 1e9).append('\n');
+        text.append("paintball_turn_latency_seconds_count ").append(turnLatency.count()).append('\n');
+        return text.toString();
+    }
+
+    /**
+     * Appends the description of a metric
+     * @param text Text of the metrics
+     * @param name Name of the metric
+     * @param type Type of the metric
+     * @param help Description of the metric
+     */
+    private static void metric(StringBuilder text, String name, String type, String help) {
+        text.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        text.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+}
@@ -0,0 +1,38 @@
+package game.metrics;
+
+import jdk.jfr.*;
+
+/**
+ * Flight recorder event of the move of a player, see {@link game.Game#movePlayerAt}
+ */
+@Name("paintball.MovePlayer")
+@Label("Move Player")
+@Category("Paintball")
+@Description("Move of a player in one or more directions")
+public class MoveEvent extends Event {
+    /**
+     * Name of the team moving the player
+     */
+    @Label("Team")
+    public String team;
+    /**
+     * Starting X coordinate of the player
+     */
+    @Label("X")
+    public int x;
+    /**
+     * Starting Y coordinate of the player
+     */
+    @Label("Y")
+    public int y;
+    /**
+     * Amount of directions of the move
+     */
+    @Label("Steps")
+    public int steps;
+    /**
+     * Outcome of the move
+     */
+    @Label("Status")
+    public String status;
+}
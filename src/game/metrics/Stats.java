@@ -0,0 +1,128 @@
+package game.metrics;
+
+import game.data_structures.Array;
+import game.data_structures.ArrayClass;
+import game.data_structures.SizedIterator;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Statistics of the current process: latency {@link Histogram}s of the commands
+ * and game operations, and counters of the work done by attacks<br>
+ * Recording is enabled unless the {@code paintball.stats} system property is {@code false};
+ * when it's disabled, {@link #start()} doesn't read the clock and no latency is recorded.
+ * The counters are always kept, they are also read by the {@link AttackEvent}<br>
+ * The statistics are not thread-safe, they are meant to be recorded by the thread running the game
+ */
+public final class Stats {
+    /**
+     * Indication that statistics are recorded
+     */
+    public static final boolean ENABLED = !"false".equals(System.getProperty("paintball.stats"));
+
+    /**
+     * Histograms in the order they were first requested
+     */
+    private static final Array<Histogram> histograms = new ArrayClass<>();
+    /**
+     * Histograms by name
+     */
+    private static final Map<String, Histogram> histogramsByName = new HashMap<>();
+    /**
+     * Amount of cells attacked by players, during attacks and moves<br>
+     * Attacks only attack the cells of their patterns with entities, the empty cells
+     * are skipped, see {@link game.AttackTargets}
+     */
+    private static long cellsAttacked;
+    /**
+     * Amount of players eliminated in fights
+     */
+    private static long playersEliminated;
+
+    private Stats() {}
+
+    /**
+     * Returns the histogram with the specified name, creating it on first use
+     * @param name Name of the recorded operation
+     * @return The histogram
+     */
+    public static Histogram histogram(String name) {
+        Histogram histogram = histogramsByName.get(name);
+        if (histogram == null) {
+            histogram = new Histogram(name);
+            histogramsByName.put(name, histogram);
+            histograms.insertLast(histogram);
+        }
+        return histogram;
+    }
+
+    /**
+     * Returns every histogram, in the order they were first requested
+     * @return Iterator over the histograms
+     */
+    public static SizedIterator<Histogram> histograms() {
+        return histograms.iterator();
+    }
+
+    /**
+     * Marks the start of an operation
+     * @return Start time to pass to {@link #stop(Histogram, long)},
+     * {@code 0} if neither statistics nor {@link Metrics} are enabled
+     */
+    public static long start() {
+        return ENABLED || Metrics.ENABLED ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Marks the end of an operation, recording its latency
+     * @param histogram Histogram of the operation
+     * @param start Value returned by {@link #start()} at the start of the operation
+     * @return Latency of the operation in nanoseconds,
+     * {@code 0} if neither statistics nor {@link Metrics} are enabled
+     */
+    public static long stop(Histogram histogram, long start) {
+        if (!ENABLED && !Metrics.ENABLED) return 0;
+        long latency = System.nanoTime() - start;
+        if (ENABLED) histogram.record(latency);
+        return latency;
+    }
+
+    /**
+     * Counts a cell attacked by a player
+     */
+    public static void cellAttacked() {
+        cellsAttacked++;
+    }
+
+    /**
+     * Counts a player eliminated in a fight
+     */
+    public static void playerEliminated() {
+        playersEliminated++;
+    }
+
+    /**
+     * Returns amount of cells attacked by players
+     * @return Amount of cells attacked by players
+     */
+    public static long cellsAttacked() {
+        return cellsAttacked;
+    }
+
+    /**
+     * Returns amount of players eliminated in fights
+     * @return Amount of players eliminated in fights
+     */
+    public static long playersEliminated() {
+        return playersEliminated;
+    }
+
+    /**
+     * Removes every recorded value
+     */
+    public static void reset() {
+        for (int i = 0; i < histograms.size(); i++) histograms.get(i).reset();
+        cellsAttacked = playersEliminated = 0;
+    }
+}
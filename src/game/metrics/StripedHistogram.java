@@ -0,0 +1,82 @@
+package game.metrics;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Thread-safe variant of {@link Histogram}, with the same buckets<br>
+ * Every bucket is a {@link LongAdder}, so threads recording at the same time
+ * update different cells instead of contending for the same counter
+ */
+public class StripedHistogram {
+    /**
+     * Amount of values recorded in every bucket
+     */
+    private final LongAdder[] counts = new LongAdder[Histogram.BUCKETS];
+    /**
+     * Amount of recorded values
+     */
+    private final LongAdder count = new LongAdder();
+    /**
+     * Sum of the recorded values
+     */
+    private final LongAdder total = new LongAdder();
+    /**
+     * Largest recorded value
+     */
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    /**
+     * Creates an empty histogram
+     */
+    public StripedHistogram() {
+        for (int i = 0; i < counts.length; i++) counts[i] = new LongAdder();
+    }
+
+    /**
+     * Records a value
+     * @param value The value, negative values are recorded as {@code 0}
+     */
+    public void record(long value) {
+        if (value < 0) value = 0;
+        counts[Histogram.bucket(value)].increment();
+        count.increment();
+        total.add(value);
+        max.accumulate(value);
+    }
+
+    /**
+     * Returns an upper bound of the value below which the specified percentage of values fall,
+     * as in {@link Histogram#percentile(double)}<br>
+     * Values recorded while the percentile is computed may or may not be taken into account
+     * @param percentile The percentage, between {@code 0} and {@code 100}
+     * @return The upper bound of the bucket holding the percentile, {@code 0} if the histogram is empty
+     */
+    public long percentile(double percentile) {
+        long[] snapshot = new long[counts.length];
+        long recorded = 0;
+        for (int i = 0; i < counts.length; i++) recorded += snapshot[i] = counts[i].sum();
+        long rank = (long) Math.ceil(percentile / 100 * recorded), seen = 0, largest = max.get();
+        for (int i = 0; i < snapshot.length; i++) {
+            seen += snapshot[i];
+            if (seen >= rank && seen > 0) return Math.min(Histogram.upperBound(i), largest);
+        }
+        return largest;
+    }
+
+    /**
+     * Returns amount of recorded values
+     * @return Amount of recorded values
+     */
+    public long count() {
+        return count.sum();
+    }
+
+    /**
+     * Returns sum of the recorded values
+     * @return Sum of the recorded values
+     */
+    public long total() {
+        return total.sum();
+    }
+}
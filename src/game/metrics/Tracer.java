@@ -0,0 +1,204 @@
+package game.metrics;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Locale;
+
+/**
+ * Recorder of nested time spans of the game, which can be written
+ * in the Chrome trace event format and opened in a trace viewer<br>
+ * Tracing is enabled when the {@value #CAPACITY_PROPERTY} system property is set
+ * to the amount of spans to keep: spans are stored in a ring buffer allocated once,
+ * so only the latest spans are kept and recording never allocates memory<br>
+ * A span is stored when it ends, with its kind, start, duration and one numeric argument,
+ * whose meaning depends on the kind of the span. Short repeated steps, like attacked cells,
+ * are grouped into batch spans of {@value #BATCH} steps instead of a span per step<br>
+ * The tracer is not thread-safe, it is meant to be used by the thread running the game
+ */
+public final class Tracer {
+    /**
+     * System property with the amount of spans to keep
+     */
+    public static final String CAPACITY_PROPERTY = "paintball.trace";
+    /**
+     * Indication that spans are recorded
+     */
+    public static final boolean ENABLED = Integer.getInteger(CAPACITY_PROPERTY, 0) > 0;
+    /**
+     * Amount of steps grouped into a batch span
+     */
+    public static final int BATCH = 64;
+    /**
+     * Maximum depth of nested spans, deeper spans are ignored
+     */
+    private static final int MAX_DEPTH = 16;
+    /**
+     * Maximum amount of kinds of spans
+     */
+    private static final int MAX_KINDS = 64;
+    /**
+     * Formats of a span and of its argument in the trace event format,
+     * with the timestamps in microseconds
+     */
+    private static final String SPAN =
+        "%n{\"name\":\"%s\",\"ph\":\"X\",\"pid\":1,\"tid\":1,\"ts\":%.3f,\"dur\":%.3f",
+        ARGS = ",\"args\":{\"%s\":%d}";
+
+    /**
+     * Names of the kinds of spans and of their arguments
+     */
+    private static final String[] names = new String[MAX_KINDS], argNames = new String[MAX_KINDS];
+    /**
+     * Amount of registered kinds of spans
+     */
+    private static int kinds;
+
+    /**
+     * Kinds of the stored spans
+     */
+    private static final int[] spanKind = new int[Integer.getInteger(CAPACITY_PROPERTY, 0)];
+    /**
+     * Start, duration and argument of the stored spans
+     */
+    private static final long[] spanStart = new long[spanKind.length],
+        spanDuration = new long[spanKind.length], spanArg = new long[spanKind.length];
+    /**
+     * Amount of spans stored since the start, the latest ones are in the ring buffer
+     */
+    private static long stored;
+
+    /**
+     * Kinds of the spans which haven't ended yet
+     */
+    private static final int[] openKind = new int[MAX_DEPTH];
+    /**
+     * Start times of the spans which haven't ended yet
+     */
+    private static final long[] openStart = new long[MAX_DEPTH];
+    /**
+     * Amount of spans which haven't ended yet, including the ignored ones
+     */
+    private static int depth;
+    /**
+     * Indication that the innermost open span is a batch
+     */
+    private static boolean batchOpen;
+    /**
+     * Amount of steps of the open batch span
+     */
+    private static int batchSteps;
+    /**
+     * Time of the creation of the tracer, the origin of the timestamps
+     */
+    private static final long origin = System.nanoTime();
+
+    private Tracer() {}
+
+    /**
+     * Registers a kind of span
+     * @param name Name of the spans
+     * @param argName Name of the argument of the spans, {@code null} if they have no argument
+     * @return Identifier of the kind
+     */
+    public static synchronized int kind(String name, String argName) {
+        names[kinds] = name;
+        argNames[kinds] = argName;
+        return kinds++;
+    }
+
+    /**
+     * Starts a span
+     * @param kind Kind of the span, see {@link #kind(String, String)}
+     */
+    public static void begin(int kind) {
+        if (!ENABLED) return;
+        closeBatch();
+        if (depth < MAX_DEPTH) {
+            openKind[depth] = kind;
+            openStart[depth] = System.nanoTime();
+        }
+        depth++;
+    }
+
+    /**
+     * Ends the innermost span
+     */
+    public static void end() {
+        end(0);
+    }
+
+    /**
+     * Ends the innermost span
+     * @param arg Argument of the span
+     */
+    public static void end(long arg) {
+        if (!ENABLED || depth == 0) return;
+        closeBatch();
+        depth--;
+        if (depth < MAX_DEPTH) store(openKind[depth], openStart[depth], arg);
+    }
+
+    /**
+     * Counts a step of the innermost span, grouping steps into batch spans
+     * @param kind Kind of the batch spans
+     */
+    public static void step(int kind) {
+        if (!ENABLED) return;
+        if (!batchOpen) {
+            begin(kind);
+            batchOpen = true;
+            batchSteps = 0;
+        }
+        if (++batchSteps == BATCH) closeBatch();
+    }
+
+    /**
+     * Ends the open batch span, if there's one
+     */
+    private static void closeBatch() {
+        if (!batchOpen) return;
+        batchOpen = false;
+        end(batchSteps);
+    }
+
+    /**
+     * Stores a span which has just ended into the ring buffer
+     * @param kind Kind of the span
+     * @param start Start time of the span
+     * @param arg Argument of the span
+     */
+    private static void store(int kind, long start, long arg) {
+        int slot = (int) (stored++ % spanKind.length);
+        spanKind[slot] = kind;
+        spanStart[slot] = start - origin;
+        spanDuration[slot] = System.nanoTime() - start;
+        spanArg[slot] = arg;
+    }
+
+    /**
+     * Returns amount of spans kept in the ring buffer
+     * @return Amount of spans kept
+     */
+    public static int size() {
+        return (int) Math.min(stored, spanKind.length);
+    }
+
+    /**
+     * Writes the kept spans, from the oldest to the latest, in the Chrome trace event format
+     * @param out Writer of the trace
+     * @throws IOException if the trace can't be written
+     */
+    public static void write(Writer out) throws IOException {
+        out.write("{\"displayTimeUnit\":\"ns\",\"traceEvents\":[");
+        for (long i = stored - size(); i < stored; i++) {
+            int slot = (int) (i % spanKind.length), kind = spanKind[slot];
+            if (i > stored - size()) out.write(',');
+            out.write(String.format(Locale.ROOT, SPAN, names[kind],
+                spanStart[slot] / 1e3, spanDuration[slot] / 1e3));
+            if (argNames[kind] != null)
+                out.write(String.format(Locale.ROOT, ARGS, argNames[kind], spanArg[slot]));
+            out.write('}');
+        }
+        out.write(String.format("%n]}%n"));
+    }
+}
@@ -0,0 +1,33 @@
+package game.metrics;
+
+import jdk.jfr.*;
+
+/**
+ * Flight recorder event of the advancement of the turn to the next team
+ */
+@Name("paintball.NextTurn")
+@Label("Next Turn")
+@Category("Paintball")
+@Description("Advancement of the turn, including the income of every bunker")
+public class TurnEvent extends Event {
+    /**
+     * Name of the team which has just played
+     */
+    @Label("Previous Team")
+    public String previousTeam;
+    /**
+     * Name of the team which plays next
+     */
+    @Label("Next Team")
+    public String nextTeam;
+    /**
+     * Amount of teams in the game
+     */
+    @Label("Teams")
+    public int teams;
+    /**
+     * Amount of buildings receiving their income
+     */
+    @Label("Buildings")
+    public int buildings;
+}
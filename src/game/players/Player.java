@@ -2,31 +2,87 @@ package game.players;
 
 import game.*;
 import game.data_structures.Array;
+import game.data_structures.ArrayClass;
 import game.data_structures.Iterator;
 
 /**
- * Entity which can move to other locations on the field and attack other entities in various ways
+ * Entity which can move to other locations on the field and attack other entities in various ways<br>
+ * A player is a view of a slot of the {@link PlayerTable} of its field, which stores its state
+ * and implements the rules of its color. Views are created on demand and are equal
+ * if they refer to the same player<br>
+ * Red players move up to three directions at a time and attack every cell in a rectangular area
+ * from their position to the bottom right cell<br>
+ * Green players move one direction at a time and attack every cell on the diagonals
+ * they're located in, altering between them clockwise<br>
+ * Blue players move one direction at a time and attack every cell in the row
+ * they're located in, altering between left and right cells<br>
+ * The view of an eliminated player remains valid until its slot is removed from the table
+ * at the end of the turn, except for its color, which never changes and is kept by the view
  */
-public abstract class Player implements Entity {
+public final class Player implements Entity {
+    /**
+     * Table where the player is stored
+     */
+    private final PlayerTable table;
+    /**
+     * Creation sequence number of the player, which identifies it in the table
+     */
+    private final long sequence;
+    /**
+     * Color of the player
+     */
+    private final PlayerColor color;
+    /**
+     * Slot of the player in the table, when it was last looked up
+     */
+    private int slot;
+    /**
+     * Epoch of the table when the slot was last looked up
+     */
+    private int epoch;
 
     /**
-     * Reference to the player's team
+     * Constructs a view of a player, see {@link PlayerTable#add(PlayerColor, Team, int, int)}
+     * @param table Table where the player is stored
+     * @param slot Slot of the player
      */
-    protected Team team;
+    public Player(PlayerTable table, int slot) {
+        this.table = table;
+        this.slot = slot;
+        this.sequence = table.sequence(slot);
+        this.color = table.color(slot);
+        this.epoch = table.epoch();
+    }
+
     /**
-     * Reference to the field where the player resides
+     * Returns the table where the player is stored
+     * @return The table where the player is stored
      */
-    protected Field field;
+    public PlayerTable table() {
+        return table;
+    }
+
     /**
-     * Reference to the cell on the field where the player resides
+     * Returns slot of the player in its table, which changes when the table removes dead slots,
+     * see {@link PlayerTable#epoch()}
+     * @return Slot of the player, {@code -1} if the player was eliminated and its slot removed
      */
-    protected Field.Cell fieldLocation;
+    public int slot() {
+        if (epoch != table.epoch()) {
+            slot = table.find(sequence);
+            epoch = table.epoch();
+        }
+        return slot;
+    }
 
     /**
-     * Empty constructor, the initialization is handled by
-     * {@link Building#createPlayer(PlayerColor)} method
+     * Check whether the player is still in the game
+     * @return {@code true} if the player is alive, otherwise {@code false}
      */
-    public Player() {}
+    public boolean isAlive() {
+        int slot = slot();
+        return slot >= 0 && table.isAlive(slot);
+    }
 
     /**
      * Performs an attack on the field, eliminating players
@@ -35,7 +91,9 @@ public abstract class Player implements Entity {
      * The attacker may eliminate themselves if they lose the fight
      * @return status of the attack
      */
-    public abstract ActionStatus attack();
+    public ActionStatus attack() {
+        return table.attack(slot());
+    }
 
     /**
      * Moves this player in several directions, changing its position on the field<br>
@@ -45,19 +103,36 @@ public abstract class Player implements Entity {
      * @return Information about players movement in the specified directions
      * in the form of {@link Iterator} over the {@link Action}
      */
-    public abstract Iterator<Action> move(Array<Direction> dirs);
+    public Iterator<Action> move(Array<Direction> dirs) {
+        Array<Action> actions = new ArrayClass<>();
+        int maxDirections = color() == PlayerColor.RED ? 3 : 1;
+        if (dirs.size() < 1 || dirs.size() > maxDirections) {
+            actions.insertLast(new Action(ActionStatus.INVALID_MOVE));
+            return actions.iterator();
+        }
+        for (int i = 0; i < dirs.size(); i++) {
+            Action action = moveDefault(dirs.get(i));
+            actions.insertLast(action);
+            if (action.getStatus() == ActionStatus.PLAYER_ELIMINATED) break;
+        }
+        return actions.iterator();
+    }
 
     /**
      * @return Player's color
      */
-    public abstract PlayerColor color();
+    public PlayerColor color() {
+        return color;
+    }
 
     /**
      * Gets the cost of the player
      * (used in {@link Building#createPlayer(PlayerColor)} to create a player)
      * @return Player's cost
      */
-    public abstract int cost();
+    public int cost() {
+        return color().cost();
+    }
 
     /**
      * Gets an adjacent cell from the field, offset in a certain direction from the current location
@@ -65,7 +140,7 @@ public abstract class Player implements Entity {
      * @return {@link Field.Cell}, adjacent to the current location<br>
      * {@code null} if the coordinates of the {@link Field.Cell} are out of bounds
      */
-    protected Field.Cell nextCellInDirection(Direction dir) {
+    private Field.Cell nextCellInDirection(Direction dir) {
         int moveX = 0, moveY = 0;
         switch (dir) {
             case NORTH -> moveY = -1;
@@ -74,14 +149,15 @@ public abstract class Player implements Entity {
             case WEST -> moveX = -1;
             default -> {}
         }
-        int newX = fieldLocation.getX() + moveX, newY = fieldLocation.getY() + moveY;
+        Field field = table.field();
+        int newX = table.x(slot()) + moveX, newY = table.y(slot()) + moveY;
         if (newX <= 0 || newX > field.width() || newY <= 0 || newY > field.height())
             return null;
         return field.cellAt(newX, newY);
     }
 
     /**
-     * Default method for moving the player in one direction<br>
+     * Moves the player in one direction<br>
      * The player may eliminate players or seize buildings from other teams<br>
      * The player may also eliminate themselves if they lose the fight
      * @param dir {@link Direction}, in which the player will move
@@ -94,7 +170,7 @@ public abstract class Player implements Entity {
      * of the player's updated {@link Field.Cell} location
      * and a status from the {@link #attackCell(Field.Cell)} method
      */
-    protected Action moveDefault(Direction dir) {
+    private Action moveDefault(Direction dir) {
         if (dir == Direction.INVALID) {
             return new Action(ActionStatus.INVALID_DIRECTION);
         }
@@ -107,32 +183,36 @@ public abstract class Player implements Entity {
         }
         ActionStatus status = attackCell(newLocation);
         if (status == ActionStatus.PLAYER_ELIMINATED) {
-            return new Action(fieldLocation, status);
+            return new Action(fieldLocation(), status);
         }
-        field.removePlayerAt(fieldLocation.getX(), fieldLocation().getY());
-        this.fieldLocation = field.setPlayerAt(this, newLocation.getX(), newLocation.getY());
+        table.move(slot(), newLocation.getX(), newLocation.getY());
         return new Action(newLocation, status);
     }
 
     @Override
     public void setTeam(Team team) {
-        this.team = team;
+        table.setTeam(slot(), team);
     }
 
     @Override
     public Team team() {
-        return team;
+        return table.team(slot());
     }
 
     @Override
     public Field.Cell fieldLocation() {
-        return fieldLocation;
+        return table.field().cellAt(table.x(slot()), table.y(slot()));
     }
 
+    /**
+     * Moves the player to the specified location of its field
+     * @param field Field of the player's table
+     * @param x Coordinate x of the location
+     * @param y Coordinate y of the location
+     */
     @Override
     public void setFieldLocation(Field field, int x, int y) {
-        this.field = field;
-        fieldLocation = field.setPlayerAt(this, x, y);
+        table.move(slot(), x, y);
     }
 
     /**
@@ -148,29 +228,7 @@ public abstract class Player implements Entity {
      * the other player and seized the building<br>
      */
     public ActionStatus attackCell(Field.Cell cell) {
-        Player defender = cell.getPlayer();
-        ActionStatus status = ActionStatus.NOTHING;
-        if (defender != null) {
-            if (defender.team() == this.team()) return status;
-            boolean wonFight = fight(defender);
-            if (!wonFight) {
-                field.removePlayerAt(this.fieldLocation.getX(), this.fieldLocation.getY());
-                this.team().removePlayer(this);
-                return ActionStatus.PLAYER_ELIMINATED;
-            } else {
-                field.removePlayerAt(defender.fieldLocation.getX(), defender.fieldLocation.getY());
-                defender.team().removePlayer(defender);
-                status = ActionStatus.WON_FIGHT;
-            }
-        }
-        Building building = cell.getBuilding();
-        if (building != null && building.team() != this.team()) {
-            if (building.team() != null) building.team().removeBuilding(building);
-            this.team().addBuilding(building);
-            status = status == ActionStatus.WON_FIGHT ?
-                ActionStatus.WON_AND_SEIZED : ActionStatus.BUNKER_SEIZED;
-        }
-        return status;
+        return table.attackCell(slot(), cell.getX(), cell.getY());
     }
 
     /**
@@ -178,7 +236,19 @@ public abstract class Player implements Entity {
      * @param defender player, who is attacked
      * @return {@code true} if the attacker wins, and {@code false} otherwise
      */
-    public abstract boolean fight(Player defender);
+    public boolean fight(Player defender) {
+        return PlayerTable.beats(color(), defender.color());
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof Player player && player.table == table && player.sequence == sequence;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(sequence);
+    }
 
     /**
      * Color of the player, used in {@link Building#createPlayer(PlayerColor)}
@@ -187,6 +257,29 @@ public abstract class Player implements Entity {
 
         RED, GREEN, BLUE;
 
+        /**
+         * Gets the cost of a player of this color
+         * @return Cost of a player of this color
+         */
+        public int cost() {
+            return this == RED ? 4 : 2;
+        }
+
+        /**
+         * Check whether a player of this color wins a fight against a player of another color<br>
+         * Red beats blue, blue beats green, green beats red
+         * and the attacker wins against its own color
+         * @param defender Color of the defending player
+         * @return {@code true} if the attacker of this color wins, otherwise {@code false}
+         */
+        public boolean beats(PlayerColor defender) {
+            return switch (this) {
+                case RED -> defender != GREEN;
+                case GREEN -> defender != BLUE;
+                case BLUE -> defender != RED;
+            };
+        }
+
         /**
          * Converts the {@link String} equivalent of the color to {@link PlayerColor}
          * @param name {@link String} of the color
@@ -248,7 +341,7 @@ public abstract class Player implements Entity {
         }
 
         public Action(ActionStatus status) {
-            this(Player.this.fieldLocation, Player.this, status);
+            this(Player.this.fieldLocation(), Player.this, status);
         }
 
         public Field.Cell getLocation() {
@@ -0,0 +1,189 @@
+package game.simulation;
+
+import game.GameState;
+import game.players.Player.PlayerColor;
+
+/**
+ * Aggregated outcome of a batch of games played by the {@link Simulator}<br>
+ * Results of different batches can be combined with {@link #merge(SimulationResult)}
+ */
+public class SimulationResult {
+    /**
+     * Amount of different color mixes, a mix being the set of colors recruited by a team
+     */
+    public static final int COLOR_MIXES = 1 << PlayerColor.values().length;
+
+    /**
+     * Names of the teams and of their starting bunkers
+     */
+    private final String[] teamNames, startingBunkers;
+    /**
+     * Amount of games won by each team
+     */
+    private final long[] teamWins;
+    /**
+     * Amount of teams which finished a game with each color mix, and how many of them won
+     */
+    private final long[] mixGames = new long[COLOR_MIXES], mixWins = new long[COLOR_MIXES];
+    /**
+     * Amount of games played and amount of games which reached the turn limit
+     */
+    private long games, draws;
+
+    /**
+     * Creates an empty result for games starting from the specified state
+     * @param initial The state every game starts from
+     */
+    SimulationResult(GameState initial) {
+        int teams = initial.teamCount();
+        teamNames = new String[teams];
+        startingBunkers = new String[teams];
+        teamWins = new long[teams];
+        for (int t = 0; t < teams; t++) {
+            teamNames[t] = initial.teamName(t);
+            int first = -1;
+            for (int b = 0; b < initial.bunkerCount(); b++) {
+                if (initial.bunkerOwner(b) != t) continue;
+                if (first < 0 || initial.bunkerSeized(b) < initial.bunkerSeized(first)) first = b;
+            }
+            startingBunkers[t] = first < 0 ? null : initial.bunkerName(first);
+        }
+    }
+
+    /**
+     * Records the outcome of one game
+     * @param state Final state of the game
+     * @param mixes Color mix recruited by each team during the game
+     */
+    void record(GameState state, int[] mixes) {
+        games++;
+        int winner = state.inProgress() ? -1 : state.currentTeam();
+        if (winner < 0) draws++;
+        else teamWins[winner]++;
+        for (int t = 0; t < teamWins.length; t++) {
+            mixGames[mixes[t]]++;
+            if (t == winner) mixWins[mixes[t]]++;
+        }
+    }
+
+    /**
+     * Adds the outcomes recorded in another result to this one
+     * @param other Result of games starting from the same state
+     * @return This result
+     */
+    SimulationResult merge(SimulationResult other) {
+        games += other.games;
+        draws += other.draws;
+        for (int t = 0; t < teamWins.length; t++) teamWins[t] += other.teamWins[t];
+        for (int m = 0; m < COLOR_MIXES; m++) {
+            mixGames[m] += other.mixGames[m];
+            mixWins[m] += other.mixWins[m];
+        }
+        return this;
+    }
+
+    /**
+     * Returns the amount of games played
+     * @return The amount of games played
+     */
+    public long games() {
+        return games;
+    }
+
+    /**
+     * Returns the amount of games which reached the turn limit without a winner
+     * @return The amount of games without a winner
+     */
+    public long draws() {
+        return draws;
+    }
+
+    /**
+     * Returns the amount of teams in the simulated games
+     * @return The amount of teams
+     */
+    public int teamCount() {
+        return teamNames.length;
+    }
+
+    /**
+     * Returns name of the specified team
+     * @param team Index of the team
+     * @return Name of the team
+     */
+    public String teamName(int team) {
+        return teamNames[team];
+    }
+
+    /**
+     * Returns name of the bunker the specified team started with
+     * @param team Index of the team
+     * @return Name of the starting bunker, {@code null} if the team started without bunkers
+     */
+    public String startingBunker(int team) {
+        return startingBunkers[team];
+    }
+
+    /**
+     * Returns the amount of games won by the specified team
+     * @param team Index of the team
+     * @return The amount of games won by the team
+     */
+    public long wins(int team) {
+        return teamWins[team];
+    }
+
+    /**
+     * Returns the fraction of games won by the specified team
+     * @param team Index of the team
+     * @return The win rate of the team, between {@code 0} and {@code 1}
+     */
+    public double winRate(int team) {
+        return games == 0 ? 0 : (double) teamWins[team] / games;
+    }
+
+    /**
+     * Returns the amount of times a team finished a game with the specified color mix
+     * @param mix Color mix, see {@link #colorMix(PlayerColor...)}
+     * @return The amount of times a team finished a game with the mix
+     */
+    public long mixGames(int mix) {
+        return mixGames[mix];
+    }
+
+    /**
+     * Returns the fraction of teams with the specified color mix which won their game
+     * @param mix Color mix, see {@link #colorMix(PlayerColor...)}
+     * @return The win rate of the mix, between {@code 0} and {@code 1}
+     */
+    public double mixWinRate(int mix) {
+        return mixGames[mix] == 0 ? 0 : (double) mixWins[mix] / mixGames[mix];
+    }
+
+    /**
+     * Converts a set of colors to a color mix
+     * @param colors Colors recruited by a team
+     * @return Color mix, a bit mask with the bits of the ordinals of the colors
+     */
+    public static int colorMix(PlayerColor... colors) {
+        int mix = 0;
+        for (PlayerColor color : colors) mix |= 1 << color.ordinal();
+        return mix;
+    }
+
+    /**
+     * Converts a color mix to a readable name, such as {@code "red+blue"}
+     * @param mix Color mix
+     * @return Name of the color mix, {@code "none"} for teams which recruited nobody
+     */
+    public static String mixName(int mix) {
+        if (mix == 0) return "none";
+        String name = "";
+        for (PlayerColor color : PlayerColor.values()) {
+            if ((mix & 1 << color.ordinal()) == 0) continue;
+            if (!name.isEmpty()) name += "+";
+            name += color.name().toLowerCase();
+        }
+        return name;
+    }
+}
@@ -0,0 +1,238 @@
+package game.simulation;
+
+import game.Building.CreateStatus;
+import game.GameState;
+import game.players.Player.*;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Monte Carlo simulator which plays random games from a starting {@link GameState}<br>
+ * Every turn, the current team picks a random legal command: creating a player
+ * in one of its free bunkers, moving one of its players or attacking<br>
+ * Games are spread over a {@link ForkJoinPool} and every worker thread reuses its own state,
+ * so no memory is allocated per game apart from the copy of the starting state<br>
+ * Every game is seeded from the simulation seed and its index,
+ * so any game can be reproduced with {@link #replay(long, long)}
+ */
+public class Simulator {
+    /**
+     * Amount of games played by a single task without splitting it further
+     */
+    private static final long GAMES_PER_TASK = 64;
+    /**
+     * Multiplier used to derive the seeds of the games
+     */
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+    /**
+     * Player colors indexed by their ordinal
+     */
+    private static final PlayerColor[] COLORS = PlayerColor.values();
+    /**
+     * Directions a player can move in
+     */
+    private static final Direction[] DIRECTIONS = {
+        Direction.NORTH, Direction.SOUTH, Direction.EAST, Direction.WEST
+    };
+
+    /**
+     * The state every game starts from
+     */
+    private final GameState initial;
+    /**
+     * Maximum amount of turns per game, games reaching it are counted as draws
+     */
+    private final int maxTurns;
+    /**
+     * State of the game being played by each worker thread
+     */
+    private final ThreadLocal<Worker> workers;
+
+    /**
+     * Creates a simulator for games starting from the specified state
+     * @param initial The state every game starts from
+     * @param maxTurns Maximum amount of turns per game
+     * @pre initial.inProgress() && maxTurns > 0
+     */
+    public Simulator(GameState initial, int maxTurns) {
+        this.initial = initial.copy();
+        this.maxTurns = maxTurns;
+        this.workers = ThreadLocal.withInitial(Worker::new);
+    }
+
+    /**
+     * Plays the specified amount of games using every available core
+     * @param games Amount of games to play
+     * @param seed Seed of the simulation
+     * @return Aggregated outcome of the games
+     */
+    public SimulationResult run(long games, long seed) {
+        return ForkJoinPool.commonPool().invoke(new Batch(seed, 0, games));
+    }
+
+    /**
+     * Plays again a single game of a simulation
+     * @param seed Seed of the simulation
+     * @param game Index of the game in the simulation
+     * @return Final state of the game
+     */
+    public GameState replay(long seed, long game) {
+        Worker worker = new Worker();
+        worker.play(gameSeed(seed, game));
+        return worker.state;
+    }
+
+    /**
+     * Derives the seed of a game from the simulation seed and the index of the game
+     * @param seed Seed of the simulation
+     * @param game Index of the game
+     * @return Seed of the game
+     */
+    private static long gameSeed(long seed, long game) {
+        long z = seed + (game + 1) * GOLDEN_GAMMA;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Task playing a range of games, split in halves until it's small enough
+     */
+    @SuppressWarnings("serial")
+    private class Batch extends RecursiveTask<SimulationResult> {
+        private final long seed, from, to;
+
+        Batch(long seed, long from, long to) {
+            this.seed = seed;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected SimulationResult compute() {
+            if (to - from > GAMES_PER_TASK) {
+                long middle = (from + to) >>> 1;
+                Batch left = new Batch(seed, from, middle);
+                left.fork();
+                SimulationResult right = new Batch(seed, middle, to).compute();
+                return left.join().merge(right);
+            }
+            SimulationResult result = new SimulationResult(initial);
+            Worker worker = workers.get();
+            for (long game = from; game < to; game++) {
+                worker.play(gameSeed(seed, game));
+                result.record(worker.state, worker.mixes);
+            }
+            return result;
+        }
+    }
+
+    /**
+     * Reusable state of a thread playing games
+     */
+    private class Worker {
+        /**
+         * State of the game being played
+         */
+        final GameState state = new GameState();
+        /**
+         * Color mix recruited by each team in the game being played
+         */
+        final int[] mixes = new int[initial.teamCount()];
+        /**
+         * Buffers for the candidates of the current turn
+         */
+        int[] bunkers = new int[0], players = new int[0];
+        /**
+         * Buffers for the directions of a move
+         */
+        final Direction[][] moves = { new Direction[1], new Direction[2], new Direction[3] };
+
+        /**
+         * Plays a whole game from the starting state
+         * @param seed Seed of the game
+         */
+        void play(long seed) {
+            SplittableRandom random = new SplittableRandom(seed);
+            initial.copy(state);
+            Arrays.fill(mixes, 0);
+            if (bunkers.length < state.bunkerCount()) bunkers = new int[state.bunkerCount()];
+            for (int turn = 0; turn < maxTurns && state.inProgress(); turn++) playTurn(random);
+        }
+
+        /**
+         * Plays a random legal command for the current team
+         * @param random Source of randomness of the game
+         */
+        void playTurn(SplittableRandom random) {
+            int team = state.currentTeam(), freeBunkers = 0, teamPlayers = 0;
+            for (int b = 0; b < state.bunkerCount(); b++) {
+                if (state.bunkerOwner(b) != team || state.bunkerTreasury(b) < PlayerColor.GREEN.cost())
+                    continue;
+                if (state.playerAt(state.bunkerX(b), state.bunkerY(b)) < 0) bunkers[freeBunkers++] = b;
+            }
+            if (players.length < state.playerSlots()) players = new int[state.playerSlots()];
+            for (int p = 0; p < state.playerSlots(); p++) {
+                if (state.playerColor(p) != null && state.playerTeam(p) == team)
+                    players[teamPlayers++] = p;
+            }
+            int options = (freeBunkers > 0 ? 1 : 0) + (teamPlayers > 0 ? 1 : 0) + 1;
+            int command = random.nextInt(options);
+            if (freeBunkers == 0) command++;
+            if (command == 1 && teamPlayers == 0) command++;
+            switch (command) {
+                case 0 -> {
+                    int bunker = bunkers[random.nextInt(freeBunkers)];
+                    PlayerColor color = COLORS[random.nextInt(COLORS.length)];
+                    if (color.cost() > state.bunkerTreasury(bunker)) color = PlayerColor.GREEN;
+                    if (state.createPlayer(color, bunker) == CreateStatus.OK)
+                        mixes[team] |= 1 << color.ordinal();
+                }
+                case 1 -> move(players[random.nextInt(teamPlayers)], random);
+                default -> state.playersAttack();
+            }
+        }
+
+        /**
+         * Moves a player in random directions which keep it on the field
+         * and don't lead into a cell occupied by its own team
+         * @param player Slot of the player to move
+         * @param random Source of randomness of the game
+         */
+        void move(int player, SplittableRandom random) {
+            int steps = state.playerColor(player) == PlayerColor.RED ? 1 + random.nextInt(3) : 1;
+            Direction[] dirs = moves[steps - 1];
+            int x = state.playerX(player), y = state.playerY(player);
+            for (int i = 0; i < steps; i++) {
+                Direction dir;
+                int nextX, nextY, attempts = 0;
+                do {
+                    dir = DIRECTIONS[random.nextInt(DIRECTIONS.length)];
+                    nextX = x + (dir == Direction.EAST ? 1 : dir == Direction.WEST ? -1 : 0);
+                    nextY = y + (dir == Direction.SOUTH ? 1 : dir == Direction.NORTH ? -1 : 0);
+                } while (++attempts < DIRECTIONS.length && !isFree(nextX, nextY, player));
+                dirs[i] = dir;
+                x = nextX;
+                y = nextY;
+            }
+            state.movePlayerAt(state.playerX(player), state.playerY(player), dirs);
+        }
+
+        /**
+         * Check whether a player can move to the specified cell
+         * @param x X coordinate of the cell
+         * @param y Y coordinate of the cell
+         * @param player Slot of the player
+         * @return {@code true} if the cell is on the field and not occupied by a teammate
+         */
+        boolean isFree(int x, int y, int player) {
+            if (x <= 0 || x > state.width() || y <= 0 || y > state.height()) return false;
+            int occupant = state.playerAt(x, y);
+            return occupant < 0 || occupant == player ||
+                state.playerTeam(occupant) != state.playerTeam(player);
+        }
+    }
+}